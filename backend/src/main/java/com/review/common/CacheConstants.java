@@ -5,21 +5,57 @@ package com.review.common;
  */
 public interface CacheConstants {
 
-    /** 普通用户任务统计缓存前缀，格式 stat:user:{tenantId}:{userId} */
-    String STAT_USER_PREFIX = "stat:user:";
+    /** 普通用户任务统计计数 Hash 前缀，格式 stat:counter:user:{tenantId}:{userId} */
+    String STAT_USER_PREFIX = "stat:counter:user:";
 
-    /** 审查员任务统计缓存前缀，格式 stat:reviewer:{tenantId}:{reviewerId} */
-    String STAT_REVIEWER_PREFIX = "stat:reviewer:";
+    /** 审查员任务统计计数 Hash 前缀，格式 stat:counter:reviewer:{tenantId}:{reviewerId} */
+    String STAT_REVIEWER_PREFIX = "stat:counter:reviewer:";
 
-    /** 审查员下拉选项缓存前缀，格式 options:reviewers:{tenantId} */
+    /** 审查员下拉选项缓存前缀，格式 options:reviewers:{tenantId}:{代数} */
     String REVIEWER_OPTION_PREFIX = "options:reviewers:";
 
-    /** 平台端租户列表缓存前缀（可附带查询条件） */
+    /** 审查员负载排行 ZSET 前缀（score 为待审查任务数），格式 assign:load:{tenantId} */
+    String REVIEWER_LOAD_PREFIX = "assign:load:";
+
+    /** 审查员最近一次被自动分配时间 Hash 前缀，格式 assign:last:{tenantId} */
+    String REVIEWER_ASSIGNED_PREFIX = "assign:last:";
+
+    /** 轮询分配游标前缀，格式 assign:rr:{tenantId} */
+    String REVIEWER_ROUND_ROBIN_PREFIX = "assign:rr:";
+
+    /** 平台端租户列表缓存前缀，格式 tenant:list:{代数}:{条件摘要} */
     String TENANT_LIST_PREFIX = "tenant:list:";
 
+    /** 游标分页列表总数缓存前缀，格式 task:list:total:{role}:{tenantId}:{代数}:{userId}:{条件摘要} */
+    String TASK_LIST_TOTAL_PREFIX = "task:list:total:";
+
     /** 任务详情防穿透空值缓存前缀 */
     String TASK_MISS_PREFIX = "task:miss:";
 
     /** 版本详情防穿透空值缓存前缀 */
     String VERSION_MISS_PREFIX = "version:miss:";
+
+    /** 任务详情缓存前缀，格式 detail:task:{taskId} */
+    String DETAIL_TASK_PREFIX = "detail:task:";
+
+    /** 审查详情缓存前缀，格式 detail:review:{versionId} */
+    String DETAIL_REVIEW_PREFIX = "detail:review:";
+
+    /** 详情缓存失效版本号前缀，格式 detail:gen:task:{taskId} / detail:gen:version:{versionId} */
+    String DETAIL_GEN_PREFIX = "detail:gen:";
+
+    /** 命名空间失效代数前缀，格式 cache:gen:{命名空间前缀}{tenantId}，如 cache:gen:options:reviewers:12 */
+    String CACHE_GEN_PREFIX = "cache:gen:";
+
+    /** 读写分离读己之写标记前缀，格式 rw:sticky:{userId} */
+    String RW_STICKY_PREFIX = "rw:sticky:";
+
+    /** 租户分片迁移期间的写入冻结标记前缀，格式 tenant:shard:freeze:{tenantId} */
+    String TENANT_SHARD_FREEZE_PREFIX = "tenant:shard:freeze:";
+
+    /** 近端缓存失效广播的 Redis pub/sub 频道，消息体为失效的缓存 Key，多个 Key 以换行分隔 */
+    String NEAR_CACHE_INVALIDATE_CHANNEL = "channel:near-cache-invalidate";
+
+    /** 用户事件推送的 Redis pub/sub 频道 */
+    String USER_EVENT_CHANNEL = "channel:user-event";
 }
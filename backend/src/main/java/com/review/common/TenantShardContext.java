@@ -0,0 +1,76 @@
+package com.review.common;
+
+import java.util.function.Supplier;
+
+/**
+ * 分片路由覆盖：在 UserContext 之外显式指定路由依据的租户或分片，
+ * 用于平台管理员按路径操作指定租户、消息消费、跨分片汇总等场景。
+ * 仅在获取物理连接时生效，已绑定到当前事务的连接不会随之切换。
+ */
+public final class TenantShardContext {
+
+    private static final ThreadLocal<Long> TENANT_HOLDER = new ThreadLocal<>();
+
+    private static final ThreadLocal<Integer> SHARD_HOLDER = new ThreadLocal<>();
+
+    private TenantShardContext() {
+    }
+
+    public static Long getTenantId() {
+        return TENANT_HOLDER.get();
+    }
+
+    public static Integer getShardId() {
+        return SHARD_HOLDER.get();
+    }
+
+    public static void setTenantId(Long tenantId) {
+        if (tenantId == null) {
+            TENANT_HOLDER.remove();
+        } else {
+            TENANT_HOLDER.set(tenantId);
+        }
+    }
+
+    public static void clear() {
+        TENANT_HOLDER.remove();
+        SHARD_HOLDER.remove();
+    }
+
+    /**
+     * 以指定租户的分片执行，结束后恢复原有覆盖。
+     */
+    public static <T> T callAsTenant(Long tenantId, Supplier<T> action) {
+        Long previous = TENANT_HOLDER.get();
+        setTenantId(tenantId);
+        try {
+            return action.get();
+        } finally {
+            setTenantId(previous);
+        }
+    }
+
+    public static void runAsTenant(Long tenantId, Runnable action) {
+        callAsTenant(tenantId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * 在指定分片执行，优先于租户覆盖与登录用户的租户。
+     */
+    public static <T> T callOnShard(int shardId, Supplier<T> action) {
+        Integer previous = SHARD_HOLDER.get();
+        SHARD_HOLDER.set(shardId);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                SHARD_HOLDER.remove();
+            } else {
+                SHARD_HOLDER.set(previous);
+            }
+        }
+    }
+}
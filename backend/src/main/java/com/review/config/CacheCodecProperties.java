@@ -0,0 +1,30 @@
+package com.review.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis 缓存值编码参数，通过 application.yml 的 cache-codec 注入。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "cache-codec")
+public class CacheCodecProperties {
+
+    /**
+     * 写入格式：smile（带版本头的二进制）或 json（无头的旧格式）。
+     * 读取总是兼容两种格式；从未引入编码层的版本滚动升级时，先以 json 完成发布，再切换为 smile。
+     */
+    private String writeFormat = "smile";
+
+    /**
+     * 是否对较大的值做 LZ4 压缩。
+     */
+    private boolean compressEnabled = true;
+
+    /**
+     * 编码后超过该字节数才尝试压缩，压缩后未变小则按原样存储。
+     */
+    private int compressThreshold = 1024;
+}
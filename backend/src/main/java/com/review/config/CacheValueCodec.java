@@ -0,0 +1,15 @@
+package com.review.config;
+
+/**
+ * 缓存值编码器。每种编码占用一个固定的格式编号并写入值头部，已写入 Redis 的编号不可复用。
+ */
+public interface CacheValueCodec {
+
+    byte formatId();
+
+    String name();
+
+    byte[] encode(Object value) throws Exception;
+
+    Object decode(byte[] payload) throws Exception;
+}
@@ -0,0 +1,69 @@
+package com.review.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 文件复制消费者自动扩缩容参数，通过 application.yml 的 copy-consumer.autoscale 注入。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "copy-consumer.autoscale")
+public class CopyAutoscaleProperties {
+
+    /**
+     * 是否启用自动扩缩容，关闭后保持监听容器的初始消费者数。
+     */
+    private boolean enabled = true;
+
+    /**
+     * 最少消费者数。
+     */
+    private int minConsumers = 1;
+
+    /**
+     * 最多消费者数（还会受数据库连接池上限约束）。
+     */
+    private int maxConsumers = 16;
+
+    /**
+     * 采样间隔（秒）。
+     */
+    private int sampleIntervalSeconds = 5;
+
+    /**
+     * 堆积超过该值才考虑扩容。
+     */
+    private long scaleUpBacklog = 100;
+
+    /**
+     * 堆积低于该值才考虑缩容。
+     */
+    private long scaleDownBacklog = 10;
+
+    /**
+     * 期望的堆积消化时间（秒），按当前吞吐预计超出时扩容。
+     */
+    private int targetDrainSeconds = 30;
+
+    /**
+     * 连续满足扩容条件的采样次数。
+     */
+    private int scaleUpSamples = 2;
+
+    /**
+     * 连续满足缩容条件的采样次数（大于扩容次数，形成滞回）。
+     */
+    private int scaleDownSamples = 6;
+
+    /**
+     * 两次调整之间的冷却时间（秒）。
+     */
+    private int cooldownSeconds = 30;
+
+    /**
+     * 消费者最多占用数据库连接池的比例，为上传、审查等请求保留连接。
+     */
+    private double dbPoolShare = 0.5;
+}
@@ -0,0 +1,76 @@
+package com.review.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 读写分离数据源配置，仅在 read-replica.enabled=true 时生效；未启用时沿用 Spring Boot 默认的单数据源。
+ * 主库仍读取 spring.datasource 与 spring.datasource.hikari，副本见 read-replica.nodes。
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "read-replica", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             ReadReplicaProperties properties,
+                                                             ObjectProvider<StringRedisTemplate> redisProvider) {
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        List<ReadReplicaProperties.Node> nodes = properties.getNodes();
+        for (int i = 0; i < nodes.size(); i++) {
+            ReadReplicaProperties.Node node = nodes.get(i);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setDriverClassName(dataSourceProperties.getDriverClassName());
+            replica.setJdbcUrl(node.getUrl());
+            replica.setUsername(StringUtils.hasText(node.getUsername())
+                    ? node.getUsername() : dataSourceProperties.getUsername());
+            replica.setPassword(StringUtils.hasText(node.getPassword())
+                    ? node.getPassword() : dataSourceProperties.getPassword());
+            replica.setMaximumPoolSize(properties.getMaximumPoolSize());
+            replica.setReadOnly(true);
+            // 副本不可用时不阻塞启动，由延迟检测摘除
+            replica.setInitializationFailTimeout(-1);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, properties, redisProvider);
+    }
+
+    /**
+     * 对外暴露的数据源：延迟到第一条语句执行时才获取物理连接，此时事务的只读标记已就绪。
+     * CopyConsumerAutoscaler 等通过 unwrap 获取连接池时，在事务外解析到主库连接池。
+     * 同时启用租户分片时由 TenantShardConfig 暴露，副本路由数据源作为分片 0。
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "tenant-shard", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,49 @@
+package com.review.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 内置文件复制队列参数（仅 embedded-mq 环境生效），通过 application-embedded-mq.yml 注入。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "embedded-mq")
+public class EmbeddedQueueProperties {
+
+    /**
+     * 日志文件存放目录。
+     */
+    private String dataDir = "./data/embedded-mq";
+
+    /**
+     * 单个 segment 文件大小（MB）。
+     */
+    private int segmentSizeMb = 64;
+
+    /**
+     * 并发消费线程数。
+     */
+    private int concurrency = 4;
+
+    /**
+     * 批量刷盘间隔（毫秒）。
+     */
+    private long flushIntervalMs = 20;
+
+    /**
+     * 未刷盘记录达到该数量时立即刷盘。
+     */
+    private int flushBatchSize = 64;
+
+    /**
+     * 投递时是否等待刷盘完成（组提交），关闭后吞吐更高但宕机可能丢失最近一个刷盘周期内的任务。
+     */
+    private boolean syncOnSend = true;
+
+    /**
+     * 等待刷盘的超时时间（毫秒）。
+     */
+    private long sendTimeoutMs = 3000;
+}
@@ -0,0 +1,29 @@
+package com.review.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 进程内近端缓存参数，通过 application.yml 的 near-cache 注入。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "near-cache")
+public class NearCacheProperties {
+
+    /**
+     * 是否在 Redis 之前启用进程内缓存。
+     */
+    private boolean enabled = true;
+
+    /**
+     * 最多保留的条目数。
+     */
+    private long maximumSize = 10000;
+
+    /**
+     * 写入后保留秒数；失效广播丢失或与读取竞争时，旧值最多保留这么久。
+     */
+    private long expireAfterWriteSeconds = 5;
+}
@@ -0,0 +1,162 @@
+package com.review.config;
+
+import com.review.dto.QueryPlanReportResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 查询计划巡检：拦截 MyBatis 查询，对每条 SELECT 首次执行时用相同参数做一次 EXPLAIN，
+ * 识别大范围全表扫描、全索引扫描、文件排序以及偏离预期索引的计划，记录到报告并输出告警。
+ * 在装载了仿真数据（sql/plan-check-seed.sql）的环境开启后，遍历页面即可得到覆盖全部服务查询的计划报告。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "plan-check", name = "enabled", havingValue = "true")
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class,
+                        CacheKey.class, BoundSql.class})
+})
+public class QueryPlanInspector implements Interceptor {
+
+    private final QueryPlanProperties properties;
+    private final Map<String, QueryPlanReportResponse.StatementPlan> checked = new ConcurrentHashMap<>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement) args[0];
+        if (ms.getSqlCommandType() == SqlCommandType.SELECT) {
+            Object parameter = args[1];
+            BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : ms.getBoundSql(parameter);
+            String sql = boundSql.getSql().replaceAll("\\s+", " ").trim();
+            String key = ms.getId() + "#" + sql;
+            if (!checked.containsKey(key) && checked.size() < properties.getMaxStatements()) {
+                QueryPlanReportResponse.StatementPlan plan = inspect((Executor) invocation.getTarget(), ms, parameter, boundSql, sql);
+                if (plan != null) {
+                    checked.putIfAbsent(key, plan);
+                }
+            }
+        }
+        return invocation.proceed();
+    }
+
+    public QueryPlanReportResponse report() {
+        List<QueryPlanReportResponse.StatementPlan> statements = new ArrayList<>(checked.values());
+        statements.sort(Comparator.comparing((QueryPlanReportResponse.StatementPlan item) -> item.getViolations().isEmpty())
+                .thenComparing(QueryPlanReportResponse.StatementPlan::getStatementId));
+        QueryPlanReportResponse response = new QueryPlanReportResponse();
+        response.setEnabled(true);
+        response.setCheckedStatements(statements.size());
+        response.setViolationStatements((int) statements.stream().filter(item -> !item.getViolations().isEmpty()).count());
+        response.setStatements(statements);
+        return response;
+    }
+
+    private QueryPlanReportResponse.StatementPlan inspect(Executor executor, MappedStatement ms, Object parameter,
+                                                          BoundSql boundSql, String sql) {
+        QueryPlanReportResponse.StatementPlan plan = new QueryPlanReportResponse.StatementPlan();
+        plan.setStatementId(ms.getId());
+        plan.setSql(sql);
+        plan.setCheckedAt(LocalDateTime.now());
+        try {
+            Connection connection = executor.getTransaction().getConnection();
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + boundSql.getSql())) {
+                new DefaultParameterHandler(ms, parameter, boundSql).setParameters(statement);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        QueryPlanReportResponse.PlanRow row = new QueryPlanReportResponse.PlanRow();
+                        row.setTable(rs.getString("table"));
+                        row.setType(rs.getString("type"));
+                        row.setKey(rs.getString("key"));
+                        long rows = rs.getLong("rows");
+                        row.setRows(rs.wasNull() ? null : rows);
+                        row.setExtra(rs.getString("Extra"));
+                        plan.getPlan().add(row);
+                    }
+                }
+            }
+        } catch (SQLException ex) {
+            log.debug("explain query failed, statement={}", ms.getId(), ex);
+            return null;
+        }
+        plan.setViolations(evaluate(plan.getPlan()));
+        if (!plan.getViolations().isEmpty()) {
+            log.warn("query plan regression, statement={}, violations={}, sql={}", ms.getId(), plan.getViolations(), sql);
+        }
+        return plan;
+    }
+
+    private List<String> evaluate(List<QueryPlanReportResponse.PlanRow> rows) {
+        List<String> violations = new ArrayList<>();
+        long threshold = properties.getRowsThreshold();
+        for (QueryPlanReportResponse.PlanRow row : rows) {
+            String table = row.getTable();
+            // 派生表、临时表等由外层行体现
+            if (table == null || table.startsWith("<")) {
+                continue;
+            }
+            long estimated = row.getRows() == null ? 0L : row.getRows();
+            String extra = row.getExtra() == null ? "" : row.getExtra();
+            if ("ALL".equals(row.getType()) && estimated >= threshold) {
+                violations.add(table + " 全表扫描，预估 " + estimated + " 行");
+            }
+            if ("index".equals(row.getType()) && estimated >= threshold) {
+                violations.add(table + " 全索引扫描 " + row.getKey() + "，预估 " + estimated + " 行");
+            }
+            if (extra.contains("Using filesort") && estimated >= threshold) {
+                violations.add(table + " 文件排序，预估 " + estimated + " 行");
+            }
+            List<String> expected = properties.getExpectedIndexes().getOrDefault(table, Collections.emptyList());
+            if (!expected.isEmpty() && row.getKey() != null && !containsIgnoreCase(expected, row.getKey())) {
+                violations.add(table + " 使用了预期之外的索引 " + row.getKey() + "，预期 " + expected);
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * index_merge 时 key 为逗号分隔的多个索引，要求每个都在预期列表中。
+     */
+    private boolean containsIgnoreCase(List<String> values, String key) {
+        Set<String> allowed = values.stream().map(value -> value.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+        for (String part : key.split(",")) {
+            if (!allowed.contains(part.trim().toLowerCase(Locale.ROOT))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,39 @@
+package com.review.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 查询计划巡检参数，通过 application.yml 的 plan-check 注入；仅建议在开发、预发等装载了仿真数据的环境开启。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "plan-check")
+public class QueryPlanProperties {
+
+    /**
+     * 是否启用；启用后每条 SELECT（按语句 ID 与 SQL 去重）首次执行前先做一次 EXPLAIN。
+     */
+    private boolean enabled = false;
+
+    /**
+     * 预估扫描行数达到该值才判定全表扫描、全索引扫描与文件排序，避免小表误报。
+     */
+    private long rowsThreshold = 1000;
+
+    /**
+     * 最多记录的语句数，超出后不再巡检新语句。
+     */
+    private int maxStatements = 500;
+
+    /**
+     * 各表允许使用的索引，计划使用了列表之外的索引时视为回归；未配置的表不检查。
+     * 表名以 EXPLAIN 输出为准，SQL 中使用别名时为别名。
+     */
+    private Map<String, List<String>> expectedIndexes = new HashMap<>();
+}
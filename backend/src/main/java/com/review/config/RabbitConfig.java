@@ -10,19 +10,25 @@ import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 /**
- * RabbitMQ 基础配置，定义文件复制相关的交换机/队列/绑定。
+ * RabbitMQ 基础配置，定义文件复制相关的交换机/队列/绑定（embedded-mq 环境下不加载）。
  */
 @Configuration
+@Profile("!embedded-mq")
 @EnableRabbit
 public class RabbitConfig {
 
     public static final String REVIEW_EXCHANGE = "review.exchange";
     public static final String FILE_COPY_QUEUE = "file.copy.queue";
+    public static final String FILE_COPY_LARGE_QUEUE = "file.copy.large.queue";
     public static final String FILE_COPY_DLX_QUEUE = "file.copy.dlx";
     public static final String FILE_COPY_ROUTING_KEY = "file.copy";
+    public static final String FILE_COPY_LARGE_ROUTING_KEY = "file.copy.large";
     public static final String FILE_COPY_DLX_ROUTING_KEY = "file.copy.dlx";
+    public static final String FILE_COPY_LISTENER_ID = "fileCopyListener";
+    public static final String FILE_COPY_LARGE_LISTENER_ID = "fileCopyLargeListener";
 
     @Bean
     public TopicExchange reviewExchange() {
@@ -37,6 +43,17 @@ public class RabbitConfig {
                 .build();
     }
 
+    /**
+     * 大版本复制通道：文件数较多的复制任务单独排队，避免阻塞小版本。
+     */
+    @Bean
+    public Queue fileCopyLargeQueue() {
+        return QueueBuilder.durable(FILE_COPY_LARGE_QUEUE)
+                .withArgument("x-dead-letter-exchange", REVIEW_EXCHANGE)
+                .withArgument("x-dead-letter-routing-key", FILE_COPY_DLX_ROUTING_KEY)
+                .build();
+    }
+
     @Bean
     public Queue fileCopyDlxQueue() {
         return QueueBuilder.durable(FILE_COPY_DLX_QUEUE).build();
@@ -49,6 +66,13 @@ public class RabbitConfig {
                 .with(FILE_COPY_ROUTING_KEY);
     }
 
+    @Bean
+    public Binding fileCopyLargeBinding(Queue fileCopyLargeQueue, TopicExchange reviewExchange) {
+        return BindingBuilder.bind(fileCopyLargeQueue)
+                .to(reviewExchange)
+                .with(FILE_COPY_LARGE_ROUTING_KEY);
+    }
+
     @Bean
     public Binding fileCopyDlxBinding(Queue fileCopyDlxQueue, TopicExchange reviewExchange) {
         return BindingBuilder.bind(fileCopyDlxQueue)
@@ -0,0 +1,54 @@
+package com.review.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 只读副本读写分离参数，通过 application.yml 的 read-replica 注入。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "read-replica")
+public class ReadReplicaProperties {
+
+    /**
+     * 是否启用读写分离，关闭时所有查询仍走 spring.datasource 主库。
+     */
+    private boolean enabled = false;
+
+    /**
+     * 副本复制延迟超过该值（秒）时暂停向其路由，恢复后自动加入。
+     */
+    private long maxLagSeconds = 3;
+
+    /**
+     * 用户写事务提交后，在该时间（秒）内其只读查询仍走主库，保证读到自己的写入。
+     */
+    private long stickySeconds = 5;
+
+    /**
+     * 副本延迟检测间隔（毫秒）。
+     */
+    private long lagCheckIntervalMs = 2000;
+
+    /**
+     * 每个副本连接池的最大连接数。
+     */
+    private int maximumPoolSize = 10;
+
+    /**
+     * 副本列表，用户名与密码为空时沿用主库配置。
+     */
+    private List<Node> nodes = new ArrayList<>();
+
+    @Data
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
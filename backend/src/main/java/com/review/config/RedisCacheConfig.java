@@ -1,38 +1,49 @@
 package com.review.config;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
- * Redis 配置：统一 key/value 序列化，启用 Spring Cache。
+ * Redis 配置：统一 key/value 序列化（值按 cache-codec 配置编码），启用 Spring Cache。
  */
 @Configuration
 @EnableCaching
 public class RedisCacheConfig {
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       CacheCodecProperties codecProperties) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
-        // 配置 ObjectMapper 支持 Java 8 日期时间类型
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        objectMapper.activateDefaultTyping(
-            objectMapper.getPolymorphicTypeValidator(),
-            ObjectMapper.DefaultTyping.NON_FINAL
-        );
+        GenericJackson2JsonRedisSerializer jsonSerializer =
+                new GenericJackson2JsonRedisSerializer(cacheObjectMapper(new JsonFactory()));
+        List<CacheValueCodec> codecs = Collections.singletonList(smileCodec());
+        CacheValueCodec writeCodec = codecs.stream()
+                .filter(codec -> codec.name().equalsIgnoreCase(codecProperties.getWriteFormat()))
+                .findFirst()
+                .orElse(null);
+        if (writeCodec == null && !"json".equalsIgnoreCase(codecProperties.getWriteFormat())) {
+            throw new IllegalStateException("unknown cache-codec.write-format: " + codecProperties.getWriteFormat());
+        }
+        VersionedCacheSerializer serializer = new VersionedCacheSerializer(jsonSerializer, codecs, writeCodec,
+                codecProperties.isCompressEnabled(), codecProperties.getCompressThreshold());
 
-        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(objectMapper);
         template.setKeySerializer(new StringRedisSerializer());
         template.setHashKeySerializer(new StringRedisSerializer());
         template.setValueSerializer(serializer);
@@ -40,4 +51,37 @@ public class RedisCacheConfig {
         template.afterPropertiesSet();
         return template;
     }
+
+    /**
+     * Smile 开启字符串值回引用，同一个值内重复出现的类名只写一次。
+     */
+    static CacheValueCodec smileCodec() {
+        SmileFactory smileFactory = new SmileFactory();
+        smileFactory.enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES);
+        return new SmileCacheValueCodec(cacheObjectMapper(smileFactory));
+    }
+
+    /**
+     * JSON 与 Smile 共用的映射配置：支持 Java 8 日期时间类型，并写入多态类型信息以便按原类型读回。
+     */
+    static ObjectMapper cacheObjectMapper(JsonFactory factory) {
+        ObjectMapper objectMapper = new ObjectMapper(factory);
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper.activateDefaultTyping(
+            objectMapper.getPolymorphicTypeValidator(),
+            ObjectMapper.DefaultTyping.NON_FINAL
+        );
+        return objectMapper;
+    }
+
+    /**
+     * Redis pub/sub 监听容器，供跨节点事件广播使用。
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
 }
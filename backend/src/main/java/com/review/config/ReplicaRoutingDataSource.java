@@ -0,0 +1,170 @@
+package com.review.config;
+
+import com.review.common.CacheConstants;
+import com.review.common.UserContext;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 读写分离路由数据源：@Transactional(readOnly = true) 的事务在健康副本间轮询，其余一律走主库。
+ * 副本按复制延迟定期检测，超过阈值或复制中断时摘除；用户写事务提交后短时间内其只读事务仍走主库（读己之写），
+ * 标记写入 Redis 以便多节点共享，Redis 不可用时按已标记处理。
+ * 需由 LazyConnectionDataSourceProxy 包装，使路由发生在事务只读标记设置之后。
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    private final Map<String, HikariDataSource> replicas;
+    private final ReadReplicaProperties properties;
+    private final ObjectProvider<StringRedisTemplate> redisProvider;
+    private final Map<Long, Long> localSticky = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<String> healthyReplicas = Collections.emptyList();
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    Map<String, HikariDataSource> replicas,
+                                    ReadReplicaProperties properties,
+                                    ObjectProvider<StringRedisTemplate> redisProvider) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.properties = properties;
+        this.redisProvider = redisProvider;
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = UserContext.getCurrentUserId();
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            List<String> healthy = healthyReplicas;
+            if (healthy.isEmpty() || isSticky(userId)) {
+                return PRIMARY;
+            }
+            return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+        }
+        if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markSticky(userId);
+                }
+            });
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * 检测各副本复制延迟，更新可路由的副本列表。
+     */
+    @Scheduled(fixedDelayString = "${read-replica.lag-check-interval-ms:2000}")
+    public void refreshReplicaHealth() {
+        List<String> healthy = new ArrayList<>(replicas.size());
+        for (Map.Entry<String, HikariDataSource> entry : replicas.entrySet()) {
+            Long lag = replicationLag(entry.getValue());
+            if (lag != null && lag <= properties.getMaxLagSeconds()) {
+                healthy.add(entry.getKey());
+            } else if (healthyReplicas.contains(entry.getKey())) {
+                log.warn("read replica {} removed from routing, lagSeconds={}", entry.getKey(), lag);
+            }
+        }
+        if (!healthy.equals(healthyReplicas)) {
+            log.info("read replica routing updated, healthy={}", healthy);
+        }
+        healthyReplicas = Collections.unmodifiableList(healthy);
+    }
+
+    @Override
+    public void destroy() {
+        replicas.values().forEach(HikariDataSource::close);
+    }
+
+    /**
+     * 返回副本延迟秒数；无法连接或复制线程中断时返回 null。未配置复制的实例按无延迟处理。
+     */
+    private Long replicationLag(DataSource replica) {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+                return readLag(rs, "Seconds_Behind_Source");
+            } catch (SQLException ex) {
+                // MySQL 8.0.22 之前只支持旧语法
+                try (ResultSet rs = statement.executeQuery("SHOW SLAVE STATUS")) {
+                    return readLag(rs, "Seconds_Behind_Master");
+                }
+            }
+        } catch (SQLException ex) {
+            log.debug("check read replica lag failed", ex);
+            return null;
+        }
+    }
+
+    private Long readLag(ResultSet rs, String column) throws SQLException {
+        if (!rs.next()) {
+            return 0L;
+        }
+        long lag = rs.getLong(column);
+        return rs.wasNull() ? null : lag;
+    }
+
+    private boolean isSticky(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        Long until = localSticky.get(userId);
+        if (until != null) {
+            if (until > System.currentTimeMillis()) {
+                return true;
+            }
+            localSticky.remove(userId, until);
+        }
+        StringRedisTemplate redis = redisProvider.getIfAvailable();
+        if (redis == null) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(redis.hasKey(CacheConstants.RW_STICKY_PREFIX + userId));
+        } catch (Exception ex) {
+            return true;
+        }
+    }
+
+    private void markSticky(Long userId) {
+        Duration ttl = Duration.ofSeconds(properties.getStickySeconds());
+        localSticky.put(userId, System.currentTimeMillis() + ttl.toMillis());
+        StringRedisTemplate redis = redisProvider.getIfAvailable();
+        if (redis == null) {
+            return;
+        }
+        try {
+            redis.opsForValue().set(CacheConstants.RW_STICKY_PREFIX + userId, "1", ttl);
+        } catch (Exception ex) {
+            log.warn("mark read-your-writes stickiness failed, userId={}", userId, ex);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.review.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson Smile 二进制编码：保留与 JSON 序列化器相同的多态类型信息，
+ * 同一个值内重复的属性名与类名以回引用写入，列表类缓存只记录一次类名。
+ */
+public class SmileCacheValueCodec implements CacheValueCodec {
+
+    public static final byte FORMAT_ID = 1;
+
+    private final ObjectMapper smileMapper;
+
+    public SmileCacheValueCodec(ObjectMapper smileMapper) {
+        this.smileMapper = smileMapper;
+    }
+
+    @Override
+    public byte formatId() {
+        return FORMAT_ID;
+    }
+
+    @Override
+    public String name() {
+        return "smile";
+    }
+
+    @Override
+    public byte[] encode(Object value) throws Exception {
+        return smileMapper.writeValueAsBytes(value);
+    }
+
+    @Override
+    public Object decode(byte[] payload) throws Exception {
+        return smileMapper.readValue(payload, Object.class);
+    }
+}
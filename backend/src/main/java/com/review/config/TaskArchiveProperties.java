@@ -0,0 +1,39 @@
+package com.review.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 已完成任务归档参数，通过 application.yml 的 task-archive 注入。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "task-archive")
+public class TaskArchiveProperties {
+
+    /**
+     * 是否启用定时归档。
+     */
+    private boolean enabled = false;
+
+    /**
+     * 执行时间，建议避开业务高峰。
+     */
+    private String cron = "0 0 4 * * ?";
+
+    /**
+     * 审查通过后保留在热表的天数，以任务更新时间计算。
+     */
+    private int retentionDays = 180;
+
+    /**
+     * 每个事务迁移的任务数，控制单次持锁时间与 binlog 事务大小。
+     */
+    private int chunkSize = 200;
+
+    /**
+     * 单次运行最多处理的块数，剩余任务留待下次运行。
+     */
+    private int maxChunksPerRun = 500;
+}
@@ -0,0 +1,77 @@
+package com.review.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 租户分片数据源配置，仅在 tenant-shard.enabled=true 时生效。
+ * 分片 0 复用 spring.datasource；同时启用读写分离时，分片 0 的只读事务仍按 read-replica 路由到副本，附加分片只走主库。
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "tenant-shard", name = "enabled", havingValue = "true")
+public class TenantShardConfig {
+
+    /**
+     * 未启用读写分离时由此创建主库连接池；启用时复用 DataSourceRoutingConfig 中的同名连接池。
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "read-replica", name = "enabled", havingValue = "false", matchIfMissing = true)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public TenantShardRoutingDataSource tenantShardRoutingDataSource(
+            @Qualifier("primaryDataSource") HikariDataSource primary,
+            ObjectProvider<ReplicaRoutingDataSource> replicaRoutingProvider,
+            DataSourceProperties dataSourceProperties,
+            TenantShardProperties properties) {
+        List<HikariDataSource> shards = new ArrayList<>();
+        List<TenantShardProperties.Node> nodes = properties.getNodes();
+        for (int i = 0; i < nodes.size(); i++) {
+            TenantShardProperties.Node node = nodes.get(i);
+            HikariDataSource shard = new HikariDataSource();
+            shard.setPoolName("shard-" + (i + 1));
+            shard.setDriverClassName(dataSourceProperties.getDriverClassName());
+            shard.setJdbcUrl(node.getUrl());
+            shard.setUsername(StringUtils.hasText(node.getUsername())
+                    ? node.getUsername() : dataSourceProperties.getUsername());
+            shard.setPassword(StringUtils.hasText(node.getPassword())
+                    ? node.getPassword() : dataSourceProperties.getPassword());
+            shard.setMaximumPoolSize(properties.getMaximumPoolSize());
+            // 单个分片不可用时不阻塞启动，只影响该分片上的租户
+            shard.setInitializationFailTimeout(-1);
+            shards.add(shard);
+        }
+        ReplicaRoutingDataSource replicaRouting = replicaRoutingProvider.getIfAvailable();
+        DataSource shardZero = replicaRouting != null ? replicaRouting : primary;
+        return new TenantShardRoutingDataSource(shardZero, primary, shards, properties);
+    }
+
+    /**
+     * 对外暴露的数据源：延迟到第一条语句执行时才获取物理连接，此时路由所需的租户上下文与只读标记均已就绪。
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(TenantShardRoutingDataSource tenantShardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(tenantShardRoutingDataSource);
+    }
+}
@@ -0,0 +1,60 @@
+package com.review.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 租户分片参数，通过 application.yml 的 tenant-shard 注入。
+ * 分片 0 即 spring.datasource（启用读写分离时连同其副本），同时保存全部租户的分片目录；nodes 依次为分片 1..N。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "tenant-shard")
+public class TenantShardProperties {
+
+    /**
+     * 是否启用租户分片，关闭时所有数据仍在 spring.datasource。
+     */
+    private boolean enabled = false;
+
+    /**
+     * 租户到分片映射的本地缓存时间（秒）；迁移切换后冻结写入至少保持该时长，确保各节点缓存已过期。
+     */
+    private long directoryCacheSeconds = 30;
+
+    /**
+     * 每个附加分片连接池的最大连接数。
+     */
+    private int maximumPoolSize = 10;
+
+    /**
+     * 迁移时每批复制或校验的行数。
+     */
+    private int migrationChunkSize = 500;
+
+    /**
+     * 冻结写入后等待进行中请求完成的时间（秒）。
+     */
+    private long freezeGraceSeconds = 5;
+
+    /**
+     * 冻结后等待该租户进行中的文件复制完成的最长时间（秒），超时则放弃本次迁移。
+     */
+    private long drainTimeoutSeconds = 300;
+
+    /**
+     * 附加分片列表，用户名与密码为空时沿用主库配置。
+     */
+    private List<Node> nodes = new ArrayList<>();
+
+    @Data
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
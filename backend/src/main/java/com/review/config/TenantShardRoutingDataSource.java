@@ -0,0 +1,174 @@
+package com.review.config;
+
+import com.review.common.TenantShardContext;
+import com.review.common.UserContext;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 租户分片路由数据源：依次按 TenantShardContext 的分片覆盖、租户覆盖、登录用户的租户确定分片，
+ * 无租户上下文（平台租户、定时任务）时走分片 0。租户所在分片记录在分片 0 的 tenant.shard_id，本地缓存
+ * directory-cache-seconds 秒，目录查询直连分片 0 主库，不经过读写分离与事务。
+ * 需由 LazyConnectionDataSourceProxy 包装，使路由发生在第一条语句执行时。
+ */
+@Slf4j
+public class TenantShardRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    public static final int DIRECTORY_SHARD = 0;
+
+    private static final String DIRECTORY_SQL = "SELECT shard_id, shard_migrating FROM tenant WHERE id = ?";
+
+    private final HikariDataSource directory;
+    private final Map<Integer, DataSource> writableShards;
+    private final List<HikariDataSource> ownedPools;
+    private final TenantShardProperties properties;
+    private final Map<Long, CachedShard> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param shardZero 分片 0 的业务数据源，启用读写分离时为副本路由数据源
+     * @param directory 分片 0 主库连接池，用于目录查询与迁移
+     * @param shardPools 附加分片 1..N 的连接池
+     */
+    public TenantShardRoutingDataSource(DataSource shardZero,
+                                        HikariDataSource directory,
+                                        List<HikariDataSource> shardPools,
+                                        TenantShardProperties properties) {
+        this.directory = directory;
+        this.ownedPools = new ArrayList<>(shardPools);
+        this.properties = properties;
+        Map<Integer, DataSource> writable = new LinkedHashMap<>();
+        writable.put(DIRECTORY_SHARD, directory);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(DIRECTORY_SHARD, shardZero);
+        for (int i = 0; i < shardPools.size(); i++) {
+            writable.put(i + 1, shardPools.get(i));
+            targets.put(i + 1, shardPools.get(i));
+        }
+        this.writableShards = Collections.unmodifiableMap(writable);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shardZero);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shardId = TenantShardContext.getShardId();
+        if (shardId != null) {
+            return shardId;
+        }
+        Long tenantId = TenantShardContext.getTenantId();
+        return shardOf(tenantId != null ? tenantId : UserContext.getCurrentTenantId());
+    }
+
+    /**
+     * 查询租户所在分片；平台租户与目录中不存在的租户（如刚删除）归入分片 0。
+     */
+    public int shardOf(Long tenantId) {
+        if (tenantId == null || tenantId == 0L) {
+            return DIRECTORY_SHARD;
+        }
+        return resolve(tenantId).shardId;
+    }
+
+    /**
+     * 租户是否处于分片迁移中（目录行 shard_migrating），与分片映射一同缓存；
+     * 目录不可用而沿用过期映射时按迁移中处理，由调用方进一步检查冻结。
+     */
+    public boolean isMigrating(Long tenantId) {
+        if (tenantId == null || tenantId == 0L) {
+            return false;
+        }
+        return resolve(tenantId).migrating;
+    }
+
+    private CachedShard resolve(Long tenantId) {
+        long now = System.currentTimeMillis();
+        CachedShard cached = cache.get(tenantId);
+        if (cached != null && cached.expireAt > now) {
+            return cached;
+        }
+        CachedShard resolved;
+        try {
+            resolved = lookup(tenantId, now + properties.getDirectoryCacheSeconds() * 1000);
+        } catch (SQLException ex) {
+            if (cached != null) {
+                // 目录暂不可用时沿用过期的映射，迁移期间的写入由冻结保护
+                log.warn("tenant shard directory lookup failed, using stale mapping, tenantId={}", tenantId, ex);
+                return new CachedShard(cached.shardId, true, cached.expireAt);
+            }
+            throw new IllegalStateException("tenant shard directory unavailable, tenantId=" + tenantId, ex);
+        }
+        if (!writableShards.containsKey(resolved.shardId)) {
+            throw new IllegalStateException("tenant " + tenantId + " mapped to unconfigured shard " + resolved.shardId);
+        }
+        cache.put(tenantId, resolved);
+        return resolved;
+    }
+
+    /**
+     * 清除本节点缓存的映射，其他节点在缓存过期后生效。
+     */
+    public void evict(Long tenantId) {
+        cache.remove(tenantId);
+    }
+
+    public List<Integer> shardIds() {
+        return new ArrayList<>(writableShards.keySet());
+    }
+
+    /**
+     * 分片主库连接池，迁移工具直接读写，不经过读写分离。
+     */
+    public DataSource writableShard(int shardId) {
+        DataSource dataSource = writableShards.get(shardId);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("unconfigured shard " + shardId);
+        }
+        return dataSource;
+    }
+
+    @Override
+    public void destroy() {
+        ownedPools.forEach(HikariDataSource::close);
+    }
+
+    private CachedShard lookup(Long tenantId, long expireAt) throws SQLException {
+        try (Connection connection = directory.getConnection();
+             PreparedStatement statement = connection.prepareStatement(DIRECTORY_SQL)) {
+            statement.setLong(1, tenantId);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next()
+                        ? new CachedShard(rs.getInt(1), rs.getInt(2) != 0, expireAt)
+                        : new CachedShard(DIRECTORY_SHARD, false, expireAt);
+            }
+        }
+    }
+
+    private static final class CachedShard {
+
+        private final int shardId;
+        private final boolean migrating;
+        private final long expireAt;
+
+        private CachedShard(int shardId, boolean migrating, long expireAt) {
+            this.shardId = shardId;
+            this.migrating = migrating;
+            this.expireAt = expireAt;
+        }
+    }
+}
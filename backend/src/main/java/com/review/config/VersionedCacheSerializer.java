@@ -0,0 +1,153 @@
+package com.review.config;
+
+import lombok.extern.slf4j.Slf4j;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 带版本头的缓存值序列化器。
+ * <p>
+ * 二进制格式：1 字节头版本 + 1 字节编码格式编号 + 1 字节标志位，压缩时再跟 4 字节原始长度，其后为载荷。
+ * 旧的 JSON 值以可打印字符开头，据此与带头的值区分，升级前写入的缓存无需清理即可读取；
+ * 遇到不认识的格式编号（由更新版本的节点写入）按未命中处理，不影响滚动发布。
+ * <p>
+ * 数字、字符串、布尔值始终写成无头的 JSON 文本：代数计数由 Lua INCR 维护，脚本参数也要能被 Redis 直接比较和使用。
+ */
+@Slf4j
+public class VersionedCacheSerializer implements RedisSerializer<Object> {
+
+    private static final byte HEADER_V1 = 1;
+    private static final byte FLAG_LZ4 = 1;
+    private static final int HEADER_LENGTH = 3;
+    private static final int LENGTH_FIELD = 4;
+
+    /** 解压前的长度校验上限，防止损坏的头部导致超大分配 */
+    private static final int MAX_RAW_LENGTH = 64 * 1024 * 1024;
+
+    private final RedisSerializer<Object> legacySerializer;
+    private final Map<Byte, CacheValueCodec> codecs = new HashMap<>();
+    private final CacheValueCodec writeCodec;
+    private final boolean compressEnabled;
+    private final int compressThreshold;
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    /**
+     * @param writeCodec 为 null 时写入旧 JSON 格式
+     */
+    public VersionedCacheSerializer(RedisSerializer<Object> legacySerializer, List<CacheValueCodec> codecs,
+                                    CacheValueCodec writeCodec, boolean compressEnabled, int compressThreshold) {
+        this.legacySerializer = legacySerializer;
+        for (CacheValueCodec codec : codecs) {
+            if (this.codecs.put(codec.formatId(), codec) != null) {
+                throw new IllegalArgumentException("duplicate cache codec format id: " + codec.formatId());
+            }
+        }
+        this.writeCodec = writeCodec;
+        this.compressEnabled = compressEnabled;
+        this.compressThreshold = Math.max(compressThreshold, 0);
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (writeCodec == null || value == null || isScalar(value)) {
+            return legacySerializer.serialize(value);
+        }
+        byte[] raw;
+        try {
+            raw = writeCodec.encode(value);
+        } catch (Exception ex) {
+            throw new SerializationException("Could not encode cache value with " + writeCodec.name(), ex);
+        }
+        if (compressEnabled && raw.length > compressThreshold) {
+            byte[] compressed = compress(raw);
+            if (compressed != null) {
+                return compressed;
+            }
+        }
+        byte[] bytes = new byte[HEADER_LENGTH + raw.length];
+        writeHeader(bytes, (byte) 0);
+        System.arraycopy(raw, 0, bytes, HEADER_LENGTH, raw.length);
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != HEADER_V1) {
+            return legacySerializer.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH) {
+            throw new SerializationException("Truncated cache value header");
+        }
+        CacheValueCodec codec = codecs.get(bytes[1]);
+        if (codec == null) {
+            log.debug("skip cache value with unknown format id {}", bytes[1]);
+            return null;
+        }
+        byte[] payload = (bytes[2] & FLAG_LZ4) != 0 ? decompress(bytes) : copyPayload(bytes, HEADER_LENGTH);
+        try {
+            return codec.decode(payload);
+        } catch (Exception ex) {
+            throw new SerializationException("Could not decode cache value with " + codec.name(), ex);
+        }
+    }
+
+    private byte[] compress(byte[] raw) {
+        int offset = HEADER_LENGTH + LENGTH_FIELD;
+        byte[] buffer = new byte[offset + compressor.maxCompressedLength(raw.length)];
+        int length = compressor.compress(raw, 0, raw.length, buffer, offset);
+        if (offset + length >= HEADER_LENGTH + raw.length) {
+            return null;
+        }
+        writeHeader(buffer, FLAG_LZ4);
+        ByteBuffer.wrap(buffer, HEADER_LENGTH, LENGTH_FIELD).putInt(raw.length);
+        byte[] bytes = new byte[offset + length];
+        System.arraycopy(buffer, 0, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    private byte[] decompress(byte[] bytes) {
+        if (bytes.length < HEADER_LENGTH + LENGTH_FIELD) {
+            throw new SerializationException("Truncated compressed cache value");
+        }
+        int rawLength = ByteBuffer.wrap(bytes, HEADER_LENGTH, LENGTH_FIELD).getInt();
+        if (rawLength < 0 || rawLength > MAX_RAW_LENGTH) {
+            throw new SerializationException("Invalid compressed cache value length: " + rawLength);
+        }
+        try {
+            return decompressor.decompress(bytes, HEADER_LENGTH + LENGTH_FIELD, rawLength);
+        } catch (Exception ex) {
+            throw new SerializationException("Could not decompress cache value", ex);
+        }
+    }
+
+    private void writeHeader(byte[] bytes, byte flags) {
+        bytes[0] = HEADER_V1;
+        bytes[1] = writeCodec.formatId();
+        bytes[2] = flags;
+    }
+
+    private byte[] copyPayload(byte[] bytes, int offset) {
+        byte[] payload = new byte[bytes.length - offset];
+        System.arraycopy(bytes, offset, payload, 0, payload.length);
+        return payload;
+    }
+
+    private boolean isScalar(Object value) {
+        return value instanceof Number || value instanceof String || value instanceof Boolean;
+    }
+}
@@ -1,6 +1,7 @@
 package com.review.config;
 
 import com.review.interceptor.JwtInterceptor;
+import com.review.interceptor.TenantShardInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
@@ -25,6 +26,9 @@ public class WebMvcConfig implements WebMvcConfigurer {
     @Autowired
     private JwtInterceptor jwtInterceptor;
 
+    @Autowired
+    private TenantShardInterceptor tenantShardInterceptor;
+
     /**
      * 添加自定义参数解析器
      */
@@ -34,23 +38,28 @@ public class WebMvcConfig implements WebMvcConfigurer {
     }
 
     /**
-     * 配置 JWT 拦截器，拦截所有请求，放行白名单
+     * 配置 JWT 与租户分片拦截器，拦截所有请求，放行白名单
      */
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
+        String[] whitelist = {
+                "/auth/login",
+                "/auth/register",
+                "/health",
+                "/doc.html",
+                "/swagger-resources/**",
+                "/v2/api-docs/**",
+                "/webjars/**",
+                "/favicon.ico",
+                "/error"
+        };
         registry.addInterceptor(jwtInterceptor)
                 .addPathPatterns("/**")
-                .excludePathPatterns(
-                        "/auth/login",
-                        "/auth/register",
-                        "/health",
-                        "/doc.html",
-                        "/swagger-resources/**",
-                        "/v2/api-docs/**",
-                        "/webjars/**",
-                        "/favicon.ico",
-                        "/error"
-                );
+                .excludePathPatterns(whitelist);
+        // 分片路由依赖 JWT 解析出的用户上下文，需在其后执行
+        registry.addInterceptor(tenantShardInterceptor)
+                .addPathPatterns("/**")
+                .excludePathPatterns(whitelist);
     }
 
     @Bean
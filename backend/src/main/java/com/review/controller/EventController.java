@@ -0,0 +1,35 @@
+package com.review.controller;
+
+import com.review.common.BusinessException;
+import com.review.common.UserContext;
+import com.review.service.support.UserEventHub;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 用户事件推送接口（SSE）。
+ */
+@Api(tags = "事件推送")
+@RestController
+@RequestMapping("/events")
+public class EventController {
+
+    @Autowired
+    private UserEventHub userEventHub;
+
+    @ApiOperation("订阅当前用户的事件流")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        Long userId = UserContext.getCurrentUserId();
+        if (userId == null) {
+            throw new BusinessException("无法识别当前用户，请重新登录");
+        }
+        return userEventHub.connect(userId);
+    }
+}
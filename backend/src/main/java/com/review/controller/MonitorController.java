@@ -1,16 +1,31 @@
 package com.review.controller;
 
+import com.review.common.BusinessException;
 import com.review.common.Result;
+import com.review.common.UserContext;
+import com.review.config.QueryPlanInspector;
 import com.review.dto.CacheMonitorResponse;
+import com.review.dto.DeadLetterMessageResponse;
+import com.review.dto.DeadLetterReplayProgressResponse;
+import com.review.dto.DeadLetterReplayRequest;
+import com.review.dto.QueryPlanReportResponse;
 import com.review.dto.QueueMonitorResponse;
+import com.review.service.DeadLetterReplayService;
 import com.review.service.MonitorService;
+import com.review.utils.RoleUtil;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 /**
  * 队列 / 缓存 监控接口
  */
@@ -22,6 +37,14 @@ public class MonitorController {
     @Autowired
     private MonitorService monitorService;
 
+    /** 仅 plan-check.enabled=true 时存在 */
+    @Autowired(required = false)
+    private QueryPlanInspector queryPlanInspector;
+
+    /** embedded-mq 环境下没有 RabbitMQ，死信重投不可用 */
+    @Autowired(required = false)
+    private DeadLetterReplayService deadLetterReplayService;
+
     @ApiOperation("获取队列监控数据")
     @GetMapping("/queues")
     public Result<QueueMonitorResponse> queues() {
@@ -33,4 +56,59 @@ public class MonitorController {
     public Result<CacheMonitorResponse> cache() {
         return Result.success(monitorService.loadCacheMetrics());
     }
+
+    @ApiOperation("查询计划巡检报告")
+    @GetMapping("/query-plans")
+    public Result<QueryPlanReportResponse> queryPlans() {
+        ensurePlatformAdmin();
+        if (queryPlanInspector == null) {
+            QueryPlanReportResponse disabled = new QueryPlanReportResponse();
+            disabled.setEnabled(false);
+            disabled.setCheckedStatements(0);
+            disabled.setViolationStatements(0);
+            return Result.success(disabled);
+        }
+        return Result.success(queryPlanInspector.report());
+    }
+
+    @ApiOperation("浏览死信队列消息")
+    @GetMapping("/dlq/messages")
+    public Result<List<DeadLetterMessageResponse>> deadLetters(@RequestParam(defaultValue = "50") Integer limit) {
+        ensurePlatformAdmin();
+        return Result.success(replayService().browse(limit));
+    }
+
+    @ApiOperation("限速重投死信消息")
+    @PostMapping("/dlq/replay")
+    public Result<DeadLetterReplayProgressResponse> replay(@Validated @RequestBody DeadLetterReplayRequest request) {
+        ensurePlatformAdmin();
+        return Result.success(replayService().startReplay(request));
+    }
+
+    @ApiOperation("查询死信重投进度")
+    @GetMapping("/dlq/replay")
+    public Result<DeadLetterReplayProgressResponse> replayProgress() {
+        ensurePlatformAdmin();
+        return Result.success(replayService().currentProgress());
+    }
+
+    @ApiOperation("取消死信重投")
+    @PostMapping("/dlq/replay/cancel")
+    public Result<DeadLetterReplayProgressResponse> cancelReplay() {
+        ensurePlatformAdmin();
+        return Result.success(replayService().cancelReplay());
+    }
+
+    private DeadLetterReplayService replayService() {
+        if (deadLetterReplayService == null) {
+            throw new BusinessException("当前为内置队列模式，不支持死信重投");
+        }
+        return deadLetterReplayService;
+    }
+
+    private void ensurePlatformAdmin() {
+        if (!RoleUtil.hasRole(UserContext.getCurrentRoles(), "PLATFORM_ADMIN")) {
+            throw new BusinessException("当前账号无权执行该操作");
+        }
+    }
 }
@@ -2,6 +2,8 @@ package com.review.controller;
 
 import com.review.common.Result;
 import com.review.dto.ReviewActionRequest;
+import com.review.dto.ReviewBatchRequest;
+import com.review.dto.ReviewBatchResponse;
 import com.review.dto.ReviewDetailResponse;
 import com.review.service.ReviewService;
 import io.swagger.annotations.Api;
@@ -47,4 +49,10 @@ public class ReviewController {
         reviewService.reject(versionId, request);
         return Result.success();
     }
+
+    @ApiOperation("批量审查通过/打回")
+    @PostMapping("/batch")
+    public Result<ReviewBatchResponse> batchReview(@Validated @RequestBody ReviewBatchRequest request) {
+        return Result.success(reviewService.batchReview(request));
+    }
 }
@@ -5,6 +5,7 @@ import com.review.common.BusinessException;
 import com.review.common.Result;
 import com.review.common.RateLimiter;
 import com.review.common.UserContext;
+import com.review.dto.CursorPageResponse;
 import com.review.dto.ReviewerOptionResponse;
 import com.review.dto.TaskCreateRequest;
 import com.review.dto.TaskCreateResponse;
@@ -21,6 +22,7 @@ import com.review.service.TaskService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -29,8 +31,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.time.Duration;
+import java.time.LocalDate;
 
 /**
  * 任务管理接口。
@@ -66,6 +74,13 @@ public class TaskController {
         return Result.success(taskService.queryMyTasks(request));
     }
 
+    @ApiOperation("游标分页查询我的任务")
+    @GetMapping("/mine/cursor")
+    public Result<CursorPageResponse<TaskListItemResponse>> myTasksByCursor(@Validated TaskListQueryRequest request) {
+        ensureRateLimit("task:mine:list", 30);
+        return Result.success(taskService.scrollMyTasks(request));
+    }
+
     @ApiOperation("我的任务统计")
     @GetMapping("/mine/statistics")
     public Result<TaskStatisticResponse> myTaskStatistics() {
@@ -73,6 +88,13 @@ public class TaskController {
         return Result.success(taskService.loadMyStatistics());
     }
 
+    @ApiOperation("导出我的任务（CSV）")
+    @GetMapping("/mine/export")
+    public void exportMyTasks(@Validated TaskListQueryRequest request, HttpServletResponse response) throws Exception {
+        ensureRateLimit("task:mine:export", 5);
+        taskService.exportMyTasks(request, () -> openCsv(response, "我的任务"));
+    }
+
     @ApiOperation("分页查询审查员任务")
     @GetMapping("/reviewer")
     public Result<Page<TaskListItemResponse>> reviewerTasks(@Validated TaskListQueryRequest request) {
@@ -80,6 +102,20 @@ public class TaskController {
         return Result.success(taskService.queryReviewerTasks(request));
     }
 
+    @ApiOperation("游标分页查询审查员任务")
+    @GetMapping("/reviewer/cursor")
+    public Result<CursorPageResponse<TaskListItemResponse>> reviewerTasksByCursor(@Validated TaskListQueryRequest request) {
+        ensureRateLimit("task:reviewer:list", 30);
+        return Result.success(taskService.scrollReviewerTasks(request));
+    }
+
+    @ApiOperation("导出审查员任务（CSV）")
+    @GetMapping("/reviewer/export")
+    public void exportReviewerTasks(@Validated TaskListQueryRequest request, HttpServletResponse response) throws Exception {
+        ensureRateLimit("task:reviewer:export", 5);
+        taskService.exportReviewerTasks(request, () -> openCsv(response, "审查任务"));
+    }
+
     @ApiOperation("审查员任务统计")
     @GetMapping("/reviewer/statistics")
     public Result<TaskStatisticResponse> reviewerTaskStatistics() {
@@ -120,6 +156,14 @@ public class TaskController {
         return Result.success(taskService.getVersionStatus(versionId));
     }
 
+    private OutputStream openCsv(HttpServletResponse response, String name) throws IOException {
+        String fileName = name + "-" + LocalDate.now() + ".csv";
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''"
+                + URLEncoder.encode(fileName, StandardCharsets.UTF_8.name()).replaceAll("\\+", "%20"));
+        return response.getOutputStream();
+    }
+
     private void ensureRateLimit(String bizKey, int limitPerMinute) {
         Long userId = UserContext.getCurrentUserId();
         String finalKey = bizKey + ":" + (userId == null ? "guest" : userId);
@@ -7,9 +7,12 @@ import com.review.common.UserContext;
 import com.review.dto.TenantCreateRequest;
 import com.review.dto.TenantQueryRequest;
 import com.review.dto.TenantResponse;
+import com.review.dto.TenantShardMigrateRequest;
+import com.review.dto.TenantShardMigrationResponse;
 import com.review.dto.TenantStatusUpdateRequest;
 import com.review.dto.TenantUpdateRequest;
 import com.review.service.TenantService;
+import com.review.service.TenantShardMigrationService;
 import com.review.utils.RoleUtil;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -35,6 +38,9 @@ public class TenantController {
     @Autowired
     private TenantService tenantService;
 
+    @Autowired
+    private TenantShardMigrationService tenantShardMigrationService;
+
     private boolean isPlatformAdmin() {
         return RoleUtil.hasRole(UserContext.getCurrentRoles(), "PLATFORM_ADMIN");
     }
@@ -104,4 +110,19 @@ public class TenantController {
         tenantService.deleteTenant(tenantId);
         return Result.success();
     }
+
+    @ApiOperation("在线迁移租户到指定分片")
+    @PostMapping("/{tenantId}/shard-migration")
+    public Result<TenantShardMigrationResponse> migrateShard(@PathVariable Long tenantId,
+                                                             @Validated @RequestBody TenantShardMigrateRequest request) {
+        ensurePlatformAdmin();
+        return Result.success(tenantShardMigrationService.startMigration(tenantId, request));
+    }
+
+    @ApiOperation("查询租户分片迁移进度")
+    @GetMapping("/{tenantId}/shard-migration")
+    public Result<TenantShardMigrationResponse> migrationProgress(@PathVariable Long tenantId) {
+        ensurePlatformAdmin();
+        return Result.success(tenantShardMigrationService.currentProgress(tenantId));
+    }
 }
@@ -21,10 +21,23 @@ public class CacheMonitorResponse {
     private long connectedClients;
     private LocalDateTime generatedAt;
     private List<CacheKeySnapshot> hotKeys = Collections.emptyList();
+    private List<TierStats> tiers = Collections.emptyList();
 
     @Data
     public static class CacheKeySnapshot {
         private String key;
         private Long ttlSeconds;
     }
+
+    /**
+     * 应用缓存分层命中统计（当前节点）：local 为进程内缓存，redis 为穿透到 Redis 的读取。
+     */
+    @Data
+    public static class TierStats {
+        private String tier;
+        private long hits;
+        private long misses;
+        private double hitRate;
+        private Long size;
+    }
 }
@@ -0,0 +1,29 @@
+package com.review.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 游标分页结果：按 nextCursor 继续翻页，不依赖 OFFSET 与 COUNT。
+ */
+@Data
+public class CursorPageResponse<T> {
+
+    private List<T> records = new ArrayList<>();
+
+    private Integer size;
+
+    /**
+     * 下一页游标，为空表示已到末页
+     */
+    private String nextCursor;
+
+    private boolean hasMore;
+
+    /**
+     * 总数（仅在请求 withTotal 时返回，可能为短时缓存的近似值）
+     */
+    private Long total;
+}
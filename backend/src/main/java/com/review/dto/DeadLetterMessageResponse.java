@@ -0,0 +1,31 @@
+package com.review.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 死信队列中的单条复制消息快照。
+ */
+@Data
+public class DeadLetterMessageResponse {
+
+    private Long tenantId;
+
+    private Long taskId;
+
+    private Long oldVersionId;
+
+    private Long newVersionId;
+
+    private String traceId;
+
+    /** 进入死信的原因（rejected/expired 等） */
+    private String deathReason;
+
+    /** 累计进入死信次数 */
+    private Long deathCount;
+
+    /** 首次进入死信时间 */
+    private LocalDateTime deathTime;
+}
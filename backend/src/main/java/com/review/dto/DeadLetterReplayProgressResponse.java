@@ -0,0 +1,43 @@
+package com.review.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 死信重投进度。
+ */
+@Data
+public class DeadLetterReplayProgressResponse {
+
+    private String jobId;
+
+    /** RUNNING / FINISHED / CANCELLED / FAILED */
+    private String status;
+
+    /** 任务开始时死信队列中的消息总数 */
+    private long total;
+
+    /** 已扫描条数 */
+    private long scanned;
+
+    /** 已重投条数 */
+    private long replayed;
+
+    /** 未选中、保留在死信队列中的条数 */
+    private long skipped;
+
+    /** 目标版本已就绪或已删除、直接从死信队列清理的条数 */
+    private long discarded;
+
+    /** 重投失败条数（消息仍保留在死信队列） */
+    private long failed;
+
+    private int ratePerSecond;
+
+    private String errorMessage;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+}
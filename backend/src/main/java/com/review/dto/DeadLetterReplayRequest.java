@@ -0,0 +1,25 @@
+package com.review.dto;
+
+import lombok.Data;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.util.List;
+
+/**
+ * 死信重投请求。
+ */
+@Data
+public class DeadLetterReplayRequest {
+
+    /** 需要重投的新版本 ID 列表，replayAll 为 true 时忽略 */
+    private List<Long> versionIds;
+
+    /** 是否重投全部死信 */
+    private Boolean replayAll;
+
+    /** 每秒最多重投条数，为空时使用系统默认值 */
+    @Min(value = 1, message = "重投速率至少为每秒 1 条")
+    @Max(value = 500, message = "重投速率不能超过每秒 500 条")
+    private Integer ratePerSecond;
+}
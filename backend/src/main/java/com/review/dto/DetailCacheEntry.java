@@ -0,0 +1,31 @@
+package com.review.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 详情缓存条目：携带写入时的版本号与鉴权所需的归属信息，命中缓存时无需再查任务表。
+ */
+@Data
+@NoArgsConstructor
+public class DetailCacheEntry {
+
+    /** 写入时读取到的失效版本号，与当前版本号不一致即视为过期 */
+    private Long generation;
+
+    private Long tenantId;
+
+    private Long creatorId;
+
+    private Long reviewerId;
+
+    /** TaskDetailResponse 或 ReviewDetailResponse */
+    private Object payload;
+
+    public DetailCacheEntry(Long tenantId, Long creatorId, Long reviewerId, Object payload) {
+        this.tenantId = tenantId;
+        this.creatorId = creatorId;
+        this.reviewerId = reviewerId;
+        this.payload = payload;
+    }
+}
@@ -0,0 +1,40 @@
+package com.review.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 查询计划巡检报告。
+ */
+@Data
+public class QueryPlanReportResponse {
+
+    private Boolean enabled;
+
+    private Integer checkedStatements;
+
+    private Integer violationStatements;
+
+    private List<StatementPlan> statements = new ArrayList<>();
+
+    @Data
+    public static class StatementPlan {
+        private String statementId;
+        private String sql;
+        private LocalDateTime checkedAt;
+        private List<PlanRow> plan = new ArrayList<>();
+        private List<String> violations = new ArrayList<>();
+    }
+
+    @Data
+    public static class PlanRow {
+        private String table;
+        private String type;
+        private String key;
+        private Long rows;
+        private String extra;
+    }
+}
@@ -11,10 +11,12 @@ import java.time.LocalDateTime;
 public class QueueMonitorResponse {
 
     private QueueInfo mainQueue;
+    private QueueInfo largeQueue;
     private QueueInfo dlxQueue;
     private String alertLevel;
     private String alertMessage;
     private LocalDateTime generatedAt;
+    private AutoscaleInfo autoscale;
 
     @Data
     public static class QueueInfo {
@@ -27,4 +29,16 @@ public class QueueMonitorResponse {
         private double deliverRate;
         private String statusLabel;
     }
+
+    @Data
+    public static class AutoscaleInfo {
+        private boolean enabled;
+        private int consumers;
+        private int minConsumers;
+        private int maxConsumers;
+        private long backlog;
+        private double throughput;
+        private String lastDecision;
+        private LocalDateTime lastChangedAt;
+    }
 }
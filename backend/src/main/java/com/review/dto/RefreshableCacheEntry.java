@@ -0,0 +1,23 @@
+package com.review.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 支持过期前异步刷新的缓存条目：到达 refreshAt 后仍可返回旧值，同时由一个调用方在后台重新加载。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshableCacheEntry {
+
+    private Object value;
+
+    /** 建议刷新时间（epoch 毫秒），条目的实际 TTL 更长，留出刷新窗口 */
+    private Long refreshAt;
+
+    public boolean needsRefresh(long now) {
+        return refreshAt == null || now >= refreshAt;
+    }
+}
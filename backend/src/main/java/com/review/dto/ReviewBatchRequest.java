@@ -0,0 +1,27 @@
+package com.review.dto;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * 批量审查请求体。
+ */
+@Data
+public class ReviewBatchRequest {
+
+    @NotEmpty(message = "请选择需要审查的版本")
+    @Size(max = 100, message = "单次最多审查100个版本")
+    private List<Long> versionIds;
+
+    @NotBlank(message = "审查结论不能为空")
+    @Pattern(regexp = "APPROVED|REJECTED", message = "审查结论只能是 APPROVED 或 REJECTED")
+    private String decision;
+
+    @Size(max = 1000, message = "审查意见不能超过1000个字符")
+    private String comment;
+}
@@ -0,0 +1,26 @@
+package com.review.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量审查结果，按请求顺序逐项返回。
+ */
+@Data
+public class ReviewBatchResponse {
+
+    private Integer successCount;
+
+    private Integer failureCount;
+
+    private List<ItemResult> items = new ArrayList<>();
+
+    @Data
+    public static class ItemResult {
+        private Long versionId;
+        private Boolean success;
+        private String message;
+    }
+}
@@ -3,7 +3,6 @@ package com.review.dto;
 import lombok.Data;
 
 import javax.validation.constraints.NotBlank;
-import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
 /**
@@ -17,10 +16,12 @@ public class TaskCreateRequest {
     @Size(max = 100, message = "任务名称长度不能超过100个字符")
     private String taskName;
 
-    /** 审查员 ID */
-    @NotNull(message = "请选择审查员")
+    /** 审查员 ID，自动分配时可为空 */
     private Long reviewerId;
 
+    /** 是否由系统自动分配审查员 */
+    private Boolean autoAssign;
+
     /** 提交说明 */
     @Size(max = 2000, message = "提交说明长度不能超过2000字符")
     private String submitDesc;
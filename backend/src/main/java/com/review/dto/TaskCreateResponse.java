@@ -15,4 +15,7 @@ public class TaskCreateResponse {
     private Long taskId;
 
     private Long versionId;
+
+    /** 实际指派的审查员，自动分配时由系统选出 */
+    private Long reviewerId;
 }
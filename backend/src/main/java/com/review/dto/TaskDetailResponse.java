@@ -23,6 +23,11 @@ public class TaskDetailResponse {
 
     private boolean canResubmit;
 
+    /**
+     * 是否为已归档任务（只读）
+     */
+    private boolean archived;
+
     private RelationInfo reviewer;
 
     private RelationInfo creator;
@@ -14,6 +14,11 @@ public class TaskListItemResponse {
 
     private String taskName;
 
+    /**
+     * 关键字检索时的高亮任务名（已做 HTML 转义，命中片段以 em 标签包裹）
+     */
+    private String highlightedName;
+
     private Integer currentVersion;
 
     private Long currentVersionId;
@@ -32,6 +37,11 @@ public class TaskListItemResponse {
 
     private boolean canResubmit;
 
+    /**
+     * 是否为已归档任务（仅“包含已归档”查询时可能为 true）
+     */
+    private boolean archived;
+
     private Long reviewerId;
 
     private String reviewerName;
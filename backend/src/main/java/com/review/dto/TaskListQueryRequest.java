@@ -5,6 +5,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.Size;
 import java.time.LocalDate;
 
 /**
@@ -46,4 +47,20 @@ public class TaskListQueryRequest {
      * 审查员列表专用：仅查看待审查
      */
     private Boolean pendingOnly;
+
+    /**
+     * 是否包含已归档任务，默认只查热数据
+     */
+    private Boolean includeArchived;
+
+    /**
+     * 游标分页专用：上一页返回的 nextCursor，首页为空
+     */
+    @Size(max = 128, message = "游标格式不正确")
+    private String cursor;
+
+    /**
+     * 游标分页专用：是否返回总数
+     */
+    private Boolean withTotal;
 }
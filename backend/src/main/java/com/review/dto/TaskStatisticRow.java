@@ -0,0 +1,27 @@
+package com.review.dto;
+
+import lombok.Data;
+
+/**
+ * 任务统计聚合查询结果（条件聚合一次返回全部计数）。
+ */
+@Data
+public class TaskStatisticRow {
+
+    private Long tenantId;
+
+    /** 按创建者或审查员分组时的用户 ID */
+    private Long userId;
+
+    private Long total;
+
+    private Long reviewing;
+
+    private Long approved;
+
+    private Long rejected;
+
+    private Long monthTotal;
+
+    private Long monthApproved;
+}
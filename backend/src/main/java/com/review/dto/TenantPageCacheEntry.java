@@ -0,0 +1,21 @@
+package com.review.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 平台端租户分页缓存条目，只保存总数与当前页记录，命中时重新组装分页对象。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenantPageCacheEntry {
+
+    private Long total;
+
+    private List<TenantResponse> records = new ArrayList<>();
+}
@@ -29,6 +29,9 @@ public class TenantResponse {
     /** 状态：1-正常，0-停用 */
     private Integer status;
 
+    /** 所在分片 */
+    private Integer shardId;
+
     private LocalDateTime createTime;
 
     private LocalDateTime updateTime;
@@ -0,0 +1,18 @@
+package com.review.dto;
+
+import lombok.Data;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * 租户分片迁移请求
+ */
+@Data
+public class TenantShardMigrateRequest {
+
+    /** 目标分片号，0 为 spring.datasource 所在分片 */
+    @NotNull(message = "目标分片不能为空")
+    @Min(value = 0, message = "目标分片不能小于0")
+    private Integer targetShard;
+}
@@ -0,0 +1,42 @@
+package com.review.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 租户分片迁移进度。
+ */
+@Data
+public class TenantShardMigrationResponse {
+
+    private Long tenantId;
+
+    private Integer sourceShard;
+
+    private Integer targetShard;
+
+    /** RUNNING / FINISHED / FAILED */
+    private String status;
+
+    /** COPY / SYNC / FREEZE / FINAL_SYNC / CLEANUP */
+    private String phase;
+
+    /** 初次复制的行数 */
+    private long copiedRows;
+
+    /** 校验不一致、重新同步的块数 */
+    private long resyncedChunks;
+
+    /** 切换后从源分片清理的行数 */
+    private long deletedRows;
+
+    /** 是否已切换到目标分片 */
+    private boolean switched;
+
+    private String errorMessage;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+}
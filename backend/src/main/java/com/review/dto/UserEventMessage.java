@@ -0,0 +1,51 @@
+package com.review.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 推送给前端的用户事件（通过 Redis pub/sub 在节点间广播，再经 SSE 下发）。
+ */
+@Data
+@NoArgsConstructor
+public class UserEventMessage {
+
+    /** 版本文件复制完成 */
+    public static final String VERSION_READY = "VERSION_READY";
+    /** 版本文件复制失败 */
+    public static final String VERSION_COPY_FAILED = "VERSION_COPY_FAILED";
+    /** 审查结果已出（通过/打回） */
+    public static final String REVIEW_DECIDED = "REVIEW_DECIDED";
+    /** 审查员收到新的待审任务（新建或再次提交） */
+    public static final String TASK_ASSIGNED = "TASK_ASSIGNED";
+
+    private String type;
+
+    /** 接收人用户 ID */
+    private Long userId;
+
+    private Long tenantId;
+
+    private Long taskId;
+
+    private Long versionId;
+
+    private String status;
+
+    private Integer filesReady;
+
+    private Integer fileCount;
+
+    private LocalDateTime occurredAt;
+
+    public UserEventMessage(String type, Long userId, Long tenantId, Long taskId, Long versionId) {
+        this.type = type;
+        this.userId = userId;
+        this.tenantId = tenantId;
+        this.taskId = taskId;
+        this.versionId = versionId;
+        this.occurredAt = LocalDateTime.now();
+    }
+}
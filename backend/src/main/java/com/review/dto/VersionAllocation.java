@@ -0,0 +1,18 @@
+package com.review.dto;
+
+import lombok.Data;
+
+/**
+ * 版本号分配参数与结果：versionNumber 由 UPDATE 语句的 LAST_INSERT_ID 经生成键回填。
+ */
+@Data
+public class VersionAllocation {
+
+    private Long taskId;
+
+    private Integer versionNumber;
+
+    public VersionAllocation(Long taskId) {
+        this.taskId = taskId;
+    }
+}
@@ -1,8 +1,10 @@
 package com.review.entity;
 
 import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.annotation.Version;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -35,6 +37,14 @@ public class ReviewTask {
     /** 当前状态：REVIEWING / APPROVED / REJECTED */
     private String currentStatus;
 
+    /** 乐观锁版本号，按实体更新时自动校验并递增 */
+    @Version
+    private Integer lockVersion;
+
+    /** 是否从归档表加载，归档数据只读 */
+    @TableField(exist = false)
+    private Boolean archived;
+
     private LocalDateTime createTime;
 
     private LocalDateTime updateTime;
@@ -0,0 +1,63 @@
+package com.review.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 任务列表读模型：冗余当前版本与人员展示字段，列表接口单表查询即可返回。
+ */
+@Data
+@TableName("task_list_view")
+public class TaskListView {
+
+    @TableId(value = "task_id", type = IdType.INPUT)
+    private Long taskId;
+
+    /** 租户 ID */
+    private Long tenantId;
+
+    private String taskName;
+
+    private Long creatorId;
+
+    private Long reviewerId;
+
+    private Integer currentVersion;
+
+    /** 当前状态：REVIEWING / APPROVED / REJECTED */
+    private String currentStatus;
+
+    /** 当前版本 ID */
+    private Long currentVersionId;
+
+    /** 当前版本文件数 */
+    private Integer fileCount;
+
+    /** 当前版本提交时间，用于计算待处理天数 */
+    private LocalDateTime versionSubmitTime;
+
+    /** 当前版本最后更新时间 */
+    private LocalDateTime lastUpdateTime;
+
+    private String creatorName;
+
+    private String creatorPhone;
+
+    private String reviewerName;
+
+    private String reviewerPhone;
+
+    private LocalDateTime createTime;
+
+    /** 与任务表 update_time 保持一致，列表排序与游标均基于该字段 */
+    private LocalDateTime updateTime;
+
+    /** 包含已归档查询时标记该行来自归档表 */
+    @TableField(exist = false)
+    private Boolean archived;
+}
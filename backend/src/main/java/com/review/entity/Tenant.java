@@ -41,6 +41,9 @@ public class Tenant {
     /** 状态：1-启用，0-停用 */
     private Integer status;
 
+    /** 所在分片，分片 0 保存全部租户的该字段作为分片目录 */
+    private Integer shardId;
+
     private LocalDateTime createTime;
 
     private LocalDateTime updateTime;
@@ -15,18 +15,20 @@ import javax.servlet.http.HttpServletResponse;
 @Component
 public class JwtInterceptor implements HandlerInterceptor {
 
+    /** 浏览器 EventSource 无法设置请求头，事件流接口允许通过 token 参数携带凭证 */
+    private static final String EVENT_STREAM_PATH = "/events/stream";
+
     @Autowired
     private JwtUtil jwtUtil;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        String token = resolveToken(request);
+        if (token == null) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             return false;
         }
 
-        String token = authHeader.substring(7);
         if (!jwtUtil.validateToken(token)) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             return false;
@@ -40,6 +42,18 @@ public class JwtInterceptor implements HandlerInterceptor {
         return true;
     }
 
+    private String resolveToken(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        if (request.getRequestURI().endsWith(EVENT_STREAM_PATH)) {
+            String token = request.getParameter("token");
+            return token == null || token.isEmpty() ? null : token;
+        }
+        return null;
+    }
+
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
         UserContext.clear();
@@ -0,0 +1,64 @@
+package com.review.interceptor;
+
+import com.review.common.BusinessException;
+import com.review.common.TenantShardContext;
+import com.review.common.UserContext;
+import com.review.service.support.TenantShardRouter;
+import com.review.utils.RoleUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+
+/**
+ * 租户分片拦截器，位于 JWT 拦截器之后：平台管理员访问 /tenant/{tenantId}/** 时按路径中的租户路由，
+ * 其余请求按登录用户的租户路由；租户迁移冻结期间拒绝写请求。
+ */
+@Component
+public class TenantShardInterceptor implements HandlerInterceptor {
+
+    private static final String TENANT_ID_VARIABLE = "tenantId";
+
+    @Autowired
+    private TenantShardRouter tenantShardRouter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!tenantShardRouter.isEnabled()) {
+            return true;
+        }
+        Long tenantId = UserContext.getCurrentTenantId();
+        Long pathTenantId = resolvePathTenantId(request);
+        if (pathTenantId != null && RoleUtil.hasRole(UserContext.getCurrentRoles(), "PLATFORM_ADMIN")) {
+            TenantShardContext.setTenantId(pathTenantId);
+            tenantId = pathTenantId;
+        }
+        if (!"GET".equalsIgnoreCase(request.getMethod()) && tenantShardRouter.isFrozen(tenantId)) {
+            throw new BusinessException("租户数据迁移中，暂不支持修改，请稍后再试");
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Long resolvePathTenantId(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (!(variables instanceof Map)) {
+            return null;
+        }
+        Object value = ((Map<String, String>) variables).get(TENANT_ID_VARIABLE);
+        try {
+            return value == null ? null : Long.valueOf(value.toString());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        TenantShardContext.clear();
+    }
+}
@@ -1,12 +1,82 @@
 package com.review.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.review.dto.TaskStatisticRow;
+import com.review.dto.VersionAllocation;
 import com.review.entity.ReviewTask;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 审查任务 Mapper。
  */
 @Mapper
 public interface ReviewTaskMapper extends BaseMapper<ReviewTask> {
+
+    String STAT_COLUMNS = "COUNT(*) AS total, "
+            + "COALESCE(SUM(current_status = 'REVIEWING'), 0) AS reviewing, "
+            + "COALESCE(SUM(current_status = 'APPROVED'), 0) AS approved, "
+            + "COALESCE(SUM(current_status = 'REJECTED'), 0) AS rejected, "
+            + "COALESCE(SUM(create_time >= #{monthStart}), 0) AS month_total, "
+            + "COALESCE(SUM(create_time >= #{monthStart} AND current_status = 'APPROVED'), 0) AS month_approved ";
+
+    /**
+     * 统计口径包含已归档任务：热表与归档表的统计列 UNION ALL，两侧均由 idx_stat_* 覆盖。
+     */
+    String STAT_SOURCE = "(SELECT tenant_id, creator_id, reviewer_id, current_status, create_time FROM review_task "
+            + "UNION ALL SELECT tenant_id, creator_id, reviewer_id, current_status, create_time FROM review_task_archive) t ";
+
+    String USER_CONDITION = "WHERE tenant_id = #{tenantId} "
+            + "<if test='creatorId != null'>AND creator_id = #{creatorId} </if>"
+            + "<if test='reviewerId != null'>AND reviewer_id = #{reviewerId} </if>";
+
+    /**
+     * 单个用户的任务统计（含已归档），creatorId 与 reviewerId 二选一；条件写入两侧子查询以便各自走索引。
+     */
+    @Select("<script>SELECT #{tenantId} AS tenant_id, " + STAT_COLUMNS
+            + "FROM (SELECT current_status, create_time FROM review_task " + USER_CONDITION
+            + "UNION ALL SELECT current_status, create_time FROM review_task_archive " + USER_CONDITION + ") t"
+            + "</script>")
+    TaskStatisticRow aggregateStatistics(@Param("tenantId") Long tenantId,
+                                         @Param("creatorId") Long creatorId,
+                                         @Param("reviewerId") Long reviewerId,
+                                         @Param("monthStart") LocalDateTime monthStart);
+
+    /**
+     * 按创建者分组的全量统计，用于每日校准。
+     */
+    @Select("SELECT tenant_id, creator_id AS user_id, " + STAT_COLUMNS
+            + "FROM " + STAT_SOURCE + "GROUP BY tenant_id, creator_id")
+    List<TaskStatisticRow> aggregateByCreator(@Param("monthStart") LocalDateTime monthStart);
+
+    /**
+     * 按审查员分组的全量统计，用于每日校准。
+     */
+    @Select("SELECT tenant_id, reviewer_id AS user_id, " + STAT_COLUMNS
+            + "FROM " + STAT_SOURCE + "GROUP BY tenant_id, reviewer_id")
+    List<TaskStatisticRow> aggregateByReviewer(@Param("monthStart") LocalDateTime monthStart);
+
+    /**
+     * 租户内各审查员待审查任务数，用于重建审查员负载排行。
+     */
+    @Select("SELECT tenant_id, reviewer_id AS user_id, COUNT(*) AS reviewing FROM review_task "
+            + "WHERE tenant_id = #{tenantId} AND current_status = 'REVIEWING' GROUP BY tenant_id, reviewer_id")
+    List<TaskStatisticRow> countPendingByReviewer(@Param("tenantId") Long tenantId);
+
+    /**
+     * 原子分配版本号：将分配值存入 LAST_INSERT_ID 后递增 next_version，不改动 update_time。
+     * 计数器落后于已有版本时（升级前创建、未回填的任务）取 MAX(version_number) + 1，分配结果不会与已有版本冲突。
+     * 分配值随 OK 包中的 last insert id 返回，经生成键回填到 versionNumber，无需再查询；任务不存在时返回 0。
+     */
+    @Update("UPDATE review_task SET next_version = LAST_INSERT_ID(GREATEST(next_version, "
+            + "(SELECT COALESCE(MAX(version_number), 0) + 1 FROM review_version WHERE task_id = #{taskId}))) + 1, "
+            + "update_time = update_time WHERE id = #{taskId}")
+    @Options(useGeneratedKeys = true, keyProperty = "versionNumber")
+    int allocateVersion(VersionAllocation allocation);
 }
@@ -0,0 +1,113 @@
+package com.review.mapper;
+
+import com.review.entity.ReviewFile;
+import com.review.entity.ReviewTask;
+import com.review.entity.ReviewVersion;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 归档表 Mapper：迁移语句按任务 ID 批量执行，只读查询复用热表实体。
+ */
+@Mapper
+public interface TaskArchiveMapper {
+
+    String TASK_COLUMNS = "id, tenant_id, task_name, creator_id, reviewer_id, current_version, next_version, "
+            + "current_status, lock_version, create_time, update_time";
+
+    String VERSION_COLUMNS = "id, tenant_id, task_id, version_number, submit_desc, status, review_result, "
+            + "review_comment, reviewer_id, review_time, files_ready, file_count, lock_version, create_time, update_time";
+
+    String FILE_COLUMNS = "id, tenant_id, version_id, file_name, minio_object_name, file_md5, file_size, "
+            + "file_type, create_time";
+
+    String LIST_VIEW_COLUMNS = "task_id, tenant_id, task_name, creator_id, reviewer_id, current_version, "
+            + "current_status, current_version_id, file_count, version_submit_time, last_update_time, "
+            + "creator_name, creator_phone, reviewer_name, reviewer_phone, create_time, update_time";
+
+    String TASK_IDS = "<foreach collection='taskIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>";
+
+    /**
+     * 挑选审查通过且更新时间早于 before 的任务并加锁，按主键顺序分块推进。
+     */
+    @Select("SELECT id FROM review_task WHERE current_status = 'APPROVED' AND update_time < #{before} "
+            + "ORDER BY id LIMIT #{limit} FOR UPDATE")
+    List<Long> lockArchivableTaskIds(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    @Insert("<script>INSERT INTO review_task_archive (" + TASK_COLUMNS + ") "
+            + "SELECT " + TASK_COLUMNS + " FROM review_task WHERE id IN " + TASK_IDS + "</script>")
+    int copyTasks(@Param("taskIds") Collection<Long> taskIds);
+
+    @Insert("<script>INSERT INTO review_version_archive (" + VERSION_COLUMNS + ") "
+            + "SELECT " + VERSION_COLUMNS + " FROM review_version WHERE task_id IN " + TASK_IDS + "</script>")
+    int copyVersions(@Param("taskIds") Collection<Long> taskIds);
+
+    @Insert("<script>INSERT INTO review_file_archive (" + FILE_COLUMNS + ") "
+            + "SELECT " + FILE_COLUMNS + " FROM review_file WHERE version_id IN "
+            + "(SELECT id FROM review_version WHERE task_id IN " + TASK_IDS + ")</script>")
+    int copyFiles(@Param("taskIds") Collection<Long> taskIds);
+
+    @Insert("<script>INSERT INTO task_list_view_archive (" + LIST_VIEW_COLUMNS + ") "
+            + "SELECT " + LIST_VIEW_COLUMNS + " FROM task_list_view WHERE task_id IN " + TASK_IDS + "</script>")
+    int copyListRows(@Param("taskIds") Collection<Long> taskIds);
+
+    @Delete("<script>DELETE f FROM review_file f JOIN review_version v ON v.id = f.version_id "
+            + "WHERE v.task_id IN " + TASK_IDS + "</script>")
+    int deleteFiles(@Param("taskIds") Collection<Long> taskIds);
+
+    @Delete("<script>DELETE FROM review_version WHERE task_id IN " + TASK_IDS + "</script>")
+    int deleteVersions(@Param("taskIds") Collection<Long> taskIds);
+
+    @Delete("<script>DELETE FROM task_list_view WHERE task_id IN " + TASK_IDS + "</script>")
+    int deleteListRows(@Param("taskIds") Collection<Long> taskIds);
+
+    @Delete("<script>DELETE FROM review_task WHERE id IN " + TASK_IDS + "</script>")
+    int deleteTasks(@Param("taskIds") Collection<Long> taskIds);
+
+    @Select("SELECT " + TASK_COLUMNS + " FROM review_task_archive WHERE id = #{id}")
+    ReviewTask selectTask(@Param("id") Long id);
+
+    @Select("SELECT " + VERSION_COLUMNS + " FROM review_version_archive WHERE id = #{id}")
+    ReviewVersion selectVersion(@Param("id") Long id);
+
+    @Select("SELECT " + VERSION_COLUMNS + " FROM review_version_archive "
+            + "WHERE task_id = #{taskId} AND tenant_id = #{tenantId} ORDER BY version_number DESC")
+    List<ReviewVersion> selectVersionsByTask(@Param("tenantId") Long tenantId, @Param("taskId") Long taskId);
+
+    /**
+     * 版本号可能不连续，取小于给定版本号的最近一个版本。
+     */
+    @Select("SELECT " + VERSION_COLUMNS + " FROM review_version_archive "
+            + "WHERE task_id = #{taskId} AND version_number < #{versionNumber} ORDER BY version_number DESC LIMIT 1")
+    ReviewVersion selectPreviousVersion(@Param("taskId") Long taskId, @Param("versionNumber") Integer versionNumber);
+
+    @Select("SELECT " + FILE_COLUMNS + " FROM review_file_archive WHERE version_id = #{versionId} "
+            + "ORDER BY create_time DESC")
+    List<ReviewFile> selectFilesByVersion(@Param("versionId") Long versionId);
+
+    @Select("SELECT " + FILE_COLUMNS + " FROM review_file_archive WHERE id = #{id}")
+    ReviewFile selectFile(@Param("id") Long id);
+
+    /**
+     * 秒传：热表未命中时复用归档文件的对象。
+     */
+    @Select("SELECT " + FILE_COLUMNS + " FROM review_file_archive "
+            + "WHERE tenant_id = #{tenantId} AND file_md5 = #{md5} LIMIT 1")
+    ReviewFile selectFileByMd5(@Param("tenantId") Long tenantId, @Param("md5") String md5);
+
+    /**
+     * 归档文件对 MinIO 对象的引用数，删除热表文件时一并判断，避免误删归档仍在引用的对象。
+     */
+    @Select("SELECT COUNT(*) FROM review_file_archive "
+            + "WHERE tenant_id = #{tenantId} AND file_md5 = #{md5} AND minio_object_name = #{objectName}")
+    long countFileReferences(@Param("tenantId") Long tenantId,
+                             @Param("md5") String md5,
+                             @Param("objectName") String objectName);
+}
@@ -0,0 +1,125 @@
+package com.review.mapper;
+
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.review.entity.TaskListView;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 任务列表读模型 Mapper。
+ */
+@Mapper
+public interface TaskListViewMapper extends BaseMapper<TaskListView> {
+
+    /**
+     * 包含已归档：热表与归档表各自套用同一组筛选条件（各自走索引与全文检索）后 UNION ALL。
+     */
+    String WITH_ARCHIVE = "(SELECT *, 0 AS archived FROM task_list_view ${ew.customSqlSegment} "
+            + "UNION ALL SELECT *, 1 AS archived FROM task_list_view_archive ${ew.customSqlSegment}) lv ";
+
+    /**
+     * 从任务、当前版本与人员表重建读模型；taskIds 为空时全量重建。
+     */
+    @Insert("<script>"
+            + "INSERT INTO task_list_view (task_id, tenant_id, task_name, creator_id, reviewer_id, current_version, "
+            + "current_status, current_version_id, file_count, version_submit_time, last_update_time, "
+            + "creator_name, creator_phone, reviewer_name, reviewer_phone, create_time, update_time) "
+            + "SELECT t.id, t.tenant_id, t.task_name, t.creator_id, t.reviewer_id, t.current_version, "
+            + "t.current_status, v.id, COALESCE(v.file_count, 0), v.create_time, COALESCE(v.update_time, t.update_time), "
+            + "c.real_name, c.phone, r.real_name, r.phone, t.create_time, t.update_time "
+            + "FROM review_task t "
+            + "LEFT JOIN review_version v ON v.task_id = t.id AND v.version_number = t.current_version "
+            + "LEFT JOIN `user` c ON c.id = t.creator_id "
+            + "LEFT JOIN `user` r ON r.id = t.reviewer_id "
+            + "<if test='taskIds != null'>WHERE t.id IN "
+            + "<foreach collection='taskIds' item='id' open='(' separator=',' close=')'>#{id}</foreach> </if>"
+            + "ON DUPLICATE KEY UPDATE tenant_id = VALUES(tenant_id), task_name = VALUES(task_name), "
+            + "creator_id = VALUES(creator_id), reviewer_id = VALUES(reviewer_id), "
+            + "current_version = VALUES(current_version), current_status = VALUES(current_status), "
+            + "current_version_id = VALUES(current_version_id), file_count = VALUES(file_count), "
+            + "version_submit_time = VALUES(version_submit_time), last_update_time = VALUES(last_update_time), "
+            + "creator_name = VALUES(creator_name), creator_phone = VALUES(creator_phone), "
+            + "reviewer_name = VALUES(reviewer_name), reviewer_phone = VALUES(reviewer_phone), "
+            + "create_time = VALUES(create_time), update_time = VALUES(update_time)"
+            + "</script>")
+    int upsertFromSource(@Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * 按主键游标分批读取任务 ID，供启动回填逐批比对读模型。
+     */
+    @Select("SELECT id FROM review_task WHERE id > #{afterId} ORDER BY id LIMIT #{limit}")
+    List<Long> selectTaskIdsAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    @Select("<script>SELECT task_id FROM task_list_view WHERE task_id IN "
+            + "<foreach collection='taskIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>"
+            + "</script>")
+    List<Long> selectExistingTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * 同步当前版本的文件数与时间；非当前版本不会命中任何行。
+     */
+    @Update("UPDATE task_list_view lv JOIN review_version v ON v.id = lv.current_version_id "
+            + "SET lv.file_count = COALESCE(v.file_count, 0), lv.version_submit_time = v.create_time, "
+            + "lv.last_update_time = v.update_time "
+            + "WHERE lv.current_version_id = #{versionId}")
+    int syncVersion(@Param("versionId") Long versionId);
+
+    @Update("UPDATE task_list_view SET creator_name = #{realName}, creator_phone = #{phone} WHERE creator_id = #{userId}")
+    int syncCreator(@Param("userId") Long userId, @Param("realName") String realName, @Param("phone") String phone);
+
+    @Update("UPDATE task_list_view SET reviewer_name = #{realName}, reviewer_phone = #{phone} WHERE reviewer_id = #{userId}")
+    int syncReviewer(@Param("userId") Long userId, @Param("realName") String realName, @Param("phone") String phone);
+
+    /**
+     * 关键字检索分页：按全文检索相关度排序，相关度相同再按更新时间。
+     */
+    @Select("SELECT * FROM task_list_view ${ew.customSqlSegment} "
+            + "ORDER BY MATCH(task_name) AGAINST(#{query} IN BOOLEAN MODE) DESC, update_time DESC")
+    Page<TaskListView> selectRankedPage(Page<TaskListView> page,
+                                        @Param(Constants.WRAPPER) Wrapper<TaskListView> wrapper,
+                                        @Param("query") String query);
+
+    /**
+     * 包含已归档的分页，wrapper 只能包含筛选条件，排序在外层统一追加。
+     */
+    @Select("SELECT * FROM " + WITH_ARCHIVE + "ORDER BY update_time DESC, task_id DESC")
+    Page<TaskListView> selectPageWithArchive(Page<TaskListView> page,
+                                             @Param(Constants.WRAPPER) Wrapper<TaskListView> wrapper);
+
+    /**
+     * 包含已归档的关键字检索分页：相关度在各自表内计算后再合并排序。
+     */
+    @Select("SELECT * FROM (SELECT *, 0 AS archived, MATCH(task_name) AGAINST(#{query} IN BOOLEAN MODE) AS relevance "
+            + "FROM task_list_view ${ew.customSqlSegment} "
+            + "UNION ALL SELECT *, 1 AS archived, MATCH(task_name) AGAINST(#{query} IN BOOLEAN MODE) AS relevance "
+            + "FROM task_list_view_archive ${ew.customSqlSegment}) lv "
+            + "ORDER BY relevance DESC, update_time DESC")
+    Page<TaskListView> selectRankedPageWithArchive(Page<TaskListView> page,
+                                                   @Param(Constants.WRAPPER) Wrapper<TaskListView> wrapper,
+                                                   @Param("query") String query);
+
+    /**
+     * 包含已归档的游标读取：两侧各按 (update_time, task_id) 取前 limit 条，合并后再截取，两侧都只扫描索引前缀。
+     */
+    @Select("SELECT * FROM ("
+            + "(SELECT *, 0 AS archived FROM task_list_view ${ew.customSqlSegment} "
+            + "ORDER BY update_time DESC, task_id DESC LIMIT #{limit}) "
+            + "UNION ALL (SELECT *, 1 AS archived FROM task_list_view_archive ${ew.customSqlSegment} "
+            + "ORDER BY update_time DESC, task_id DESC LIMIT #{limit})) lv "
+            + "ORDER BY update_time DESC, task_id DESC LIMIT #{limit}")
+    List<TaskListView> selectListWithArchive(@Param(Constants.WRAPPER) Wrapper<TaskListView> wrapper,
+                                             @Param("limit") int limit);
+
+    @Select("SELECT (SELECT COUNT(*) FROM task_list_view ${ew.customSqlSegment}) "
+            + "+ (SELECT COUNT(*) FROM task_list_view_archive ${ew.customSqlSegment})")
+    Long selectCountWithArchive(@Param(Constants.WRAPPER) Wrapper<TaskListView> wrapper);
+}
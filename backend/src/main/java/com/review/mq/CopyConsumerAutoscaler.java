@@ -0,0 +1,196 @@
+package com.review.mq;
+
+import com.review.config.CopyAutoscaleProperties;
+import com.review.config.RabbitConfig;
+import com.review.dto.QueueMonitorResponse;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 根据 file.copy.queue 堆积量与消费吞吐动态调整监听容器的消费者数。
+ * <p>
+ * 扩容：堆积超过阈值且按当前吞吐预计无法在目标时间内消化，连续若干次采样成立后按 50% 步长扩容；
+ * 缩容：堆积低于阈值连续更多次采样后每次减 1，两者阈值与采样次数不同形成滞回，并设有冷却时间。
+ * 上限取配置值与“连接池大小 × 占比”的较小者，连接池已有线程排队等待时不再扩容。
+ */
+@Slf4j
+@Component
+@Profile("!embedded-mq")
+@RequiredArgsConstructor
+public class CopyConsumerAutoscaler {
+
+    private final CopyAutoscaleProperties properties;
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+    private final RabbitTemplate rabbitTemplate;
+    private final FileCopyConsumer fileCopyConsumer;
+    private final DataSource dataSource;
+
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+
+    private long lastProcessed;
+    private long lastSampleNanos;
+    private long lastChangeNanos;
+    private int upStreak;
+    private int downStreak;
+
+    private volatile long lastBacklog;
+    private volatile double lastThroughput;
+    private volatile String lastDecision = "初始化";
+    private volatile LocalDateTime lastChangedAt;
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        lastProcessed = fileCopyConsumer.processedCount();
+        lastSampleNanos = System.nanoTime();
+        sampler.scheduleWithFixedDelay(this::sampleQuietly, properties.getSampleIntervalSeconds(),
+                properties.getSampleIntervalSeconds(), TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sampler.shutdownNow();
+    }
+
+    /**
+     * 当前扩缩容状态，供监控面板展示。
+     */
+    public QueueMonitorResponse.AutoscaleInfo snapshot() {
+        QueueMonitorResponse.AutoscaleInfo info = new QueueMonitorResponse.AutoscaleInfo();
+        info.setEnabled(properties.isEnabled());
+        SimpleMessageListenerContainer container = container();
+        info.setConsumers(container == null ? 0 : container.getActiveConsumerCount());
+        info.setMinConsumers(properties.getMinConsumers());
+        info.setMaxConsumers(effectiveMax());
+        info.setBacklog(lastBacklog);
+        info.setThroughput(lastThroughput);
+        info.setLastDecision(lastDecision);
+        info.setLastChangedAt(lastChangedAt);
+        return info;
+    }
+
+    private void sampleQuietly() {
+        try {
+            sample();
+        } catch (Exception ex) {
+            log.warn("copy consumer autoscale sample failed: {}", ex.getMessage());
+        }
+    }
+
+    private void sample() {
+        SimpleMessageListenerContainer container = container();
+        if (container == null || !container.isRunning()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long processed = fileCopyConsumer.processedCount();
+        double seconds = Math.max(1e-3, (now - lastSampleNanos) / 1e9);
+        double throughput = (processed - lastProcessed) / seconds;
+        lastProcessed = processed;
+        lastSampleNanos = now;
+
+        Long depth = rabbitTemplate.execute(channel ->
+                (long) channel.queueDeclarePassive(RabbitConfig.FILE_COPY_QUEUE).getMessageCount());
+        long backlog = depth == null ? 0 : depth;
+        lastBacklog = backlog;
+        lastThroughput = throughput;
+
+        int current = container.getActiveConsumerCount();
+        int max = effectiveMax();
+        int min = Math.min(properties.getMinConsumers(), max);
+        double drainSeconds = throughput <= 0 ? Double.MAX_VALUE : backlog / throughput;
+
+        boolean wantUp = backlog > properties.getScaleUpBacklog() && drainSeconds > properties.getTargetDrainSeconds();
+        boolean wantDown = backlog < properties.getScaleDownBacklog();
+        upStreak = wantUp ? upStreak + 1 : 0;
+        downStreak = wantDown ? downStreak + 1 : 0;
+
+        if (current > max) {
+            resize(container, current, max, "超出连接池上限，回落到 " + max);
+            return;
+        }
+        if (now - lastChangeNanos < TimeUnit.SECONDS.toNanos(properties.getCooldownSeconds())) {
+            return;
+        }
+        if (upStreak >= properties.getScaleUpSamples() && current < max) {
+            if (poolSaturated()) {
+                lastDecision = "连接池已有线程等待，暂缓扩容";
+                return;
+            }
+            int target = Math.min(max, current + Math.max(1, current / 2));
+            resize(container, current, target, String.format("堆积 %d，吞吐 %.1f/s，扩容", backlog, throughput));
+        } else if (downStreak >= properties.getScaleDownSamples() && current > min) {
+            resize(container, current, current - 1, String.format("堆积 %d，缩容", backlog));
+        }
+    }
+
+    private void resize(SimpleMessageListenerContainer container, int current, int target, String reason) {
+        if (target == current) {
+            return;
+        }
+        // 同时收紧 maxConcurrentConsumers，避免容器自带的动态扩容与这里的决策互相干扰
+        if (target > current) {
+            container.setMaxConcurrentConsumers(target);
+            container.setConcurrentConsumers(target);
+        } else {
+            container.setConcurrentConsumers(target);
+            container.setMaxConcurrentConsumers(target);
+        }
+        upStreak = 0;
+        downStreak = 0;
+        lastChangeNanos = System.nanoTime();
+        lastChangedAt = LocalDateTime.now();
+        lastDecision = reason + "（" + current + " → " + target + "）";
+        log.info("copy consumers resized {} -> {}, reason={}", current, target, reason);
+    }
+
+    private int effectiveMax() {
+        int max = properties.getMaxConsumers();
+        HikariDataSource hikari = hikari();
+        if (hikari != null) {
+            int poolCap = (int) Math.floor(hikari.getMaximumPoolSize() * properties.getDbPoolShare());
+            max = Math.min(max, Math.max(1, poolCap));
+        }
+        return Math.max(1, max);
+    }
+
+    private boolean poolSaturated() {
+        HikariDataSource hikari = hikari();
+        if (hikari == null) {
+            return false;
+        }
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        return pool != null && pool.getThreadsAwaitingConnection() > 0;
+    }
+
+    private HikariDataSource hikari() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    private SimpleMessageListenerContainer container() {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(RabbitConfig.FILE_COPY_LISTENER_ID);
+        return container instanceof SimpleMessageListenerContainer ? (SimpleMessageListenerContainer) container : null;
+    }
+}
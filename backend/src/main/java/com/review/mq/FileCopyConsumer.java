@@ -1,25 +1,57 @@
 package com.review.mq;
 
+import com.review.common.TenantShardContext;
 import com.review.config.RabbitConfig;
 import com.review.service.FileAsyncService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.AmqpRejectAndDontRequeueException;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
- * 文件复制消费者，监听 file.copy.queue。
+ * 文件复制消费者，监听小版本通道 file.copy.queue 与大版本通道 file.copy.large.queue。
+ * 大版本通道使用固定的少量消费者，小版本通道由自动扩缩容调整，保证小版本不被大批量复制阻塞。
  */
 @Slf4j
 @Component
+@Profile("!embedded-mq")
 @RequiredArgsConstructor
 public class FileCopyConsumer {
 
     private final FileAsyncService fileAsyncService;
 
-    @RabbitListener(queues = RabbitConfig.FILE_COPY_QUEUE)
+    /** 小版本通道已处理（含失败）的消息数，供自动扩缩容计算吞吐 */
+    private final AtomicLong processed = new AtomicLong();
+
+    @RabbitListener(id = RabbitConfig.FILE_COPY_LISTENER_ID, queues = RabbitConfig.FILE_COPY_QUEUE)
     public void handleMessage(FileCopyMessage message) {
+        try {
+            copy(message);
+        } finally {
+            processed.incrementAndGet();
+        }
+    }
+
+    @RabbitListener(id = RabbitConfig.FILE_COPY_LARGE_LISTENER_ID, queues = RabbitConfig.FILE_COPY_LARGE_QUEUE,
+            concurrency = "${copy-lanes.large-consumers:1}")
+    public void handleLargeMessage(FileCopyMessage message) {
+        copy(message);
+    }
+
+    public long processedCount() {
+        return processed.get();
+    }
+
+    private void copy(FileCopyMessage message) {
+        // 消费线程没有登录上下文，按消息中的租户路由分片
+        TenantShardContext.runAsTenant(message.getTenantId(), () -> doCopy(message));
+    }
+
+    private void doCopy(FileCopyMessage message) {
         try {
             fileAsyncService.handleCopy(message);
         } catch (Exception ex) {
@@ -0,0 +1,12 @@
+package com.review.mq;
+
+/**
+ * 文件复制任务队列抽象：默认由 RabbitMQ 承载，embedded-mq 环境下使用本地内存映射日志。
+ */
+public interface FileCopyJobQueue {
+
+    /**
+     * 投递一条文件复制任务，投递失败时抛出业务异常。
+     */
+    void send(FileCopyMessage message);
+}
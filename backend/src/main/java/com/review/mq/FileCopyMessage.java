@@ -36,4 +36,13 @@ public class FileCopyMessage {
      * traceId，串联日志。
      */
     private String traceId;
+
+    /**
+     * 预估需复制的文件数（取旧版本 file_count），用于选择复制通道。
+     */
+    private Integer estimatedFileCount;
+
+    public FileCopyMessage(Long tenantId, Long taskId, Long oldVersionId, Long newVersionId, String traceId) {
+        this(tenantId, taskId, oldVersionId, newVersionId, traceId, null);
+    }
 }
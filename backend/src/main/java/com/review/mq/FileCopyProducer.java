@@ -5,28 +5,46 @@ import com.review.config.RabbitConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 /**
- * 文件复制消息生产者。
+ * 文件复制消息生产者（RabbitMQ 实现）。
  */
 @Slf4j
 @Component
+@Profile("!embedded-mq")
 @RequiredArgsConstructor
-public class FileCopyProducer {
+public class FileCopyProducer implements FileCopyJobQueue {
 
     private final RabbitTemplate rabbitTemplate;
 
+    /** 预估文件数达到该值的复制任务走大版本通道 */
+    @Value("${copy-lanes.large-threshold:50}")
+    private int largeThreshold;
+
+    @Override
     public void send(FileCopyMessage message) {
         try {
-            rabbitTemplate.convertAndSend(RabbitConfig.REVIEW_EXCHANGE,
-                    RabbitConfig.FILE_COPY_ROUTING_KEY,
-                    message);
-            log.info("file-copy message sent, traceId={}, taskId={}, newVersion={}", message.getTraceId(),
-                    message.getTaskId(), message.getNewVersionId());
+            String routingKey = routingKeyFor(message);
+            rabbitTemplate.convertAndSend(RabbitConfig.REVIEW_EXCHANGE, routingKey, message);
+            log.info("file-copy message sent, traceId={}, taskId={}, newVersion={}, lane={}", message.getTraceId(),
+                    message.getTaskId(), message.getNewVersionId(), routingKey);
         } catch (Exception e) {
             log.error("send file-copy message failed, traceId={}", message.getTraceId(), e);
             throw new BusinessException("触发文件复制失败，请稍后重试");
         }
     }
+
+    /**
+     * 按预估文件数选择复制通道，未知时按小版本处理。
+     */
+    public String routingKeyFor(FileCopyMessage message) {
+        Integer estimated = message.getEstimatedFileCount();
+        if (estimated != null && estimated >= largeThreshold) {
+            return RabbitConfig.FILE_COPY_LARGE_ROUTING_KEY;
+        }
+        return RabbitConfig.FILE_COPY_ROUTING_KEY;
+    }
 }
@@ -0,0 +1,232 @@
+package com.review.mq.embedded;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.review.common.BusinessException;
+import com.review.common.TenantShardContext;
+import com.review.config.EmbeddedQueueProperties;
+import com.review.config.RabbitConfig;
+import com.review.dto.QueueMonitorResponse;
+import com.review.mq.FileCopyJobQueue;
+import com.review.mq.FileCopyMessage;
+import com.review.service.FileAsyncService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 内置文件复制队列：以内存映射日志替代 RabbitMQ，适用于单机部署与压测对比。
+ * <p>
+ * 语义与 RabbitMQ 链路保持一致：至少一次投递；消费失败时标记版本复制失败并写入死信日志，不自动重试。
+ * 多个消费线程并发处理，消费位点取“最早未完成记录”的偏移量批量提交，宕机重启后从该位点继续。
+ */
+@Slf4j
+@Component
+@Profile("embedded-mq")
+@RequiredArgsConstructor
+public class EmbeddedFileCopyQueue implements FileCopyJobQueue {
+
+    private static final long IDLE_WAIT_MS = 50;
+
+    private final EmbeddedQueueProperties properties;
+    private final FileAsyncService fileAsyncService;
+    private final ObjectMapper objectMapper;
+
+    private MappedJournal mainJournal;
+    private MappedJournal deadLetterJournal;
+    private ExecutorService workers;
+    private ScheduledExecutorService flusher;
+    private Thread dispatcher;
+    private Semaphore permits;
+    private volatile boolean running;
+
+    private final Object cursorLock = new Object();
+    private final Object signal = new Object();
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong unflushed = new AtomicLong();
+    private long readOffset;
+
+    @PostConstruct
+    public void start() throws IOException {
+        Path root = Paths.get(properties.getDataDir());
+        int segmentSize = properties.getSegmentSizeMb() * 1024 * 1024;
+        mainJournal = new MappedJournal(root.resolve(RabbitConfig.FILE_COPY_QUEUE), segmentSize);
+        deadLetterJournal = new MappedJournal(root.resolve(RabbitConfig.FILE_COPY_DLX_QUEUE), segmentSize);
+        readOffset = mainJournal.getCommittedOffset();
+        pending.set(mainJournal.countFrom(readOffset));
+
+        int concurrency = Math.max(1, properties.getConcurrency());
+        permits = new Semaphore(concurrency);
+        workers = Executors.newFixedThreadPool(concurrency);
+        flusher = Executors.newSingleThreadScheduledExecutor();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, properties.getFlushIntervalMs(),
+                properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "embedded-mq-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        log.info("embedded file-copy queue started, dir={}, pending={}, concurrency={}", root.toAbsolutePath(),
+                pending.get(), concurrency);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        running = false;
+        dispatcher.interrupt();
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+        flusher.shutdownNow();
+        commitOffset();
+        mainJournal.close();
+        deadLetterJournal.close();
+    }
+
+    @Override
+    public void send(FileCopyMessage message) {
+        try {
+            long end = mainJournal.append(objectMapper.writeValueAsBytes(message));
+            pending.incrementAndGet();
+            synchronized (signal) {
+                signal.notifyAll();
+            }
+            if (unflushed.incrementAndGet() >= properties.getFlushBatchSize()) {
+                flusher.execute(this::flushQuietly);
+            }
+            if (properties.isSyncOnSend() && !mainJournal.awaitFlushed(end, properties.getSendTimeoutMs())) {
+                throw new IOException("flush timeout");
+            }
+            log.info("file-copy job queued (embedded), traceId={}, taskId={}, newVersion={}", message.getTraceId(),
+                    message.getTaskId(), message.getNewVersionId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("触发文件复制失败，请稍后重试");
+        } catch (Exception e) {
+            log.error("queue file-copy job failed, traceId={}", message.getTraceId(), e);
+            throw new BusinessException("触发文件复制失败，请稍后重试");
+        }
+    }
+
+    /**
+     * 主队列状态快照，字段含义与 RabbitMQ 管理接口保持一致。
+     */
+    public QueueMonitorResponse.QueueInfo mainQueueInfo() {
+        QueueMonitorResponse.QueueInfo info = new QueueMonitorResponse.QueueInfo();
+        info.setQueueName(RabbitConfig.FILE_COPY_QUEUE);
+        info.setReady(pending.get());
+        info.setUnacked(inFlight.size());
+        info.setTotal(info.getReady() + info.getUnacked());
+        info.setConsumers(Math.max(1, properties.getConcurrency()));
+        info.setStatusLabel(info.getReady() > 0 ? "有待处理" : "空闲");
+        return info;
+    }
+
+    /**
+     * 死信日志状态快照。
+     */
+    public QueueMonitorResponse.QueueInfo deadLetterQueueInfo() {
+        QueueMonitorResponse.QueueInfo info = new QueueMonitorResponse.QueueInfo();
+        info.setQueueName(RabbitConfig.FILE_COPY_DLX_QUEUE);
+        info.setReady(deadLetterJournal.getRecordCount());
+        info.setTotal(info.getReady());
+        info.setStatusLabel(info.getReady() > 0 ? "有待处理" : "空闲");
+        return info;
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                permits.acquire();
+                JournalRecord record;
+                synchronized (cursorLock) {
+                    record = mainJournal.read(readOffset);
+                    if (record != null) {
+                        inFlight.add(record.getOffset());
+                        readOffset = record.getNextOffset();
+                    }
+                }
+                if (record == null) {
+                    permits.release();
+                    synchronized (signal) {
+                        signal.wait(IDLE_WAIT_MS);
+                    }
+                    continue;
+                }
+                pending.decrementAndGet();
+                JournalRecord dispatched = record;
+                workers.execute(() -> consume(dispatched));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("embedded queue dispatch error", e);
+            }
+        }
+    }
+
+    private void consume(JournalRecord record) {
+        FileCopyMessage message = null;
+        try {
+            message = objectMapper.readValue(record.getPayload(), FileCopyMessage.class);
+            // 工作线程没有登录上下文，按消息中的租户路由分片
+            TenantShardContext.setTenantId(message.getTenantId());
+            fileAsyncService.handleCopy(message);
+        } catch (Exception ex) {
+            Long versionId = message == null ? null : message.getNewVersionId();
+            log.error("copy file failed (embedded), offset={}, version={}", record.getOffset(), versionId, ex);
+            if (versionId != null) {
+                try {
+                    fileAsyncService.markCopyFailed(versionId);
+                } catch (Exception inner) {
+                    log.error("mark copy failed error, version={}", versionId, inner);
+                }
+            }
+            deadLetter(record);
+        } finally {
+            TenantShardContext.clear();
+            inFlight.remove(record.getOffset());
+            permits.release();
+        }
+    }
+
+    private void deadLetter(JournalRecord record) {
+        try {
+            deadLetterJournal.append(record.getPayload());
+        } catch (IOException e) {
+            log.error("write dead letter failed, offset={}", record.getOffset(), e);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            unflushed.set(0);
+            commitOffset();
+            mainJournal.flush();
+            deadLetterJournal.flush();
+            mainJournal.deleteConsumedSegments();
+        } catch (Exception e) {
+            log.error("embedded queue flush failed", e);
+        }
+    }
+
+    private void commitOffset() {
+        long committed;
+        synchronized (cursorLock) {
+            committed = inFlight.isEmpty() ? readOffset : inFlight.first();
+        }
+        mainJournal.commit(committed);
+    }
+}
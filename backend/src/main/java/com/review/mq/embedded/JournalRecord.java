@@ -0,0 +1,20 @@
+package com.review.mq.embedded;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 日志中的一条记录及其所在偏移量。
+ */
+@Getter
+@AllArgsConstructor
+public class JournalRecord {
+
+    /** 记录起始偏移量 */
+    private final long offset;
+
+    /** 下一条记录的起始偏移量 */
+    private final long nextOffset;
+
+    private final byte[] payload;
+}
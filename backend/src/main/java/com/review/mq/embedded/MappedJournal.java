@@ -0,0 +1,324 @@
+package com.review.mq.embedded;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 基于内存映射文件的追加写日志，按固定大小切分 segment。
+ * <p>
+ * 记录格式：[int length][int crc32][payload]，length 最后写入，恢复时遇到 0 或校验失败即视为写入末尾；
+ * length = -1 表示该 segment 已封存、后续记录在下一个 segment。偏移量为全局字节偏移。
+ * 同时维护一个持久化的消费位点（consumer.offset），与数据一起批量 force 到磁盘。
+ */
+public class MappedJournal implements Closeable {
+
+    private static final int HEADER_SIZE = 8;
+    private static final int END_OF_SEGMENT = -1;
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String OFFSET_FILE = "consumer.offset";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final List<Segment> dirtySegments = new ArrayList<>();
+    private final Object flushMonitor = new Object();
+
+    private Segment writeSegment;
+    private volatile long writeOffset;
+    private volatile long flushedOffset;
+    private long recordCount;
+
+    private FileChannel offsetChannel;
+    private MappedByteBuffer offsetBuffer;
+    private volatile long committedOffset;
+
+    public MappedJournal(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        openOffsetFile();
+        recover();
+    }
+
+    /**
+     * 追加一条记录，返回该记录结束位置的偏移量（可用于等待刷盘）。
+     */
+    public synchronized long append(byte[] payload) throws IOException {
+        int need = HEADER_SIZE + payload.length;
+        if (need > segmentSize) {
+            throw new IOException("record too large for segment, size=" + payload.length);
+        }
+        int position = (int) (writeOffset - writeSegment.baseOffset);
+        if (position + need > segmentSize) {
+            if (segmentSize - position >= 4) {
+                writeSegment.buffer.putInt(position, END_OF_SEGMENT);
+            }
+            markDirty(writeSegment);
+            writeSegment = openSegment(writeSegment.baseOffset + segmentSize);
+            position = 0;
+        }
+        ByteBuffer buffer = writeSegment.buffer.duplicate();
+        buffer.position(position + HEADER_SIZE);
+        buffer.put(payload);
+        writeSegment.buffer.putInt(position + 4, crc(payload));
+        writeSegment.buffer.putInt(position, payload.length);
+        markDirty(writeSegment);
+        recordCount++;
+        writeOffset = writeSegment.baseOffset + position + need;
+        return writeOffset;
+    }
+
+    /**
+     * 读取 offset 处的记录；没有新记录时返回 null。只会读取已完整写入的记录。
+     */
+    public JournalRecord read(long offset) {
+        long current = offset;
+        while (current < writeOffset) {
+            Segment segment = segmentFor(current);
+            if (segment == null) {
+                return null;
+            }
+            int position = (int) (current - segment.baseOffset);
+            if (position + HEADER_SIZE > segmentSize) {
+                current = segment.baseOffset + segmentSize;
+                continue;
+            }
+            int length = segment.buffer.getInt(position);
+            if (length == END_OF_SEGMENT || length == 0) {
+                current = segment.baseOffset + segmentSize;
+                continue;
+            }
+            byte[] payload = new byte[length];
+            ByteBuffer buffer = segment.buffer.duplicate();
+            buffer.position(position + HEADER_SIZE);
+            buffer.get(payload);
+            return new JournalRecord(current, current + HEADER_SIZE + length, payload);
+        }
+        return null;
+    }
+
+    /**
+     * 统计 [fromOffset, 写入末尾) 之间的记录数。
+     */
+    public long countFrom(long fromOffset) {
+        long count = 0;
+        long cursor = fromOffset;
+        JournalRecord record;
+        while ((record = read(cursor)) != null) {
+            count++;
+            cursor = record.getNextOffset();
+        }
+        return count;
+    }
+
+    /**
+     * 将脏 segment 与消费位点 force 到磁盘，并唤醒等待刷盘的生产者。
+     */
+    public void flush() {
+        List<Segment> toForce;
+        long target;
+        synchronized (this) {
+            target = writeOffset;
+            toForce = new ArrayList<>(dirtySegments);
+            dirtySegments.clear();
+        }
+        for (Segment segment : toForce) {
+            segment.buffer.force();
+        }
+        offsetBuffer.force();
+        synchronized (flushMonitor) {
+            flushedOffset = Math.max(flushedOffset, target);
+            flushMonitor.notifyAll();
+        }
+    }
+
+    /**
+     * 等待 offset 之前的数据落盘。
+     */
+    public boolean awaitFlushed(long offset, long timeoutMs) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        synchronized (flushMonitor) {
+            while (flushedOffset < offset) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                flushMonitor.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 更新消费位点（写入映射内存，随下一次 flush 落盘）。
+     */
+    public void commit(long offset) {
+        if (offset <= committedOffset) {
+            return;
+        }
+        committedOffset = offset;
+        offsetBuffer.putLong(0, offset);
+    }
+
+    /**
+     * 删除已被完整消费的 segment（当前写入 segment 保留）。
+     */
+    public synchronized void deleteConsumedSegments() throws IOException {
+        Iterator<Map.Entry<Long, Segment>> iterator = segments.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Segment segment = iterator.next().getValue();
+            if (segment == writeSegment || segment.baseOffset + segmentSize > committedOffset) {
+                break;
+            }
+            iterator.remove();
+            dirtySegments.remove(segment);
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+        }
+    }
+
+    public long getWriteOffset() {
+        return writeOffset;
+    }
+
+    public long getCommittedOffset() {
+        return committedOffset;
+    }
+
+    public synchronized long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        for (Segment segment : segments.values()) {
+            segment.channel.close();
+        }
+        segments.clear();
+        offsetChannel.close();
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long baseOffset = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+            openSegment(baseOffset);
+        }
+        if (segments.isEmpty()) {
+            long base = committedOffset - (committedOffset % segmentSize);
+            writeSegment = openSegment(base);
+            writeOffset = base;
+        } else {
+            for (Segment segment : segments.values()) {
+                writeSegment = segment;
+                writeOffset = segment.baseOffset + scanSegment(segment);
+            }
+        }
+        if (committedOffset > writeOffset) {
+            committedOffset = writeOffset;
+            offsetBuffer.putLong(0, writeOffset);
+        }
+        flushedOffset = writeOffset;
+    }
+
+    /**
+     * 扫描 segment 返回有效数据末尾位置，同时累计记录数；遇到残缺记录时截断。
+     */
+    private int scanSegment(Segment segment) {
+        int position = 0;
+        while (position + HEADER_SIZE <= segmentSize) {
+            int length = segment.buffer.getInt(position);
+            if (length == END_OF_SEGMENT) {
+                return segmentSize;
+            }
+            if (length <= 0 || position + HEADER_SIZE + length > segmentSize) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            ByteBuffer buffer = segment.buffer.duplicate();
+            buffer.position(position + HEADER_SIZE);
+            buffer.get(payload);
+            if (crc(payload) != segment.buffer.getInt(position + 4)) {
+                segment.buffer.putInt(position, 0);
+                break;
+            }
+            recordCount++;
+            position += HEADER_SIZE + length;
+        }
+        return position;
+    }
+
+    private Segment openSegment(long baseOffset) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", baseOffset, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        Segment segment = new Segment(baseOffset, path, channel, buffer);
+        segments.put(baseOffset, segment);
+        return segment;
+    }
+
+    private void openOffsetFile() throws IOException {
+        offsetChannel = FileChannel.open(directory.resolve(OFFSET_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        offsetBuffer = offsetChannel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+        committedOffset = offsetBuffer.getLong(0);
+    }
+
+    private Segment segmentFor(long offset) {
+        Map.Entry<Long, Segment> entry;
+        synchronized (this) {
+            entry = segments.floorEntry(offset);
+        }
+        return entry == null ? null : entry.getValue();
+    }
+
+    private void markDirty(Segment segment) {
+        if (!dirtySegments.contains(segment)) {
+            dirtySegments.add(segment);
+        }
+    }
+
+    private int crc(byte[] payload) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload, 0, payload.length);
+        return (int) crc32.getValue();
+    }
+
+    private static final class Segment {
+
+        private final long baseOffset;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+
+        private Segment(long baseOffset, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.baseOffset = baseOffset;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -2,10 +2,12 @@ package com.review.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.review.common.BusinessException;
+import com.review.common.TenantShardContext;
 import com.review.dto.LoginRequest;
 import com.review.dto.LoginResponse;
 import com.review.entity.User;
 import com.review.mapper.UserMapper;
+import com.review.service.support.TenantShardRouter;
 import com.review.utils.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.StringRedisTemplate;
@@ -35,6 +37,9 @@ public class AuthService {
     @Autowired
     private StringRedisTemplate stringRedisTemplate;
 
+    @Autowired
+    private TenantShardRouter tenantShardRouter;
+
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     /**
@@ -44,9 +49,7 @@ public class AuthService {
         String username = request.getUsername();
         checkLoginLock(username);
 
-        LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(User::getUsername, username);
-        User user = userMapper.selectOne(queryWrapper);
+        User user = findByUsername(username);
 
         if (user == null) {
             recordLoginFailure(username);
@@ -65,7 +68,7 @@ public class AuthService {
         clearLoginFailure(username);
 
         user.setLastLoginTime(LocalDateTime.now());
-        userMapper.updateById(user);
+        TenantShardContext.runAsTenant(user.getTenantId(), () -> userMapper.updateById(user));
 
         String token = jwtUtil.generateToken(
                 user.getId(),
@@ -84,6 +87,23 @@ public class AuthService {
         );
     }
 
+    /**
+     * 登录时尚无租户上下文，按分片依次查找，平台账号位于分片 0。
+     */
+    private User findByUsername(String username) {
+        for (Integer shardId : tenantShardRouter.shardIds()) {
+            User user = tenantShardRouter.inShard(shardId, false, () -> {
+                LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
+                queryWrapper.eq(User::getUsername, username);
+                return userMapper.selectOne(queryWrapper);
+            });
+            if (user != null) {
+                return user;
+            }
+        }
+        return null;
+    }
+
     private void checkLoginLock(String username) {
         String key = LOGIN_FAIL_PREFIX + username;
         String value = stringRedisTemplate.opsForValue().get(key);
@@ -0,0 +1,314 @@
+package com.review.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.GetResponse;
+import com.review.common.BusinessException;
+import com.review.common.TenantShardContext;
+import com.review.config.RabbitConfig;
+import com.review.dto.DeadLetterMessageResponse;
+import com.review.dto.DeadLetterReplayProgressResponse;
+import com.review.dto.DeadLetterReplayRequest;
+import com.review.mq.FileCopyMessage;
+import com.review.mq.FileCopyProducer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 文件复制死信队列的浏览与限速重投，重投时按原消息的预估文件数回到对应复制通道。
+ * <p>
+ * 浏览与重投都在单个 channel 上手动 ack：未选中的消息保持 unacked，结束时统一 nack 回队列；
+ * 中途异常导致 channel 关闭时，未确认的消息也会被 broker 自动退回死信队列，不会丢失。
+ */
+@Slf4j
+@Service
+@Profile("!embedded-mq")
+@RequiredArgsConstructor
+public class DeadLetterReplayService {
+
+    private static final int MAX_BROWSE_LIMIT = 200;
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_FINISHED = "FINISHED";
+    private static final String STATUS_CANCELLED = "CANCELLED";
+    private static final String STATUS_FAILED = "FAILED";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final FileAsyncService fileAsyncService;
+    private final FileCopyProducer fileCopyProducer;
+    private final ObjectMapper objectMapper;
+
+    @Value("${monitor.dlq.replay-rate:20}")
+    private int defaultReplayRate;
+
+    private final ExecutorService replayExecutor = Executors.newSingleThreadExecutor();
+    private final AtomicReference<ReplayJob> currentJob = new AtomicReference<>();
+
+    /**
+     * 查看死信队列头部的消息，不会改变消息数量。
+     */
+    public List<DeadLetterMessageResponse> browse(int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_BROWSE_LIMIT));
+        List<DeadLetterMessageResponse> result = rabbitTemplate.execute(channel -> {
+            List<DeadLetterMessageResponse> messages = new ArrayList<>();
+            long lastTag = -1;
+            try {
+                while (messages.size() < size) {
+                    GetResponse response = channel.basicGet(RabbitConfig.FILE_COPY_DLX_QUEUE, false);
+                    if (response == null) {
+                        break;
+                    }
+                    lastTag = response.getEnvelope().getDeliveryTag();
+                    messages.add(toSnapshot(response));
+                }
+            } finally {
+                if (lastTag >= 0) {
+                    channel.basicNack(lastTag, true, true);
+                }
+            }
+            return messages;
+        });
+        return result == null ? Collections.emptyList() : result;
+    }
+
+    /**
+     * 启动一次重投任务，同一时间只允许一个任务运行。
+     */
+    public DeadLetterReplayProgressResponse startReplay(DeadLetterReplayRequest request) {
+        boolean replayAll = Boolean.TRUE.equals(request.getReplayAll());
+        if (!replayAll && CollectionUtils.isEmpty(request.getVersionIds())) {
+            throw new BusinessException("请选择需要重投的消息，或选择全部重投");
+        }
+        int rate = request.getRatePerSecond() == null ? defaultReplayRate : request.getRatePerSecond();
+        ReplayJob job = new ReplayJob(replayAll ? null : new HashSet<>(request.getVersionIds()), Math.max(rate, 1));
+        ReplayJob previous = currentJob.get();
+        if (previous != null && STATUS_RUNNING.equals(previous.status)) {
+            throw new BusinessException("已有重投任务正在执行，请等待完成或先取消");
+        }
+        if (!currentJob.compareAndSet(previous, job)) {
+            throw new BusinessException("已有重投任务正在执行，请稍后再试");
+        }
+        replayExecutor.submit(() -> runReplay(job));
+        return job.toResponse();
+    }
+
+    /**
+     * 查询最近一次重投任务的进度。
+     */
+    public DeadLetterReplayProgressResponse currentProgress() {
+        ReplayJob job = currentJob.get();
+        return job == null ? null : job.toResponse();
+    }
+
+    /**
+     * 取消正在执行的重投任务，已重投的消息不会回滚。
+     */
+    public DeadLetterReplayProgressResponse cancelReplay() {
+        ReplayJob job = currentJob.get();
+        if (job == null || !STATUS_RUNNING.equals(job.status)) {
+            throw new BusinessException("当前没有正在执行的重投任务");
+        }
+        job.cancelled = true;
+        return job.toResponse();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ReplayJob job = currentJob.get();
+        if (job != null) {
+            job.cancelled = true;
+        }
+        replayExecutor.shutdownNow();
+    }
+
+    private void runReplay(ReplayJob job) {
+        log.info("dlq replay started, jobId={}, rate={}/s, selected={}", job.jobId, job.ratePerSecond,
+                job.versionIds == null ? "ALL" : job.versionIds.size());
+        try {
+            rabbitTemplate.execute(channel -> {
+                replayOnChannel(channel, job);
+                return null;
+            });
+            job.finish(job.cancelled ? STATUS_CANCELLED : STATUS_FINISHED, null);
+        } catch (Exception ex) {
+            log.error("dlq replay failed, jobId={}", job.jobId, ex);
+            job.finish(STATUS_FAILED, ex.getMessage());
+        }
+        log.info("dlq replay {}, jobId={}, scanned={}, replayed={}, skipped={}, failed={}", job.status, job.jobId,
+                job.scanned.get(), job.replayed.get(), job.skipped.get(), job.failed.get());
+    }
+
+    private void replayOnChannel(Channel channel, ReplayJob job) throws IOException, InterruptedException {
+        long total = channel.queueDeclarePassive(RabbitConfig.FILE_COPY_DLX_QUEUE).getMessageCount();
+        job.total = total;
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / job.ratePerSecond;
+        long nextSlot = System.nanoTime();
+        List<Long> retainedTags = new ArrayList<>();
+        try {
+            // 只扫描启动时已有的消息，避免重投后再次失败的消息被反复处理
+            while (job.scanned.get() < total && !job.cancelled) {
+                GetResponse response = channel.basicGet(RabbitConfig.FILE_COPY_DLX_QUEUE, false);
+                if (response == null) {
+                    break;
+                }
+                job.scanned.incrementAndGet();
+                long tag = response.getEnvelope().getDeliveryTag();
+                FileCopyMessage message = readMessage(response.getBody());
+                if (message == null || !job.accepts(message.getNewVersionId())) {
+                    retainedTags.add(tag);
+                    job.skipped.incrementAndGet();
+                    continue;
+                }
+                long wait = nextSlot - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                nextSlot = Math.max(nextSlot, System.nanoTime()) + intervalNanos;
+                try {
+                    boolean reset = TenantShardContext.callAsTenant(message.getTenantId(),
+                            () -> fileAsyncService.resetForReplay(message.getNewVersionId()));
+                    if (reset) {
+                        channel.basicPublish(RabbitConfig.REVIEW_EXCHANGE, fileCopyProducer.routingKeyFor(message),
+                                response.getProps(), response.getBody());
+                        job.replayed.incrementAndGet();
+                    } else {
+                        // 版本已就绪或已不存在，重投只会产生重复文件记录，直接清理
+                        job.discarded.incrementAndGet();
+                    }
+                    channel.basicAck(tag, false);
+                } catch (Exception ex) {
+                    log.warn("dlq replay message failed, version={}, traceId={}", message.getNewVersionId(),
+                            message.getTraceId(), ex);
+                    retainedTags.add(tag);
+                    job.failed.incrementAndGet();
+                }
+            }
+        } finally {
+            for (Long tag : retainedTags) {
+                channel.basicNack(tag, false, true);
+            }
+        }
+    }
+
+    private DeadLetterMessageResponse toSnapshot(GetResponse response) {
+        DeadLetterMessageResponse snapshot = new DeadLetterMessageResponse();
+        FileCopyMessage message = readMessage(response.getBody());
+        if (message != null) {
+            snapshot.setTenantId(message.getTenantId());
+            snapshot.setTaskId(message.getTaskId());
+            snapshot.setOldVersionId(message.getOldVersionId());
+            snapshot.setNewVersionId(message.getNewVersionId());
+            snapshot.setTraceId(message.getTraceId());
+        }
+        fillDeathInfo(snapshot, response.getProps());
+        return snapshot;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void fillDeathInfo(DeadLetterMessageResponse snapshot, AMQP.BasicProperties props) {
+        if (props == null || props.getHeaders() == null) {
+            return;
+        }
+        Object xDeath = props.getHeaders().get("x-death");
+        if (!(xDeath instanceof List) || ((List<?>) xDeath).isEmpty()) {
+            return;
+        }
+        Object first = ((List<?>) xDeath).get(0);
+        if (!(first instanceof Map)) {
+            return;
+        }
+        Map<String, Object> death = (Map<String, Object>) first;
+        Object reason = death.get("reason");
+        snapshot.setDeathReason(reason == null ? null : reason.toString());
+        Object count = death.get("count");
+        if (count instanceof Number) {
+            snapshot.setDeathCount(((Number) count).longValue());
+        }
+        Object time = death.get("time");
+        if (time instanceof Date) {
+            snapshot.setDeathTime(LocalDateTime.ofInstant(((Date) time).toInstant(), ZoneId.systemDefault()));
+        }
+    }
+
+    private FileCopyMessage readMessage(byte[] body) {
+        try {
+            return objectMapper.readValue(body, FileCopyMessage.class);
+        } catch (Exception ex) {
+            log.warn("unreadable dlq message, size={}", body == null ? 0 : body.length);
+            return null;
+        }
+    }
+
+    private static final class ReplayJob {
+
+        private final String jobId = UUID.randomUUID().toString();
+        private final Set<Long> versionIds;
+        private final int ratePerSecond;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong scanned = new AtomicLong();
+        private final AtomicLong replayed = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong discarded = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private volatile long total;
+        private volatile boolean cancelled;
+        private volatile String status = STATUS_RUNNING;
+        private volatile String errorMessage;
+        private volatile LocalDateTime finishedAt;
+
+        private ReplayJob(Set<Long> versionIds, int ratePerSecond) {
+            this.versionIds = versionIds;
+            this.ratePerSecond = ratePerSecond;
+        }
+
+        private boolean accepts(Long versionId) {
+            return versionId != null && (versionIds == null || versionIds.contains(versionId));
+        }
+
+        private void finish(String finalStatus, String error) {
+            this.errorMessage = error;
+            this.finishedAt = LocalDateTime.now();
+            this.status = finalStatus;
+        }
+
+        private DeadLetterReplayProgressResponse toResponse() {
+            DeadLetterReplayProgressResponse response = new DeadLetterReplayProgressResponse();
+            response.setJobId(jobId);
+            response.setStatus(status);
+            response.setTotal(total);
+            response.setScanned(scanned.get());
+            response.setReplayed(replayed.get());
+            response.setSkipped(skipped.get());
+            response.setDiscarded(discarded.get());
+            response.setFailed(failed.get());
+            response.setRatePerSecond(ratePerSecond);
+            response.setErrorMessage(errorMessage);
+            response.setStartedAt(startedAt);
+            response.setFinishedAt(finishedAt);
+            return response;
+        }
+    }
+}
@@ -2,19 +2,27 @@ package com.review.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.review.dto.UserEventMessage;
 import com.review.entity.ReviewFile;
+import com.review.entity.ReviewTask;
 import com.review.entity.ReviewVersion;
 import com.review.mapper.ReviewFileMapper;
+import com.review.mapper.ReviewTaskMapper;
 import com.review.mapper.ReviewVersionMapper;
 import com.review.mq.FileCopyMessage;
+import com.review.service.support.DetailCacheSupport;
+import com.review.service.support.UserEventPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * 处理文件异步复制的业务逻辑（消费端调用）。
@@ -26,14 +34,27 @@ public class FileAsyncService {
 
     private final ReviewFileMapper reviewFileMapper;
     private final ReviewVersionMapper reviewVersionMapper;
+    private final ReviewTaskMapper reviewTaskMapper;
+    private final UserEventPublisher userEventPublisher;
+    private final DetailCacheSupport detailCacheSupport;
 
     /**
      * 复制旧版本文件记录到新版本，复制完成后将 filesReady 标记为 1。
+     * 队列与死信重投均为至少一次投递：先锁定新版本行使重复消息串行，版本已就绪或已不存在时直接确认，
+     * 新版本下已存在的同名文件不再插入。
      */
     @Transactional(rollbackFor = Exception.class)
     public void handleCopy(FileCopyMessage message) {
         log.info("start copy old files, traceId={}, taskId={}, oldVersion={}, newVersion={}",
                 message.getTraceId(), message.getTaskId(), message.getOldVersionId(), message.getNewVersionId());
+        ReviewVersion target = reviewVersionMapper.selectOne(new LambdaQueryWrapper<ReviewVersion>()
+                .eq(ReviewVersion::getId, message.getNewVersionId())
+                .last("FOR UPDATE"));
+        if (target == null || Integer.valueOf(1).equals(target.getFilesReady())) {
+            log.info("skip copy, version {} already ready or removed, traceId={}", message.getNewVersionId(),
+                    message.getTraceId());
+            return;
+        }
         List<ReviewFile> oldFiles = reviewFileMapper.selectList(new LambdaQueryWrapper<ReviewFile>()
                 .eq(ReviewFile::getVersionId, message.getOldVersionId()));
         if (CollectionUtils.isEmpty(oldFiles)) {
@@ -41,11 +62,23 @@ public class FileAsyncService {
                     .eq(ReviewVersion::getId, message.getNewVersionId())
                     .set(ReviewVersion::getFilesReady, 1)
                     .set(ReviewVersion::getFileCount, 0)
-                    .set(ReviewVersion::getUpdateTime, LocalDateTime.now()));
+                    .set(ReviewVersion::getUpdateTime, LocalDateTime.now())
+                    .setSql("lock_version = lock_version + 1"));
             log.info("no history files to copy, version={} traceId={}", message.getNewVersionId(), message.getTraceId());
+            detailCacheSupport.invalidate(message.getTaskId(), message.getNewVersionId());
+            notifyCreator(message.getTaskId(), message.getNewVersionId(), UserEventMessage.VERSION_READY, 1, 0);
             return;
         }
+        Set<String> existing = reviewFileMapper.selectList(new LambdaQueryWrapper<ReviewFile>()
+                        .select(ReviewFile::getFileName)
+                        .eq(ReviewFile::getVersionId, message.getNewVersionId()))
+                .stream()
+                .map(ReviewFile::getFileName)
+                .collect(Collectors.toSet());
         for (ReviewFile file : oldFiles) {
+            if (existing.contains(file.getFileName())) {
+                continue;
+            }
             ReviewFile copy = new ReviewFile();
             copy.setTenantId(message.getTenantId());
             copy.setVersionId(message.getNewVersionId());
@@ -60,19 +93,69 @@ public class FileAsyncService {
                 .eq(ReviewVersion::getId, message.getNewVersionId())
                 .set(ReviewVersion::getFilesReady, 1)
                 .set(ReviewVersion::getFileCount, oldFiles.size())
-                .set(ReviewVersion::getUpdateTime, LocalDateTime.now()));
+                .set(ReviewVersion::getUpdateTime, LocalDateTime.now())
+                .setSql("lock_version = lock_version + 1"));
         log.info("copy finished, newVersion={}, filesCount={}, traceId={}", message.getNewVersionId(),
                 oldFiles.size(), message.getTraceId());
+        detailCacheSupport.invalidate(message.getTaskId(), message.getNewVersionId());
+        notifyCreator(message.getTaskId(), message.getNewVersionId(), UserEventMessage.VERSION_READY, 1, oldFiles.size());
+    }
+
+    /**
+     * 死信重投前将版本重新置为复制中；版本已就绪或不存在时返回 false，调用方不应再重投。
+     */
+    public boolean resetForReplay(Long versionId) {
+        if (versionId == null) {
+            return false;
+        }
+        int updated = reviewVersionMapper.update(null, new LambdaUpdateWrapper<ReviewVersion>()
+                .eq(ReviewVersion::getId, versionId)
+                .ne(ReviewVersion::getFilesReady, 1)
+                .set(ReviewVersion::getFilesReady, 0)
+                .set(ReviewVersion::getUpdateTime, LocalDateTime.now())
+                .setSql("lock_version = lock_version + 1"));
+        if (updated > 0) {
+            ReviewVersion version = reviewVersionMapper.selectById(versionId);
+            detailCacheSupport.invalidate(version == null ? null : version.getTaskId(), versionId);
+        }
+        return updated > 0;
     }
 
     /**
      * 复制失败时更新状态，供前端提示。
+     * 始终在独立事务中执行：投递失败时由外层事务的 afterCommit 调用，此时外层事务已提交，
+     * 加入它会使更新依赖连接的自动提交，缓存失效与事件的提交后回调也不会触发。
      */
-    @Transactional(rollbackFor = Exception.class)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
     public void markCopyFailed(Long versionId) {
-        reviewVersionMapper.update(null, new LambdaUpdateWrapper<ReviewVersion>()
+        // 已就绪的版本说明复制已由重复投递的消息完成，不再降级
+        int updated = reviewVersionMapper.update(null, new LambdaUpdateWrapper<ReviewVersion>()
                 .eq(ReviewVersion::getId, versionId)
+                .ne(ReviewVersion::getFilesReady, 1)
                 .set(ReviewVersion::getFilesReady, -1)
-                .set(ReviewVersion::getUpdateTime, LocalDateTime.now()));
+                .set(ReviewVersion::getUpdateTime, LocalDateTime.now())
+                .setSql("lock_version = lock_version + 1"));
+        if (updated == 0) {
+            return;
+        }
+        ReviewVersion version = reviewVersionMapper.selectById(versionId);
+        detailCacheSupport.invalidate(version == null ? null : version.getTaskId(), versionId);
+        if (version != null) {
+            notifyCreator(version.getTaskId(), versionId, UserEventMessage.VERSION_COPY_FAILED, -1, version.getFileCount());
+        }
+    }
+
+    /**
+     * 通知任务创建者版本文件状态变化，前端据此停止等待。
+     */
+    private void notifyCreator(Long taskId, Long versionId, String type, Integer filesReady, Integer fileCount) {
+        ReviewTask task = taskId == null ? null : reviewTaskMapper.selectById(taskId);
+        if (task == null) {
+            return;
+        }
+        UserEventMessage event = new UserEventMessage(type, task.getCreatorId(), task.getTenantId(), taskId, versionId);
+        event.setFilesReady(filesReady);
+        event.setFileCount(fileCount);
+        userEventPublisher.publish(event);
     }
 }
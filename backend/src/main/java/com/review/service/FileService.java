@@ -12,7 +12,11 @@ import com.review.entity.ReviewVersion;
 import com.review.entity.Tenant;
 import com.review.mapper.ReviewFileMapper;
 import com.review.mapper.ReviewVersionMapper;
+import com.review.mapper.TaskArchiveMapper;
 import com.review.mapper.TenantMapper;
+import com.review.service.support.DetailCacheSupport;
+import com.review.service.support.EntityLoader;
+import com.review.service.support.TaskListProjector;
 import com.review.utils.MinioUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -52,6 +56,18 @@ public class FileService {
     @Autowired
     private MinioUtil minioUtil;
 
+    @Autowired
+    private TaskListProjector taskListProjector;
+
+    @Autowired
+    private DetailCacheSupport detailCacheSupport;
+
+    @Autowired
+    private EntityLoader entityLoader;
+
+    @Autowired
+    private TaskArchiveMapper taskArchiveMapper;
+
     /**
      * 检查 MD5 是否已存在。
      */
@@ -60,10 +76,7 @@ public class FileService {
             throw new BusinessException("MD5 参数不能为空");
         }
         Long tenantId = currentTenantId();
-        ReviewFile file = reviewFileMapper.selectOne(new LambdaQueryWrapper<ReviewFile>()
-                .eq(ReviewFile::getTenantId, tenantId)
-                .eq(ReviewFile::getFileMd5, md5)
-                .last("LIMIT 1"));
+        ReviewFile file = findByMd5(tenantId, md5);
         if (file == null) {
             return new FileExistsResponse(false, null);
         }
@@ -86,10 +99,7 @@ public class FileService {
             throw new BusinessException("该版本下已存在同名文件");
         }
 
-        ReviewFile existing = reviewFileMapper.selectOne(new LambdaQueryWrapper<ReviewFile>()
-                .eq(ReviewFile::getTenantId, tenantId)
-                .eq(ReviewFile::getFileMd5, md5)
-                .last("LIMIT 1"));
+        ReviewFile existing = findByMd5(tenantId, md5);
 
         boolean newUpload = existing == null;
         String objectName = newUpload ? String.format("%d/%s", tenantId, md5) : existing.getMinioObjectName();
@@ -121,6 +131,7 @@ public class FileService {
         reviewFileMapper.insert(reviewFile);
 
         updateVersionFileCount(version.getId(), 1);
+        detailCacheSupport.invalidate(version.getTaskId(), version.getId());
 
         return new FileUploadResponse(reviewFile.getId(), reviewFile.getFileName(), reviewFile.getFileSize(), newUpload);
     }
@@ -133,11 +144,16 @@ public class FileService {
             throw new BusinessException("版本 ID 不能为空");
         }
         Long tenantId = currentTenantId();
-        loadVersion(versionId, tenantId);
-        return reviewFileMapper.selectList(new LambdaQueryWrapper<ReviewFile>()
+        ReviewVersion version = entityLoader.versionIncludingArchived(versionId);
+        if (version == null || !tenantId.equals(version.getTenantId())) {
+            throw new BusinessException("版本不存在或无权访问");
+        }
+        List<ReviewFile> files = Boolean.TRUE.equals(version.getArchived())
+                ? taskArchiveMapper.selectFilesByVersion(versionId)
+                : reviewFileMapper.selectList(new LambdaQueryWrapper<ReviewFile>()
                         .eq(ReviewFile::getVersionId, versionId)
-                        .orderByDesc(ReviewFile::getCreateTime))
-                .stream()
+                        .orderByDesc(ReviewFile::getCreateTime));
+        return files.stream()
                 .map(file -> new FileInfoResponse(
                         file.getId(),
                         file.getFileName(),
@@ -163,11 +179,29 @@ public class FileService {
         return file;
     }
 
+    /**
+     * 只读访问（预览、下载）：热表不存在时回查归档文件。
+     */
+    private ReviewFile loadReadableFile(Long fileId) {
+        if (fileId == null) {
+            throw new BusinessException("文件 ID 不能为空");
+        }
+        Long tenantId = currentTenantId();
+        ReviewFile file = reviewFileMapper.selectById(fileId);
+        if (file == null) {
+            file = taskArchiveMapper.selectFile(fileId);
+        }
+        if (file == null || !tenantId.equals(file.getTenantId())) {
+            throw new BusinessException("文件不存在或无权访问");
+        }
+        return file;
+    }
+
     /**
      * 生成预览链接。
      */
     public String generatePreviewUrl(Long fileId) {
-        ReviewFile file = loadFile(fileId);
+        ReviewFile file = loadReadableFile(fileId);
         return minioUtil.generatePresignedUrl(file.getMinioObjectName(), (int) PREVIEW_EXPIRE);
     }
 
@@ -178,11 +212,16 @@ public class FileService {
         ReviewFile file = loadFile(fileId);
         reviewFileMapper.deleteById(fileId);
         updateVersionFileCount(file.getVersionId(), -1);
+        ReviewVersion version = entityLoader.version(file.getVersionId());
+        detailCacheSupport.invalidate(version == null ? null : version.getTaskId(), file.getVersionId());
 
+        // 对象名由租户与 MD5 生成，带上 MD5 条件以命中 idx_file_md5
         Long refCount = reviewFileMapper.selectCount(new LambdaQueryWrapper<ReviewFile>()
                 .eq(ReviewFile::getTenantId, file.getTenantId())
+                .eq(ReviewFile::getFileMd5, file.getFileMd5())
                 .eq(ReviewFile::getMinioObjectName, file.getMinioObjectName()));
-        if (refCount != null && refCount == 0) {
+        if (refCount != null && refCount == 0
+                && taskArchiveMapper.countFileReferences(file.getTenantId(), file.getFileMd5(), file.getMinioObjectName()) == 0) {
             minioUtil.remove(file.getMinioObjectName());
             tenantMapper.decreaseStorageUsed(file.getTenantId(), file.getFileSize());
         }
@@ -192,7 +231,7 @@ public class FileService {
      * 下载文件。
      */
     public Map<String, Object> downloadFile(Long fileId) {
-        ReviewFile file = loadFile(fileId);
+        ReviewFile file = loadReadableFile(fileId);
         InputStream inputStream = minioUtil.download(file.getMinioObjectName());
         String encodedName;
         try {
@@ -231,8 +270,19 @@ public class FileService {
         }
     }
 
+    /**
+     * 按 MD5 查找可复用的对象，热表未命中时再查归档文件。
+     */
+    private ReviewFile findByMd5(Long tenantId, String md5) {
+        ReviewFile file = reviewFileMapper.selectOne(new LambdaQueryWrapper<ReviewFile>()
+                .eq(ReviewFile::getTenantId, tenantId)
+                .eq(ReviewFile::getFileMd5, md5)
+                .last("LIMIT 1"));
+        return file != null ? file : taskArchiveMapper.selectFileByMd5(tenantId, md5);
+    }
+
     private ReviewVersion loadVersion(Long versionId, Long tenantId) {
-        ReviewVersion version = reviewVersionMapper.selectById(versionId);
+        ReviewVersion version = entityLoader.version(versionId);
         if (version == null || !tenantId.equals(version.getTenantId())) {
             throw new BusinessException("版本不存在或无权访问");
         }
@@ -242,8 +292,11 @@ public class FileService {
     private void updateVersionFileCount(Long versionId, int delta) {
         LambdaUpdateWrapper<ReviewVersion> updateWrapper = new LambdaUpdateWrapper<>();
         updateWrapper.eq(ReviewVersion::getId, versionId)
-                .setSql("file_count = GREATEST(COALESCE(file_count,0) + (" + delta + "), 0)");
+                .setSql("file_count = GREATEST(COALESCE(file_count,0) + (" + delta + "), 0)")
+                .setSql("lock_version = lock_version + 1");
         reviewVersionMapper.update(null, updateWrapper);
+        entityLoader.forget(ReviewVersion.class, versionId);
+        taskListProjector.refreshVersion(versionId);
     }
 
     private Long currentTenantId() {
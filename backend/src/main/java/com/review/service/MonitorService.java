@@ -5,17 +5,23 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.review.config.RabbitConfig;
 import com.review.dto.CacheMonitorResponse;
 import com.review.dto.QueueMonitorResponse;
+import com.review.mq.CopyConsumerAutoscaler;
+import com.review.mq.embedded.EmbeddedFileCopyQueue;
+import com.review.service.support.NearCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.util.CollectionUtils;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.UnsupportedEncodingException;
@@ -27,7 +33,6 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
-import java.util.Set;
 
 /**
  * 监控相关服务：队列与缓存状态。
@@ -36,10 +41,16 @@ import java.util.Set;
 @RequiredArgsConstructor
 public class MonitorService {
 
+    private static final int HOT_KEY_LIMIT = 8;
+    private static final long SCAN_BATCH_SIZE = 200;
+
     private final RedisTemplate<String, Object> redisTemplate;
     private final RedisConnectionFactory redisConnectionFactory;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final ObjectProvider<EmbeddedFileCopyQueue> embeddedQueueProvider;
+    private final ObjectProvider<CopyConsumerAutoscaler> autoscalerProvider;
+    private final NearCache nearCache;
 
     @Value("${monitor.rabbitmq.api-url:http://localhost:15672/api}")
     private String rabbitApiUrl;
@@ -55,8 +66,19 @@ public class MonitorService {
 
     public QueueMonitorResponse loadQueueMetrics() {
         QueueMonitorResponse response = new QueueMonitorResponse();
-        response.setMainQueue(fetchQueueInfo(RabbitConfig.FILE_COPY_QUEUE));
-        response.setDlxQueue(fetchQueueInfo(RabbitConfig.FILE_COPY_DLX_QUEUE));
+        EmbeddedFileCopyQueue embeddedQueue = embeddedQueueProvider.getIfAvailable();
+        if (embeddedQueue != null) {
+            response.setMainQueue(embeddedQueue.mainQueueInfo());
+            response.setDlxQueue(embeddedQueue.deadLetterQueueInfo());
+        } else {
+            response.setMainQueue(fetchQueueInfo(RabbitConfig.FILE_COPY_QUEUE));
+            response.setLargeQueue(fetchQueueInfo(RabbitConfig.FILE_COPY_LARGE_QUEUE));
+            response.setDlxQueue(fetchQueueInfo(RabbitConfig.FILE_COPY_DLX_QUEUE));
+        }
+        CopyConsumerAutoscaler autoscaler = autoscalerProvider.getIfAvailable();
+        if (autoscaler != null) {
+            response.setAutoscale(autoscaler.snapshot());
+        }
         response.setGeneratedAt(LocalDateTime.now());
         response.setAlertLevel(resolveAlertLevel(response));
         response.setAlertMessage(buildAlertMessage(response));
@@ -79,6 +101,7 @@ public class MonitorService {
             response.setTotalKeys(connection.dbSize());
         }
         response.setHotKeys(sampleHotKeys());
+        response.setTiers(nearCache.tierStats());
         response.setGeneratedAt(LocalDateTime.now());
         return response;
     }
@@ -113,6 +136,10 @@ public class MonitorService {
             backlog += response.getMainQueue().getReady();
             backlog += response.getMainQueue().getUnacked();
         }
+        if (response.getLargeQueue() != null) {
+            backlog += response.getLargeQueue().getReady();
+            backlog += response.getLargeQueue().getUnacked();
+        }
         if (backlog > 500) {
             return "danger";
         }
@@ -133,29 +160,54 @@ public class MonitorService {
         return "队列运行稳定";
     }
 
+    /**
+     * 以 SCAN 游标分批遍历代替 KEYS，采满即停；TTL 通过一次管道批量取回。
+     */
     private List<CacheMonitorResponse.CacheKeySnapshot> sampleHotKeys() {
         if (redisTemplate == null) {
             return Collections.emptyList();
         }
-        List<CacheMonitorResponse.CacheKeySnapshot> snapshots = new ArrayList<>();
+        List<String> keys = new ArrayList<>(HOT_KEY_LIMIT);
         for (String pattern : Arrays.asList("stat:*", "options:reviewers:*")) {
-            Set<String> keys = redisTemplate.keys(pattern);
-            if (CollectionUtils.isEmpty(keys)) {
-                continue;
+            if (keys.size() >= HOT_KEY_LIMIT) {
+                break;
             }
+            keys.addAll(scanKeys(pattern, HOT_KEY_LIMIT - keys.size()));
+        }
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Object> ttls = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
             for (String key : keys) {
-                CacheMonitorResponse.CacheKeySnapshot snapshot = new CacheMonitorResponse.CacheKeySnapshot();
-                snapshot.setKey(key);
-                snapshot.setTtlSeconds(redisTemplate.getExpire(key));
-                snapshots.add(snapshot);
-                if (snapshots.size() >= 8) {
-                    return snapshots;
-                }
+                connection.keyCommands().ttl(key.getBytes(StandardCharsets.UTF_8));
             }
+            return null;
+        });
+        List<CacheMonitorResponse.CacheKeySnapshot> snapshots = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Object ttl = i < ttls.size() ? ttls.get(i) : null;
+            CacheMonitorResponse.CacheKeySnapshot snapshot = new CacheMonitorResponse.CacheKeySnapshot();
+            snapshot.setKey(keys.get(i));
+            snapshot.setTtlSeconds(ttl instanceof Number ? ((Number) ttl).longValue() : null);
+            snapshots.add(snapshot);
         }
         return snapshots;
     }
 
+    private List<String> scanKeys(String pattern, int limit) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(SCAN_BATCH_SIZE).build();
+        List<String> keys = redisTemplate.execute((RedisCallback<List<String>>) connection -> {
+            List<String> matched = new ArrayList<>(limit);
+            try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                while (cursor.hasNext() && matched.size() < limit) {
+                    matched.add(new String(cursor.next(), StandardCharsets.UTF_8));
+                }
+            }
+            return matched;
+        });
+        return keys == null ? Collections.<String>emptyList() : keys;
+    }
+
     private long parseLong(String value) {
         if (value == null) {
             return 0L;
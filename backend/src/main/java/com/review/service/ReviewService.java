@@ -1,25 +1,42 @@
 package com.review.service;
 
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.review.common.BusinessException;
 import com.review.common.UserContext;
+import com.review.dto.DetailCacheEntry;
 import com.review.dto.FileInfoResponse;
 import com.review.dto.ReviewActionRequest;
+import com.review.dto.ReviewBatchRequest;
+import com.review.dto.ReviewBatchResponse;
 import com.review.dto.ReviewDetailResponse;
+import com.review.dto.UserEventMessage;
 import com.review.entity.ReviewTask;
 import com.review.entity.ReviewVersion;
 import com.review.entity.User;
 import com.review.mapper.ReviewTaskMapper;
 import com.review.mapper.ReviewVersionMapper;
-import com.review.mapper.UserMapper;
-import com.review.service.support.TaskCacheSupport;
+import com.review.mapper.TaskArchiveMapper;
+import com.review.service.support.DetailCacheSupport;
+import com.review.service.support.EntityLoader;
+import com.review.service.support.OptimisticRetry;
+import com.review.service.support.TaskListProjector;
+import com.review.service.support.TaskStatCounter;
+import com.review.service.support.UserEventPublisher;
 import com.review.utils.RoleUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * 审查操作相关业务。
@@ -38,22 +55,45 @@ public class ReviewService {
     private ReviewVersionMapper reviewVersionMapper;
 
     @Autowired
-    private UserMapper userMapper;
+    private FileService fileService;
 
     @Autowired
-    private FileService fileService;
+    private TaskStatCounter taskStatCounter;
+
+    @Autowired
+    private TaskListProjector taskListProjector;
+
+    @Autowired
+    private DetailCacheSupport detailCacheSupport;
+
+    @Autowired
+    private EntityLoader entityLoader;
 
     @Autowired
-    private TaskCacheSupport taskCacheSupport;
+    private UserEventPublisher userEventPublisher;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private TaskArchiveMapper taskArchiveMapper;
 
     /**
      * 获取审查详情。
      */
     public ReviewDetailResponse getReviewDetail(Long versionId) {
         Long tenantId = ensureTenant();
-        ReviewVersion version = loadVersion(versionId, tenantId);
-        ReviewTask task = loadTask(version.getTaskId(), tenantId);
+        DetailCacheEntry cached = detailCacheSupport.readReviewDetail(versionId);
+        if (cached != null && cached.getPayload() instanceof ReviewDetailResponse
+                && tenantId.equals(cached.getTenantId())) {
+            ensureReviewerAccess(toAccessTask(cached));
+            return (ReviewDetailResponse) cached.getPayload();
+        }
+        long generation = detailCacheSupport.versionGeneration(versionId);
+        ReviewVersion version = loadVersionIncludingArchived(versionId, tenantId);
+        ReviewTask task = loadTaskIncludingArchived(version.getTaskId(), tenantId);
         ensureReviewerAccess(task);
+        entityLoader.users(Arrays.asList(task.getCreatorId(), task.getReviewerId()));
 
         ReviewDetailResponse detail = new ReviewDetailResponse();
         detail.setTaskId(task.getId());
@@ -69,23 +109,123 @@ public class ReviewService {
         detail.setReviewer(toRelation(loadUser(task.getReviewerId())));
         detail.setFiles(fileService.listFiles(versionId));
         detail.setPreviousVersion(buildPreviousVersion(task, version));
+        detailCacheSupport.writeReviewDetail(versionId, generation,
+                new DetailCacheEntry(tenantId, task.getCreatorId(), task.getReviewerId(), detail));
         return detail;
     }
 
     /**
      * 审查通过。
      */
-    @Transactional(rollbackFor = Exception.class)
     public void approve(Long versionId, ReviewActionRequest request) {
-        handleReview(versionId, request, STATUS_APPROVED);
+        optimisticRetry.run(() -> handleReview(versionId, request, STATUS_APPROVED));
     }
 
     /**
      * 审查打回。
      */
-    @Transactional(rollbackFor = Exception.class)
     public void reject(Long versionId, ReviewActionRequest request) {
-        handleReview(versionId, request, STATUS_REJECTED);
+        optimisticRetry.run(() -> handleReview(versionId, request, STATUS_REJECTED));
+    }
+
+    /**
+     * 批量审查：一次查询加载并校验全部版本，校验通过的版本与任务各用一条 UPDATE ... WHERE id IN 更新，
+     * 读模型、详情缓存与统计计数在事务内合并处理一次；未通过校验的版本逐项返回原因，不影响其余版本。
+     * 并发修改导致行数不符时整体重试，重读后已被处理的版本转为逐项失败。
+     */
+    public ReviewBatchResponse batchReview(ReviewBatchRequest request) {
+        return optimisticRetry.execute(() -> doBatchReview(request));
+    }
+
+    private ReviewBatchResponse doBatchReview(ReviewBatchRequest request) {
+        Long tenantId = ensureTenant();
+        String targetStatus = request.getDecision();
+        Set<Long> versionIds = new LinkedHashSet<>(request.getVersionIds());
+        Map<Long, ReviewVersion> versions = entityLoader.versions(versionIds);
+        entityLoader.tasks(versions.values().stream().map(ReviewVersion::getTaskId).collect(Collectors.toSet()));
+
+        ReviewBatchResponse response = new ReviewBatchResponse();
+        Map<Long, Long> versionIdByTaskId = new LinkedHashMap<>();
+        List<ReviewTask> tasks = new ArrayList<>();
+        for (Long versionId : versionIds) {
+            ReviewBatchResponse.ItemResult item = new ReviewBatchResponse.ItemResult();
+            item.setVersionId(versionId);
+            try {
+                ReviewVersion version = loadVersion(versionId, tenantId);
+                ReviewTask task = loadTask(version.getTaskId(), tenantId);
+                ensureReviewerAccess(task);
+                ensureVersionReviewable(version);
+                if (versionIdByTaskId.containsKey(task.getId())) {
+                    throw new BusinessException("同一任务只能审查一个版本");
+                }
+                versionIdByTaskId.put(task.getId(), versionId);
+                tasks.add(task);
+                item.setSuccess(true);
+            } catch (BusinessException ex) {
+                item.setSuccess(false);
+                item.setMessage(ex.getMessage());
+            }
+            response.getItems().add(item);
+        }
+        response.setSuccessCount(tasks.size());
+        response.setFailureCount(versionIds.size() - tasks.size());
+        if (tasks.isEmpty()) {
+            return response;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        String comment = request.getComment() == null ? null : request.getComment().trim();
+        ReviewVersion versionPatch = new ReviewVersion();
+        versionPatch.setStatus(targetStatus);
+        versionPatch.setReviewResult(targetStatus);
+        versionPatch.setReviewComment(StringUtils.hasText(comment) ? comment : null);
+        versionPatch.setReviewTime(now);
+        versionPatch.setReviewerId(ensureUser());
+        // 以 REVIEWING 作为更新条件，并发审查导致行数不符时回滚本次尝试并重新校验
+        int updated = reviewVersionMapper.update(versionPatch, new LambdaUpdateWrapper<ReviewVersion>()
+                .setSql("lock_version = lock_version + 1")
+                .in(ReviewVersion::getId, versionIdByTaskId.values())
+                .eq(ReviewVersion::getStatus, STATUS_REVIEWING));
+        if (updated != tasks.size()) {
+            throw OptimisticRetry.conflict();
+        }
+        ReviewTask taskPatch = new ReviewTask();
+        taskPatch.setCurrentStatus(targetStatus);
+        updated = reviewTaskMapper.update(taskPatch, new LambdaUpdateWrapper<ReviewTask>()
+                .setSql("lock_version = lock_version + 1")
+                .in(ReviewTask::getId, versionIdByTaskId.keySet())
+                .eq(ReviewTask::getCurrentStatus, STATUS_REVIEWING));
+        if (updated != tasks.size()) {
+            throw OptimisticRetry.conflict();
+        }
+
+        Map<Long, String> previousStatus = new HashMap<>(tasks.size() * 2);
+        for (ReviewTask task : tasks) {
+            previousStatus.put(task.getId(), task.getCurrentStatus());
+            task.setCurrentStatus(targetStatus);
+            task.setLockVersion(nextLockVersion(task.getLockVersion()));
+            ReviewVersion version = versions.get(versionIdByTaskId.get(task.getId()));
+            version.setLockVersion(nextLockVersion(version.getLockVersion()));
+            version.setStatus(targetStatus);
+            version.setReviewResult(targetStatus);
+            version.setReviewComment(versionPatch.getReviewComment());
+            version.setReviewTime(now);
+            version.setReviewerId(versionPatch.getReviewerId());
+        }
+        taskListProjector.refreshTasks(versionIdByTaskId.keySet());
+        detailCacheSupport.invalidateAll(versionIdByTaskId);
+        Map<String, List<ReviewTask>> tasksByPreviousStatus = tasks.stream()
+                .collect(Collectors.groupingBy(task -> previousStatus.get(task.getId())));
+        tasksByPreviousStatus.forEach((fromStatus, group) ->
+                taskStatCounter.onTransitions(group, fromStatus, targetStatus));
+
+        for (ReviewTask task : tasks) {
+            UserEventMessage event = new UserEventMessage(UserEventMessage.REVIEW_DECIDED, task.getCreatorId(),
+                    tenantId, task.getId(), versionIdByTaskId.get(task.getId()));
+            event.setStatus(targetStatus);
+            userEventPublisher.publish(event);
+        }
+        return response;
     }
 
     private void handleReview(Long versionId, ReviewActionRequest request, String targetStatus) {
@@ -95,28 +235,67 @@ public class ReviewService {
         ensureReviewerAccess(task);
         ensureVersionReviewable(version);
 
+        // 只写变化的字段，以读取时的状态与 lock_version 作为条件；影响行数为 0 说明已被并发修改
         LocalDateTime now = LocalDateTime.now();
+        ReviewVersion versionPatch = new ReviewVersion();
+        versionPatch.setStatus(targetStatus);
+        versionPatch.setReviewResult(targetStatus);
+        versionPatch.setReviewComment(formatComment(request));
+        versionPatch.setReviewTime(now);
+        versionPatch.setReviewerId(task.getReviewerId());
+        versionPatch.setLockVersion(version.getLockVersion());
+        if (reviewVersionMapper.update(versionPatch, new LambdaUpdateWrapper<ReviewVersion>()
+                .eq(ReviewVersion::getId, version.getId())
+                .eq(ReviewVersion::getStatus, STATUS_REVIEWING)) == 0) {
+            throw OptimisticRetry.conflict();
+        }
+
+        String previousStatus = task.getCurrentStatus();
+        ReviewTask taskPatch = new ReviewTask();
+        taskPatch.setCurrentStatus(targetStatus);
+        taskPatch.setLockVersion(task.getLockVersion());
+        if (reviewTaskMapper.update(taskPatch, new LambdaUpdateWrapper<ReviewTask>()
+                .eq(ReviewTask::getId, task.getId())
+                .eq(ReviewTask::getCurrentStatus, previousStatus)) == 0) {
+            throw OptimisticRetry.conflict();
+        }
+        // 乐观锁插件已把递增后的版本号写回补丁对象，同步到请求内记忆的实体
         version.setStatus(targetStatus);
         version.setReviewResult(targetStatus);
-        version.setReviewComment(formatComment(request));
+        version.setReviewComment(versionPatch.getReviewComment());
         version.setReviewTime(now);
-        version.setReviewerId(task.getReviewerId());
-        reviewVersionMapper.updateById(version);
-
+        version.setReviewerId(versionPatch.getReviewerId());
+        version.setLockVersion(versionPatch.getLockVersion());
         task.setCurrentStatus(targetStatus);
-        reviewTaskMapper.updateById(task);
-        taskCacheSupport.evictStatistics(tenantId, task.getCreatorId(), task.getReviewerId());
+        task.setLockVersion(taskPatch.getLockVersion());
+        taskListProjector.refreshTask(task.getId());
+        detailCacheSupport.invalidate(task.getId(), version.getId());
+        taskStatCounter.onTransition(tenantId, task.getCreatorId(), task.getReviewerId(),
+                previousStatus, targetStatus, task.getCreateTime());
+
+        UserEventMessage event = new UserEventMessage(UserEventMessage.REVIEW_DECIDED, task.getCreatorId(),
+                tenantId, task.getId(), version.getId());
+        event.setStatus(targetStatus);
+        userEventPublisher.publish(event);
+    }
+
+    private Integer nextLockVersion(Integer lockVersion) {
+        return lockVersion == null ? null : lockVersion + 1;
     }
 
     private ReviewDetailResponse.PreviousVersionInfo buildPreviousVersion(ReviewTask task, ReviewVersion current) {
         if (current.getVersionNumber() == null || current.getVersionNumber() <= 1) {
             return null;
         }
-        ReviewVersion previous = reviewVersionMapper.selectOne(
-                new com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper<ReviewVersion>()
-                        .eq(ReviewVersion::getTaskId, task.getId())
-                        .eq(ReviewVersion::getVersionNumber, current.getVersionNumber() - 1)
-                        .last("LIMIT 1"));
+        // 放弃的版本号分配会留下空洞，上一版本取版本号更小的最近一个
+        ReviewVersion previous = Boolean.TRUE.equals(current.getArchived())
+                ? taskArchiveMapper.selectPreviousVersion(task.getId(), current.getVersionNumber())
+                : reviewVersionMapper.selectOne(
+                        new com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper<ReviewVersion>()
+                                .eq(ReviewVersion::getTaskId, task.getId())
+                                .lt(ReviewVersion::getVersionNumber, current.getVersionNumber())
+                                .orderByDesc(ReviewVersion::getVersionNumber)
+                                .last("LIMIT 1"));
         if (previous == null) {
             return null;
         }
@@ -156,6 +335,14 @@ public class ReviewService {
         }
     }
 
+    private ReviewTask toAccessTask(DetailCacheEntry entry) {
+        ReviewTask task = new ReviewTask();
+        task.setTenantId(entry.getTenantId());
+        task.setCreatorId(entry.getCreatorId());
+        task.setReviewerId(entry.getReviewerId());
+        return task;
+    }
+
     private void ensureReviewerAccess(ReviewTask task) {
         Long userId = ensureUser();
         if (!userId.equals(task.getReviewerId())) {
@@ -167,7 +354,7 @@ public class ReviewService {
     }
 
     private ReviewTask loadTask(Long taskId, Long tenantId) {
-        ReviewTask task = reviewTaskMapper.selectById(taskId);
+        ReviewTask task = entityLoader.task(taskId);
         if (task == null || !tenantId.equals(task.getTenantId())) {
             throw new BusinessException("任务不存在或无权访问");
         }
@@ -175,7 +362,26 @@ public class ReviewService {
     }
 
     private ReviewVersion loadVersion(Long versionId, Long tenantId) {
-        ReviewVersion version = reviewVersionMapper.selectById(versionId);
+        ReviewVersion version = entityLoader.version(versionId);
+        if (version == null || !tenantId.equals(version.getTenantId())) {
+            throw new BusinessException("版本不存在或无权访问");
+        }
+        return version;
+    }
+
+    /**
+     * 审查详情只读查看，热表不存在时回查归档表。
+     */
+    private ReviewTask loadTaskIncludingArchived(Long taskId, Long tenantId) {
+        ReviewTask task = entityLoader.taskIncludingArchived(taskId);
+        if (task == null || !tenantId.equals(task.getTenantId())) {
+            throw new BusinessException("任务不存在或无权访问");
+        }
+        return task;
+    }
+
+    private ReviewVersion loadVersionIncludingArchived(Long versionId, Long tenantId) {
+        ReviewVersion version = entityLoader.versionIncludingArchived(versionId);
         if (version == null || !tenantId.equals(version.getTenantId())) {
             throw new BusinessException("版本不存在或无权访问");
         }
@@ -186,7 +392,7 @@ public class ReviewService {
         if (userId == null) {
             return null;
         }
-        return userMapper.selectById(userId);
+        return entityLoader.user(userId);
     }
 
     private Long ensureTenant() {
@@ -5,6 +5,8 @@ import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.review.common.BusinessException;
 import com.review.common.UserContext;
+import com.review.dto.CursorPageResponse;
+import com.review.dto.DetailCacheEntry;
 import com.review.dto.ReviewerOptionResponse;
 import com.review.dto.ResubmitInitRequest;
 import com.review.dto.ResubmitInitResponse;
@@ -17,36 +19,65 @@ import com.review.dto.TaskListQueryRequest;
 import com.review.dto.TaskStatisticResponse;
 import com.review.dto.TaskTimelineNode;
 import com.review.dto.TaskVersionResponse;
+import com.review.dto.UserEventMessage;
+import com.review.dto.VersionAllocation;
 import com.review.dto.VersionStatusResponse;
 import com.review.entity.ReviewTask;
 import com.review.entity.ReviewVersion;
 import com.review.entity.ReviewFile;
+import com.review.entity.TaskListView;
 import com.review.entity.User;
 import com.review.mapper.ReviewTaskMapper;
 import com.review.mapper.ReviewVersionMapper;
 import com.review.mapper.UserMapper;
 import com.review.mapper.ReviewFileMapper;
+import com.review.mapper.TaskArchiveMapper;
+import com.review.mapper.TaskListViewMapper;
+import com.review.mq.FileCopyJobQueue;
+import com.review.mq.FileCopyMessage;
+import com.review.service.support.DetailCacheSupport;
+import com.review.service.support.EntityLoader;
+import com.review.service.support.OptimisticRetry;
+import com.review.service.support.ReviewerAssigner;
 import com.review.service.support.TaskCacheSupport;
+import com.review.service.support.TaskListProjector;
+import com.review.service.support.TaskStatCounter;
+import com.review.service.support.UserEventPublisher;
+import com.review.utils.CsvUtil;
+import com.review.utils.KeywordUtil;
 import com.review.utils.RoleUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.StringUtils;
 
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * 审查任务相关业务。
@@ -59,8 +90,13 @@ public class TaskService {
     private static final String STATUS_APPROVED = "APPROVED";
     private static final String STATUS_REJECTED = "REJECTED";
     private static final Duration REVIEWER_OPTION_TTL = Duration.ofMinutes(10);
-    private static final Duration STAT_TTL = Duration.ofSeconds(60);
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+    private static final String[] EXPORT_HEADERS = {"任务ID", "任务名称", "当前状态", "当前版本", "文件数",
+            "创建人", "创建人手机", "审查员", "审查员手机", "版本提交时间", "创建时间", "更新时间"};
+    private static final DateTimeFormatter EXPORT_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String ARCHIVED_READ_ONLY = "任务已归档，仅支持查看";
     private static final Duration MISS_TTL = Duration.ofSeconds(30);
+    private static final Duration LIST_TOTAL_TTL = Duration.ofSeconds(60);
 
     @Autowired
     private ReviewTaskMapper reviewTaskMapper;
@@ -77,7 +113,41 @@ public class TaskService {
     @Autowired
     private TaskCacheSupport taskCacheSupport;
 
-    private final ExecutorService copyExecutor = Executors.newCachedThreadPool();
+    @Autowired
+    private TaskStatCounter taskStatCounter;
+
+    @Autowired
+    private TaskListViewMapper taskListViewMapper;
+
+    @Autowired
+    private TaskListProjector taskListProjector;
+
+    @Autowired
+    private DetailCacheSupport detailCacheSupport;
+
+    @Autowired
+    private EntityLoader entityLoader;
+
+    @Autowired
+    private ReviewerAssigner reviewerAssigner;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Autowired
+    private TaskArchiveMapper taskArchiveMapper;
+
+    @Autowired
+    private FileAsyncService fileAsyncService;
+
+    @Autowired
+    private FileCopyJobQueue fileCopyJobQueue;
+
+    @Autowired
+    private UserEventPublisher userEventPublisher;
 
     /**
      * 创建审查任务（默认生成版本 v1）。
@@ -90,13 +160,13 @@ public class TaskService {
 
         String trimmedName = request.getTaskName().trim();
         ensureTaskNameUnique(tenantId, trimmedName, null);
-        User reviewer = loadReviewer(tenantId, request.getReviewerId());
+        User reviewer = loadReviewer(tenantId, resolveReviewerId(tenantId, creatorId, request));
 
         ReviewTask task = new ReviewTask();
         task.setTenantId(tenantId);
         task.setTaskName(trimmedName);
         task.setCreatorId(creatorId);
-        task.setReviewerId(request.getReviewerId());
+        task.setReviewerId(reviewer.getId());
         task.setCurrentVersion(1);
         task.setCurrentStatus(STATUS_REVIEWING);
         reviewTaskMapper.insert(task);
@@ -111,9 +181,11 @@ public class TaskService {
         version.setFilesReady(1);
         version.setFileCount(0);
         reviewVersionMapper.insert(version);
-        taskCacheSupport.evictStatistics(tenantId, creatorId, reviewer.getId());
+        taskListProjector.refreshTask(task.getId());
+        taskStatCounter.onCreated(tenantId, creatorId, reviewer.getId(), task.getCreateTime());
+        publishAssigned(task, version);
 
-        return new TaskCreateResponse(task.getId(), version.getId());
+        return new TaskCreateResponse(task.getId(), version.getId(), reviewer.getId());
     }
 
     /**
@@ -121,18 +193,17 @@ public class TaskService {
      */
     public List<ReviewerOptionResponse> listReviewers() {
         Long tenantId = ensureTenant();
-        String cacheKey = taskCacheSupport.reviewerOptionKey(tenantId);
-        @SuppressWarnings("unchecked")
-        List<ReviewerOptionResponse> cached = (List<ReviewerOptionResponse>) taskCacheSupport.read(cacheKey);
-        if (cached != null) {
-            return cached;
-        }
+        return taskCacheSupport.load(taskCacheSupport.reviewerOptionKey(tenantId), REVIEWER_OPTION_TTL,
+                () -> loadReviewerOptions(tenantId));
+    }
+
+    private List<ReviewerOptionResponse> loadReviewerOptions(Long tenantId) {
         List<User> candidates = userMapper.selectList(new LambdaQueryWrapper<User>()
                 .eq(User::getTenantId, tenantId)
                 .eq(User::getStatus, 1)
                 .orderByDesc(User::getLastLoginTime)
                 .orderByAsc(User::getId));
-        List<ReviewerOptionResponse> responses = candidates.stream()
+        return candidates.stream()
                 .filter(user -> RoleUtil.hasRole(user.getRoles(), "REVIEWER"))
                 .map(user -> new ReviewerOptionResponse(
                         user.getId(),
@@ -143,29 +214,86 @@ public class TaskService {
                         isDualRole(user.getRoles())
                 ))
                 .collect(Collectors.toList());
-        taskCacheSupport.cache(cacheKey, responses, REVIEWER_OPTION_TTL);
-        return responses;
     }
 
     /**
      * 普通用户查看我的任务。
      */
+    @Transactional(readOnly = true)
     public Page<TaskListItemResponse> queryMyTasks(TaskListQueryRequest request) {
         Long tenantId = ensureTenant();
         Long userId = ensureUser();
-        Page<ReviewTask> taskPage = selectTaskPage(tenantId, userId, null, request, false);
-        return buildTaskListPage(taskPage, true, false, false);
+        Page<TaskListView> taskPage = selectTaskPage(tenantId, userId, null, request, false);
+        Page<TaskListItemResponse> page = buildTaskListPage(taskPage, true, false, false);
+        applyHighlight(page.getRecords(), request.getKeyword());
+        return page;
     }
 
     /**
      * 审查员查看指派任务。
      */
+    @Transactional(readOnly = true)
     public Page<TaskListItemResponse> queryReviewerTasks(TaskListQueryRequest request) {
         Long tenantId = ensureTenant();
         Long userId = ensureUser();
         boolean forcePending = Boolean.TRUE.equals(request.getPendingOnly());
-        Page<ReviewTask> taskPage = selectTaskPage(tenantId, null, userId, request, forcePending);
-        return buildTaskListPage(taskPage, true, true, true);
+        Page<TaskListView> taskPage = selectTaskPage(tenantId, null, userId, request, forcePending);
+        Page<TaskListItemResponse> page = buildTaskListPage(taskPage, true, true, true);
+        applyHighlight(page.getRecords(), request.getKeyword());
+        return page;
+    }
+
+    /**
+     * 普通用户查看我的任务（游标分页，深翻页耗时恒定）。
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TaskListItemResponse> scrollMyTasks(TaskListQueryRequest request) {
+        Long tenantId = ensureTenant();
+        Long userId = ensureUser();
+        int pageSize = request.getPageSize() == null ? 10 : request.getPageSize();
+        List<TaskListView> tasks = selectTaskSlice(tenantId, userId, null, request, false, pageSize);
+        CursorPageResponse<TaskListItemResponse> page = buildCursorPage(tasks, pageSize, true, false, false);
+        applyHighlight(page.getRecords(), request.getKeyword());
+        if (Boolean.TRUE.equals(request.getWithTotal())) {
+            page.setTotal(countTasks(tenantId, userId, null, request, false));
+        }
+        return page;
+    }
+
+    /**
+     * 审查员查看指派任务（游标分页）。
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TaskListItemResponse> scrollReviewerTasks(TaskListQueryRequest request) {
+        Long tenantId = ensureTenant();
+        Long userId = ensureUser();
+        boolean forcePending = Boolean.TRUE.equals(request.getPendingOnly());
+        int pageSize = request.getPageSize() == null ? 10 : request.getPageSize();
+        List<TaskListView> tasks = selectTaskSlice(tenantId, null, userId, request, forcePending, pageSize);
+        CursorPageResponse<TaskListItemResponse> page = buildCursorPage(tasks, pageSize, true, true, true);
+        applyHighlight(page.getRecords(), request.getKeyword());
+        if (Boolean.TRUE.equals(request.getWithTotal())) {
+            page.setTotal(countTasks(tenantId, null, userId, request, forcePending));
+        }
+        return page;
+    }
+
+    /**
+     * 导出我的任务（CSV），筛选条件与列表一致。
+     */
+    public void exportMyTasks(TaskListQueryRequest request, Callable<OutputStream> target) throws Exception {
+        Long tenantId = ensureTenant();
+        Long userId = ensureUser();
+        exportTasks(tenantId, userId, null, request, false, target);
+    }
+
+    /**
+     * 审查员导出指派任务（CSV），筛选条件与列表一致。
+     */
+    public void exportReviewerTasks(TaskListQueryRequest request, Callable<OutputStream> target) throws Exception {
+        Long tenantId = ensureTenant();
+        Long userId = ensureUser();
+        exportTasks(tenantId, null, userId, request, Boolean.TRUE.equals(request.getPendingOnly()), target);
     }
 
     /**
@@ -174,14 +302,7 @@ public class TaskService {
     public TaskStatisticResponse loadMyStatistics() {
         Long tenantId = ensureTenant();
         Long userId = ensureUser();
-        String cacheKey = taskCacheSupport.userStatKey(tenantId, userId);
-        TaskStatisticResponse cached = readStatisticCache(cacheKey);
-        if (cached != null) {
-            return cached;
-        }
-        TaskStatisticResponse response = buildStatistics(tenantId, userId, null);
-        taskCacheSupport.cache(cacheKey, response, STAT_TTL);
-        return response;
+        return taskStatCounter.loadForCreator(tenantId, userId);
     }
 
     /**
@@ -190,14 +311,7 @@ public class TaskService {
     public TaskStatisticResponse loadReviewerStatistics() {
         Long tenantId = ensureTenant();
         Long userId = ensureUser();
-        String cacheKey = taskCacheSupport.reviewerStatKey(tenantId, userId);
-        TaskStatisticResponse cached = readStatisticCache(cacheKey);
-        if (cached != null) {
-            return cached;
-        }
-        TaskStatisticResponse response = buildStatistics(tenantId, null, userId);
-        taskCacheSupport.cache(cacheKey, response, STAT_TTL);
-        return response;
+        return taskStatCounter.loadForReviewer(tenantId, userId);
     }
 
     /**
@@ -205,13 +319,24 @@ public class TaskService {
      */
     public TaskDetailResponse getTaskDetail(Long taskId) {
         Long tenantId = ensureTenant();
-        ReviewTask task = loadTask(taskId, tenantId);
+        DetailCacheEntry cached = detailCacheSupport.readTaskDetail(taskId);
+        if (cached != null && cached.getPayload() instanceof TaskDetailResponse
+                && tenantId.equals(cached.getTenantId())) {
+            ensureTaskReadable(toAccessTask(cached));
+            return (TaskDetailResponse) cached.getPayload();
+        }
+        long generation = detailCacheSupport.taskGeneration(taskId);
+        ReviewTask task = loadTaskIncludingArchived(taskId, tenantId);
         ensureTaskReadable(task);
 
-        List<ReviewVersion> versions = loadTaskVersions(tenantId, task.getId());
-        Map<Long, User> reviewerMap = loadUsers(versions.stream()
+        List<ReviewVersion> versions = loadTaskVersions(tenantId, task);
+        // 版本审查人与任务双方一次批量加载，后续 loadUser 直接命中请求内记忆
+        Set<Long> userIds = versions.stream()
                 .map(ReviewVersion::getReviewerId)
-                .collect(Collectors.toSet()));
+                .collect(Collectors.toCollection(HashSet::new));
+        userIds.add(task.getReviewerId());
+        userIds.add(task.getCreatorId());
+        Map<Long, User> reviewerMap = loadUsers(userIds);
 
         TaskDetailResponse response = new TaskDetailResponse();
         response.setTaskId(task.getId());
@@ -220,6 +345,7 @@ public class TaskService {
         response.setCurrentStatus(task.getCurrentStatus());
         response.setStatusLabel(statusLabel(task.getCurrentStatus()));
         response.setCanResubmit(STATUS_REJECTED.equals(task.getCurrentStatus()));
+        response.setArchived(Boolean.TRUE.equals(task.getArchived()));
         response.setReviewer(toRelation(loadUser(task.getReviewerId())));
         response.setCreator(toRelation(loadUser(task.getCreatorId())));
 
@@ -228,6 +354,8 @@ public class TaskService {
         ReviewVersion currentVersion = findCurrentVersion(task, versions);
         response.setCurrentVersionDetail(toVersionDetail(currentVersion, reviewerMap));
         response.setTimeline(buildTimeline(versions, response.getCreator()));
+        detailCacheSupport.writeTaskDetail(taskId, generation,
+                new DetailCacheEntry(tenantId, task.getCreatorId(), task.getReviewerId(), response));
         return response;
     }
 
@@ -236,9 +364,9 @@ public class TaskService {
      */
     public List<TaskVersionResponse> listTaskVersions(Long taskId) {
         Long tenantId = ensureTenant();
-        ReviewTask task = loadTask(taskId, tenantId);
+        ReviewTask task = loadTaskIncludingArchived(taskId, tenantId);
         ensureTaskReadable(task);
-        List<ReviewVersion> versions = loadTaskVersions(tenantId, taskId);
+        List<ReviewVersion> versions = loadTaskVersions(tenantId, task);
         Map<Long, User> reviewerMap = loadUsers(versions.stream()
                 .map(ReviewVersion::getReviewerId)
                 .collect(Collectors.toSet()));
@@ -252,23 +380,21 @@ public class TaskService {
     public ResubmitInitResponse startResubmit(Long taskId, ResubmitInitRequest request) {
         Long tenantId = ensureTenant();
         Long userId = ensureUser();
-        ReviewTask task = loadTask(taskId, tenantId);
+        boolean[] missMarkers = readMissMarkers(taskId, request.getOldVersionId());
+        ReviewTask task = loadTask(taskId, tenantId, missMarkers[0]);
         ensureCreator(task, userId);
         if (!STATUS_REJECTED.equals(task.getCurrentStatus())) {
             throw new BusinessException("仅在任务被打回后才能再次提交");
         }
-        ReviewVersion oldVersion = loadVersion(request.getOldVersionId(), tenantId);
+        ReviewVersion oldVersion = loadVersion(request.getOldVersionId(), tenantId, missMarkers[1]);
         if (!taskId.equals(oldVersion.getTaskId())) {
             throw new BusinessException("指定的旧版本不属于当前任务");
         }
-        ReviewVersion preparing = reviewVersionMapper.selectOne(new LambdaQueryWrapper<ReviewVersion>()
-                .eq(ReviewVersion::getTaskId, taskId)
-                .eq(ReviewVersion::getStatus, STATUS_PREPARING)
-                .last("LIMIT 1"));
+        ReviewVersion preparing = findPreparingVersion(taskId, false);
         if (preparing != null) {
             return new ResubmitInitResponse(preparing.getId(), preparing.getVersionNumber());
         }
-        Integer nextVersion = getNextVersionNumber(taskId);
+        Integer nextVersion = allocateVersionNumber(taskId);
         ReviewVersion newVersion = new ReviewVersion();
         newVersion.setTenantId(tenantId);
         newVersion.setTaskId(taskId);
@@ -278,24 +404,39 @@ public class TaskService {
         newVersion.setFilesReady(Boolean.TRUE.equals(request.getReuseOldFiles()) ? 0 : 1);
         newVersion.setFileCount(0);
         newVersion.setCreateTime(LocalDateTime.now());
-        reviewVersionMapper.insert(newVersion);
+        try {
+            reviewVersionMapper.insert(newVersion);
+        } catch (DuplicateKeyException ex) {
+            // 并发请求已创建准备中的版本（uk_preparing_task），本次分配的版本号作废，留下的空洞不影响按序读取
+            preparing = findPreparingVersion(taskId, true);
+            if (preparing == null) {
+                throw ex;
+            }
+            return new ResubmitInitResponse(preparing.getId(), preparing.getVersionNumber());
+        }
+        detailCacheSupport.invalidate(taskId, newVersion.getId());
 
         if (Boolean.TRUE.equals(request.getReuseOldFiles())) {
-            copyOldFilesAsync(oldVersion.getId(), newVersion.getId(), tenantId);
+            dispatchCopyAfterCommit(taskId, oldVersion.getId(), newVersion.getId(), tenantId,
+                    oldVersion.getFileCount());
         }
         return new ResubmitInitResponse(newVersion.getId(), newVersion.getVersionNumber());
     }
 
     /**
-     * 再次提交最终提交。
+     * 再次提交最终提交，与审查操作并发时按乐观锁冲突重试。
      */
-    @Transactional(rollbackFor = Exception.class)
     public void submitResubmit(Long taskId, ResubmitSubmitRequest request) {
+        optimisticRetry.run(() -> doSubmitResubmit(taskId, request));
+    }
+
+    private void doSubmitResubmit(Long taskId, ResubmitSubmitRequest request) {
         Long tenantId = ensureTenant();
         Long userId = ensureUser();
-        ReviewTask task = loadTask(taskId, tenantId);
+        boolean[] missMarkers = readMissMarkers(taskId, request.getVersionId());
+        ReviewTask task = loadTask(taskId, tenantId, missMarkers[0]);
         ensureCreator(task, userId);
-        ReviewVersion version = loadVersion(request.getVersionId(), tenantId);
+        ReviewVersion version = loadVersion(request.getVersionId(), tenantId, missMarkers[1]);
         if (!taskId.equals(version.getTaskId())) {
             throw new BusinessException("版本不属于该任务");
         }
@@ -309,28 +450,56 @@ public class TaskService {
         if (fileCount == 0) {
             throw new BusinessException("请先上传至少一个文件");
         }
+        ReviewVersion versionPatch = new ReviewVersion();
+        versionPatch.setStatus(STATUS_REVIEWING);
+        versionPatch.setSubmitDesc(formatSubmitDesc(request.getSubmitDesc()));
+        versionPatch.setFileCount(fileCount);
+        versionPatch.setCreateTime(LocalDateTime.now());
+        versionPatch.setLockVersion(version.getLockVersion());
+        if (reviewVersionMapper.update(versionPatch, new LambdaUpdateWrapper<ReviewVersion>()
+                .eq(ReviewVersion::getId, version.getId())
+                .eq(ReviewVersion::getStatus, STATUS_PREPARING)
+                .set(ReviewVersion::getReviewComment, null)
+                .set(ReviewVersion::getReviewResult, null)
+                .set(ReviewVersion::getReviewTime, null)) == 0) {
+            throw OptimisticRetry.conflict();
+        }
+
+        String previousStatus = task.getCurrentStatus();
+        ReviewTask taskPatch = new ReviewTask();
+        taskPatch.setCurrentVersion(version.getVersionNumber());
+        taskPatch.setCurrentStatus(STATUS_REVIEWING);
+        taskPatch.setLockVersion(task.getLockVersion());
+        if (reviewTaskMapper.update(taskPatch, new LambdaUpdateWrapper<ReviewTask>()
+                .eq(ReviewTask::getId, task.getId())
+                .eq(ReviewTask::getCurrentStatus, previousStatus)) == 0) {
+            throw OptimisticRetry.conflict();
+        }
         version.setStatus(STATUS_REVIEWING);
-        version.setSubmitDesc(formatSubmitDesc(request.getSubmitDesc()));
+        version.setSubmitDesc(versionPatch.getSubmitDesc());
         version.setFileCount(fileCount);
-        version.setCreateTime(LocalDateTime.now());
+        version.setCreateTime(versionPatch.getCreateTime());
         version.setReviewComment(null);
         version.setReviewResult(null);
         version.setReviewTime(null);
-        reviewVersionMapper.updateById(version);
-
+        version.setLockVersion(versionPatch.getLockVersion());
         task.setCurrentVersion(version.getVersionNumber());
         task.setCurrentStatus(STATUS_REVIEWING);
-        reviewTaskMapper.updateById(task);
-        taskCacheSupport.evictStatistics(tenantId, task.getCreatorId(), task.getReviewerId());
+        task.setLockVersion(taskPatch.getLockVersion());
+        taskListProjector.refreshTask(task.getId());
+        detailCacheSupport.invalidate(taskId, version.getId());
+        taskStatCounter.onTransition(tenantId, task.getCreatorId(), task.getReviewerId(),
+                previousStatus, STATUS_REVIEWING, task.getCreateTime());
+        publishAssigned(task, version);
     }
 
     public VersionStatusResponse getVersionStatus(Long versionId) {
         Long tenantId = ensureTenant();
-        ReviewVersion version = loadVersion(versionId, tenantId);
+        ReviewVersion version = loadVersionIncludingArchived(versionId, tenantId);
         return new VersionStatusResponse(version.getId(), version.getStatus(), version.getFilesReady(), version.getFileCount());
     }
 
-    private Page<TaskListItemResponse> buildTaskListPage(Page<ReviewTask> taskPage,
+    private Page<TaskListItemResponse> buildTaskListPage(Page<TaskListView> taskPage,
                                                          boolean includeReviewer,
                                                          boolean includeCreator,
                                                          boolean reviewerView) {
@@ -339,93 +508,313 @@ public class TaskService {
         return result;
     }
 
-    private Page<ReviewTask> selectTaskPage(Long tenantId,
+    private Page<TaskListView> selectTaskPage(Long tenantId,
                                             Long creatorId,
                                             Long reviewerId,
                                             TaskListQueryRequest request,
                                             boolean forcePending) {
         int pageNo = request.getPageNo() == null ? 1 : request.getPageNo();
         int pageSize = request.getPageSize() == null ? 10 : request.getPageSize();
-        LambdaQueryWrapper<ReviewTask> wrapper = baseWrapper(tenantId, creatorId, reviewerId);
+        LambdaQueryWrapper<TaskListView> wrapper = listWrapper(tenantId, creatorId, reviewerId, request, forcePending);
+        String fullTextQuery = KeywordUtil.toBooleanQuery(KeywordUtil.splitTerms(request.getKeyword()));
+        if (Boolean.TRUE.equals(request.getIncludeArchived())) {
+            return fullTextQuery != null
+                    ? taskListViewMapper.selectRankedPageWithArchive(new Page<>(pageNo, pageSize), wrapper, fullTextQuery)
+                    : taskListViewMapper.selectPageWithArchive(new Page<>(pageNo, pageSize), wrapper);
+        }
+        if (fullTextQuery != null) {
+            return taskListViewMapper.selectRankedPage(new Page<>(pageNo, pageSize), wrapper, fullTextQuery);
+        }
+        wrapper.orderByDesc(TaskListView::getUpdateTime);
+        return taskListViewMapper.selectPage(new Page<>(pageNo, pageSize), wrapper);
+    }
+
+    /**
+     * 游标分页：以 (update_time, id) 作为书签向后取 pageSize + 1 条，多取的一条用于判断是否还有下一页。
+     */
+    private List<TaskListView> selectTaskSlice(Long tenantId,
+                                             Long creatorId,
+                                             Long reviewerId,
+                                             TaskListQueryRequest request,
+                                             boolean forcePending,
+                                             int pageSize) {
+        return selectTasksAfter(tenantId, creatorId, reviewerId, request, forcePending,
+                decodeCursor(request.getCursor()), pageSize + 1);
+    }
+
+    /**
+     * 按 (update_time, task_id) 倒序读取游标之后的 limit 条记录，cursor 为空时从头读取。
+     */
+    private List<TaskListView> selectTasksAfter(Long tenantId,
+                                                Long creatorId,
+                                                Long reviewerId,
+                                                TaskListQueryRequest request,
+                                                boolean forcePending,
+                                                TaskCursor cursor,
+                                                int limit) {
+        LambdaQueryWrapper<TaskListView> wrapper = listWrapper(tenantId, creatorId, reviewerId, request, forcePending);
+        if (cursor != null) {
+            wrapper.and(w -> w.lt(TaskListView::getUpdateTime, cursor.updateTime)
+                    .or(o -> o.eq(TaskListView::getUpdateTime, cursor.updateTime).lt(TaskListView::getTaskId, cursor.id)));
+        }
+        if (Boolean.TRUE.equals(request.getIncludeArchived())) {
+            return taskListViewMapper.selectListWithArchive(wrapper, limit);
+        }
+        wrapper.orderByDesc(TaskListView::getUpdateTime)
+                .orderByDesc(TaskListView::getTaskId)
+                .last("LIMIT " + limit);
+        return taskListViewMapper.selectList(wrapper);
+    }
+
+    private LambdaQueryWrapper<TaskListView> listWrapper(Long tenantId,
+                                                       Long creatorId,
+                                                       Long reviewerId,
+                                                       TaskListQueryRequest request,
+                                                       boolean forcePending) {
+        LambdaQueryWrapper<TaskListView> wrapper = baseWrapper(tenantId, creatorId, reviewerId);
         if (StringUtils.hasText(request.getStatus())) {
-            wrapper.eq(ReviewTask::getCurrentStatus, request.getStatus().trim().toUpperCase());
+            wrapper.eq(TaskListView::getCurrentStatus, request.getStatus().trim().toUpperCase());
         }
         if (StringUtils.hasText(request.getKeyword())) {
-            wrapper.like(ReviewTask::getTaskName, request.getKeyword().trim());
+            applyKeyword(wrapper, request.getKeyword());
         }
         applyDateRange(wrapper, request);
         if (forcePending) {
-            wrapper.eq(ReviewTask::getCurrentStatus, STATUS_REVIEWING);
+            wrapper.eq(TaskListView::getCurrentStatus, STATUS_REVIEWING);
+        }
+        return wrapper;
+    }
+
+    /**
+     * 按 (update_time, task_id) 键集分块读取读模型并逐块写出：每块是一次独立的短查询，
+     * 不占用长事务或流式游标连接，内存只保留当前一块；读模型已包含人员与当前版本信息，无需逐行补查。
+     * 首块在打开输出流之前读取，校验或查询失败时仍能按普通接口返回错误。
+     * 每块各自使用一个只读短事务，启用读写分离时由副本承担。
+     */
+    private void exportTasks(Long tenantId,
+                             Long creatorId,
+                             Long reviewerId,
+                             TaskListQueryRequest request,
+                             boolean forcePending,
+                             Callable<OutputStream> target) throws Exception {
+        List<TaskListView> chunk = readOnly(() -> selectTasksAfter(tenantId, creatorId, reviewerId, request,
+                forcePending, null, EXPORT_CHUNK_SIZE));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target.call(), StandardCharsets.UTF_8));
+        writer.write(CsvUtil.BOM);
+        CsvUtil.writeRow(writer, (Object[]) EXPORT_HEADERS);
+        while (!chunk.isEmpty()) {
+            for (TaskListView row : chunk) {
+                CsvUtil.writeRow(writer, row.getTaskId(), row.getTaskName(), statusLabel(row.getCurrentStatus()),
+                        "v" + row.getCurrentVersion(), row.getFileCount(), row.getCreatorName(), row.getCreatorPhone(),
+                        row.getReviewerName(), row.getReviewerPhone(), formatExportTime(row.getVersionSubmitTime()),
+                        formatExportTime(row.getCreateTime()), formatExportTime(row.getUpdateTime()));
+            }
+            writer.flush();
+            if (chunk.size() < EXPORT_CHUNK_SIZE) {
+                break;
+            }
+            TaskCursor after = new TaskCursor(chunk.get(chunk.size() - 1).getUpdateTime(),
+                    chunk.get(chunk.size() - 1).getTaskId());
+            chunk = readOnly(() -> selectTasksAfter(tenantId, creatorId, reviewerId, request, forcePending,
+                    after, EXPORT_CHUNK_SIZE));
+        }
+        writer.flush();
+    }
+
+    private <T> T readOnly(Supplier<T> query) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(status -> query.get());
+    }
+
+    private String formatExportTime(LocalDateTime time) {
+        return time == null ? null : time.format(EXPORT_TIME_FORMAT);
+    }
+
+    private CursorPageResponse<TaskListItemResponse> buildCursorPage(List<TaskListView> tasks,
+                                                                     int pageSize,
+                                                                     boolean includeReviewer,
+                                                                     boolean includeCreator,
+                                                                     boolean reviewerView) {
+        boolean hasMore = tasks.size() > pageSize;
+        List<TaskListView> slice = hasMore ? tasks.subList(0, pageSize) : tasks;
+        CursorPageResponse<TaskListItemResponse> page = new CursorPageResponse<>();
+        page.setSize(pageSize);
+        page.setHasMore(hasMore);
+        page.setRecords(convertToResponses(slice, includeReviewer, includeCreator, reviewerView));
+        if (hasMore) {
+            page.setNextCursor(encodeCursor(slice.get(slice.size() - 1)));
         }
-        wrapper.orderByDesc(ReviewTask::getUpdateTime);
-        return reviewTaskMapper.selectPage(new Page<>(pageNo, pageSize), wrapper);
+        return page;
     }
 
-    private void applyDateRange(LambdaQueryWrapper<ReviewTask> wrapper, TaskListQueryRequest request) {
+    /**
+     * 游标分页总数：无筛选条件时直接取统计计数，其余情况 COUNT 后短时缓存，允许轻微滞后。
+     */
+    private Long countTasks(Long tenantId,
+                            Long creatorId,
+                            Long reviewerId,
+                            TaskListQueryRequest request,
+                            boolean forcePending) {
+        String status = StringUtils.hasText(request.getStatus()) ? request.getStatus().trim().toUpperCase() : null;
+        if (forcePending) {
+            if (status != null && !STATUS_REVIEWING.equals(status)) {
+                return 0L;
+            }
+            status = STATUS_REVIEWING;
+        }
+        boolean includeArchived = Boolean.TRUE.equals(request.getIncludeArchived());
+        boolean unfiltered = !StringUtils.hasText(request.getKeyword())
+                && request.getStartDate() == null && request.getEndDate() == null;
+        // 统计计数包含已归档任务；只归档已通过的任务，因此审查中与已打回的计数对热数据同样成立
+        boolean counterApplies = includeArchived || (status != null && !STATUS_APPROVED.equals(status));
+        if (unfiltered && counterApplies) {
+            TaskStatisticResponse statistic = creatorId != null
+                    ? taskStatCounter.loadForCreator(tenantId, creatorId)
+                    : taskStatCounter.loadForReviewer(tenantId, reviewerId);
+            Long counted = counterTotal(statistic, status);
+            if (counted != null) {
+                return counted;
+            }
+        }
+        String condition = DigestUtils.md5DigestAsHex((forcePending + "|" + request.getStatus() + "|" + request.getKeyword()
+                + "|" + request.getStartDate() + "|" + request.getEndDate() + "|" + includeArchived)
+                .getBytes(StandardCharsets.UTF_8));
+        String cacheKey = creatorId != null
+                ? taskCacheSupport.taskListTotalKey("creator", tenantId, creatorId, condition)
+                : taskCacheSupport.taskListTotalKey("reviewer", tenantId, reviewerId, condition);
+        Number total = taskCacheSupport.load(cacheKey, LIST_TOTAL_TTL, () -> {
+            LambdaQueryWrapper<TaskListView> wrapper = listWrapper(tenantId, creatorId, reviewerId, request, forcePending);
+            return includeArchived
+                    ? taskListViewMapper.selectCountWithArchive(wrapper)
+                    : taskListViewMapper.selectCount(wrapper);
+        });
+        return total == null ? 0L : total.longValue();
+    }
+
+    private Long counterTotal(TaskStatisticResponse statistic, String status) {
+        if (status == null) {
+            return statistic.getTotal();
+        }
+        switch (status) {
+            case STATUS_REVIEWING:
+                return statistic.getReviewing();
+            case STATUS_APPROVED:
+                return statistic.getApproved();
+            case STATUS_REJECTED:
+                return statistic.getRejected();
+            default:
+                return null;
+        }
+    }
+
+    private String encodeCursor(TaskListView row) {
+        String raw = row.getUpdateTime() + "|" + row.getTaskId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private TaskCursor decodeCursor(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf('|');
+            return new TaskCursor(LocalDateTime.parse(raw.substring(0, split)), Long.parseLong(raw.substring(split + 1)));
+        } catch (RuntimeException ex) {
+            throw new BusinessException("游标格式不正确，请从第一页重新查询");
+        }
+    }
+
+    /**
+     * 游标内容：上一页最后一条记录的更新时间与 ID。
+     */
+    private static final class TaskCursor {
+
+        private final LocalDateTime updateTime;
+        private final Long id;
+
+        private TaskCursor(LocalDateTime updateTime, Long id) {
+            this.updateTime = updateTime;
+            this.id = id;
+        }
+    }
+
+    /**
+     * 关键字检索：可走 ngram 全文索引的检索词用 MATCH，单字检索词无法命中索引时退回 LIKE。
+     */
+    private void applyKeyword(LambdaQueryWrapper<TaskListView> wrapper, String keyword) {
+        List<String> terms = KeywordUtil.splitTerms(keyword);
+        if (terms.isEmpty()) {
+            wrapper.like(TaskListView::getTaskName, keyword.trim());
+            return;
+        }
+        String fullTextQuery = KeywordUtil.toBooleanQuery(terms);
+        if (fullTextQuery != null) {
+            wrapper.apply("MATCH(task_name) AGAINST({0} IN BOOLEAN MODE)", fullTextQuery);
+        }
+        for (String term : terms) {
+            if (term.length() < KeywordUtil.NGRAM_TOKEN_SIZE) {
+                wrapper.like(TaskListView::getTaskName, term);
+            }
+        }
+    }
+
+    private void applyHighlight(List<TaskListItemResponse> responses, String keyword) {
+        if (!StringUtils.hasText(keyword) || CollectionUtils.isEmpty(responses)) {
+            return;
+        }
+        List<String> terms = KeywordUtil.splitTerms(keyword);
+        for (TaskListItemResponse response : responses) {
+            response.setHighlightedName(KeywordUtil.highlight(response.getTaskName(), terms));
+        }
+    }
+
+    private void applyDateRange(LambdaQueryWrapper<TaskListView> wrapper, TaskListQueryRequest request) {
         if (request.getStartDate() != null) {
-            wrapper.ge(ReviewTask::getCreateTime, request.getStartDate().atStartOfDay());
+            wrapper.ge(TaskListView::getCreateTime, request.getStartDate().atStartOfDay());
         }
         if (request.getEndDate() != null) {
-            wrapper.le(ReviewTask::getCreateTime, request.getEndDate().plusDays(1).atStartOfDay().minusSeconds(1));
+            wrapper.le(TaskListView::getCreateTime, request.getEndDate().plusDays(1).atStartOfDay().minusSeconds(1));
         }
     }
 
-    private List<TaskListItemResponse> convertToResponses(List<ReviewTask> tasks,
+    private List<TaskListItemResponse> convertToResponses(List<TaskListView> rows,
                                                           boolean includeReviewer,
                                                           boolean includeCreator,
                                                           boolean reviewerView) {
-        if (CollectionUtils.isEmpty(tasks)) {
+        if (CollectionUtils.isEmpty(rows)) {
             return Collections.emptyList();
         }
-        Map<Long, ReviewVersion> versionMap = loadCurrentVersions(tasks);
-        Map<Long, User> reviewerMap = includeReviewer
-                ? loadUsers(tasks.stream().map(ReviewTask::getReviewerId).collect(Collectors.toSet()))
-                : Collections.emptyMap();
-        Map<Long, User> creatorMap = includeCreator
-                ? loadUsers(tasks.stream().map(ReviewTask::getCreatorId).collect(Collectors.toSet()))
-                : Collections.emptyMap();
         LocalDateTime now = LocalDateTime.now();
         List<TaskListItemResponse> responses = new ArrayList<>();
-        for (ReviewTask task : tasks) {
+        for (TaskListView row : rows) {
             TaskListItemResponse resp = new TaskListItemResponse();
-            resp.setTaskId(task.getId());
-            resp.setTaskName(task.getTaskName());
-            resp.setCurrentVersion(task.getCurrentVersion());
-            resp.setCurrentStatus(task.getCurrentStatus());
-            resp.setStatusLabel(statusLabel(task.getCurrentStatus()));
-            resp.setStatusTagType(statusTagType(task.getCurrentStatus()));
-            resp.setCreateTime(task.getCreateTime());
-            resp.setCanResubmit(STATUS_REJECTED.equals(task.getCurrentStatus()));
-
-            ReviewVersion version = versionMap.get(task.getId());
-            if (version != null) {
-                resp.setCurrentVersionId(version.getId());
-                resp.setFileCount(version.getFileCount());
-                resp.setLastUpdateTime(version.getUpdateTime());
-            } else {
-                resp.setCurrentVersionId(null);
-                resp.setFileCount(0);
-                resp.setLastUpdateTime(task.getUpdateTime());
-            }
-
-            if (includeReviewer) {
-                User reviewer = reviewerMap.get(task.getReviewerId());
-                if (reviewer != null) {
-                    resp.setReviewerId(reviewer.getId());
-                    resp.setReviewerName(reviewer.getRealName());
-                    resp.setReviewerPhone(reviewer.getPhone());
-                }
+            resp.setTaskId(row.getTaskId());
+            resp.setTaskName(row.getTaskName());
+            resp.setCurrentVersion(row.getCurrentVersion());
+            resp.setCurrentStatus(row.getCurrentStatus());
+            resp.setStatusLabel(statusLabel(row.getCurrentStatus()));
+            resp.setStatusTagType(statusTagType(row.getCurrentStatus()));
+            resp.setCreateTime(row.getCreateTime());
+            resp.setCanResubmit(STATUS_REJECTED.equals(row.getCurrentStatus()));
+            resp.setCurrentVersionId(row.getCurrentVersionId());
+            resp.setFileCount(row.getFileCount() == null ? 0 : row.getFileCount());
+            resp.setArchived(Boolean.TRUE.equals(row.getArchived()));
+            resp.setLastUpdateTime(row.getLastUpdateTime() == null ? row.getUpdateTime() : row.getLastUpdateTime());
+
+            if (includeReviewer && row.getReviewerName() != null) {
+                resp.setReviewerId(row.getReviewerId());
+                resp.setReviewerName(row.getReviewerName());
+                resp.setReviewerPhone(row.getReviewerPhone());
             }
-            if (includeCreator) {
-                User creator = creatorMap.get(task.getCreatorId());
-                if (creator != null) {
-                    resp.setCreatorId(creator.getId());
-                    resp.setCreatorName(creator.getRealName());
-                    resp.setCreatorPhone(creator.getPhone());
-                }
+            if (includeCreator && row.getCreatorName() != null) {
+                resp.setCreatorId(row.getCreatorId());
+                resp.setCreatorName(row.getCreatorName());
+                resp.setCreatorPhone(row.getCreatorPhone());
             }
-            if (reviewerView && STATUS_REVIEWING.equals(task.getCurrentStatus()) && version != null) {
-                long days = Duration.between(version.getCreateTime(), now).toDays();
+            if (reviewerView && STATUS_REVIEWING.equals(row.getCurrentStatus()) && row.getVersionSubmitTime() != null) {
+                long days = Duration.between(row.getVersionSubmitTime(), now).toDays();
                 resp.setPendingDays((int) Math.max(days, 0));
             }
             responses.add(resp);
@@ -433,27 +822,6 @@ public class TaskService {
         return responses;
     }
 
-    private Map<Long, ReviewVersion> loadCurrentVersions(List<ReviewTask> tasks) {
-        if (CollectionUtils.isEmpty(tasks)) {
-            return Collections.emptyMap();
-        }
-        Map<Long, Integer> target = tasks.stream()
-                .collect(Collectors.toMap(ReviewTask::getId, ReviewTask::getCurrentVersion));
-        List<Long> taskIds = new ArrayList<>(target.keySet());
-        List<ReviewVersion> versions = reviewVersionMapper.selectList(new LambdaQueryWrapper<ReviewVersion>()
-                .in(ReviewVersion::getTaskId, taskIds)
-                .orderByDesc(ReviewVersion::getVersionNumber));
-        Map<Long, ReviewVersion> map = new HashMap<>();
-        for (ReviewVersion version : versions) {
-            Integer need = target.get(version.getTaskId());
-            if (need != null && version.getVersionNumber() != null
-                    && version.getVersionNumber().equals(need) && !map.containsKey(version.getTaskId())) {
-                map.put(version.getTaskId(), version);
-            }
-        }
-        return map;
-    }
-
     private ReviewVersion findCurrentVersion(ReviewTask task, List<ReviewVersion> versions) {
         if (CollectionUtils.isEmpty(versions)) {
             throw new BusinessException("任务版本信息不存在");
@@ -468,53 +836,17 @@ public class TaskService {
     }
 
     private Map<Long, User> loadUsers(Set<Long> ids) {
-        if (CollectionUtils.isEmpty(ids)) {
-            return Collections.emptyMap();
-        }
-        Set<Long> filtered = ids.stream()
-                .filter(id -> id != null && id > 0)
-                .collect(Collectors.toSet());
-        if (filtered.isEmpty()) {
-            return Collections.emptyMap();
-        }
-        List<User> users = userMapper.selectBatchIds(filtered);
-        return users.stream().collect(Collectors.toMap(User::getId, user -> user));
-    }
-
-    private TaskStatisticResponse buildStatistics(Long tenantId, Long creatorId, Long reviewerId) {
-        TaskStatisticResponse response = new TaskStatisticResponse();
-        long total = reviewTaskMapper.selectCount(baseWrapper(tenantId, creatorId, reviewerId));
-        long reviewing = reviewTaskMapper.selectCount(baseWrapper(tenantId, creatorId, reviewerId)
-                .eq(ReviewTask::getCurrentStatus, STATUS_REVIEWING));
-        long approved = reviewTaskMapper.selectCount(baseWrapper(tenantId, creatorId, reviewerId)
-                .eq(ReviewTask::getCurrentStatus, STATUS_APPROVED));
-        long rejected = reviewTaskMapper.selectCount(baseWrapper(tenantId, creatorId, reviewerId)
-                .eq(ReviewTask::getCurrentStatus, STATUS_REJECTED));
-        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
-        long monthTotal = reviewTaskMapper.selectCount(baseWrapper(tenantId, creatorId, reviewerId)
-                .ge(ReviewTask::getCreateTime, monthStart));
-        long monthApproved = reviewTaskMapper.selectCount(baseWrapper(tenantId, creatorId, reviewerId)
-                .ge(ReviewTask::getCreateTime, monthStart)
-                .eq(ReviewTask::getCurrentStatus, STATUS_APPROVED));
-
-        response.setTotal(total);
-        response.setReviewing(reviewing);
-        response.setApproved(approved);
-        response.setRejected(rejected);
-        response.setMonthTotal(monthTotal);
-        response.setMonthApproved(monthApproved);
-        response.setPassRate(total == 0 ? 0.0 : Math.round((approved * 1.0 / total) * 1000.0) / 1000.0);
-        return response;
+        return entityLoader.users(ids);
     }
 
-    private LambdaQueryWrapper<ReviewTask> baseWrapper(Long tenantId, Long creatorId, Long reviewerId) {
-        LambdaQueryWrapper<ReviewTask> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(ReviewTask::getTenantId, tenantId);
+    private LambdaQueryWrapper<TaskListView> baseWrapper(Long tenantId, Long creatorId, Long reviewerId) {
+        LambdaQueryWrapper<TaskListView> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(TaskListView::getTenantId, tenantId);
         if (creatorId != null) {
-            wrapper.eq(ReviewTask::getCreatorId, creatorId);
+            wrapper.eq(TaskListView::getCreatorId, creatorId);
         }
         if (reviewerId != null) {
-            wrapper.eq(ReviewTask::getReviewerId, reviewerId);
+            wrapper.eq(TaskListView::getReviewerId, reviewerId);
         }
         return wrapper;
     }
@@ -620,15 +952,37 @@ public class TaskService {
         if (userId == null) {
             return null;
         }
-        return userMapper.selectById(userId);
+        return entityLoader.user(userId);
     }
 
     private ReviewTask loadTask(Long taskId, Long tenantId) {
+        return loadTask(taskId, tenantId, null);
+    }
+
+    /**
+     * missMarked 为已批量读取的空值标记结果，为 null 时单独读取。
+     */
+    private ReviewTask loadTask(Long taskId, Long tenantId, Boolean missMarked) {
+        ReviewTask task = loadTaskIncludingArchived(taskId, tenantId, missMarked);
+        if (Boolean.TRUE.equals(task.getArchived())) {
+            throw new BusinessException(ARCHIVED_READ_ONLY);
+        }
+        return task;
+    }
+
+    /**
+     * 只读查询使用：热表不存在时回查归档表，两边都不存在才标记空值。
+     */
+    private ReviewTask loadTaskIncludingArchived(Long taskId, Long tenantId) {
+        return loadTaskIncludingArchived(taskId, tenantId, null);
+    }
+
+    private ReviewTask loadTaskIncludingArchived(Long taskId, Long tenantId, Boolean missMarked) {
         String missKey = taskCacheSupport.taskMissKey(taskId);
-        if (isMissMarked(missKey)) {
+        if (missMarked != null ? missMarked : isMissMarked(missKey)) {
             throw new BusinessException("??????????");
         }
-        ReviewTask task = reviewTaskMapper.selectById(taskId);
+        ReviewTask task = entityLoader.taskIncludingArchived(taskId);
         if (task == null) {
             markMiss(missKey);
             throw new BusinessException("??????????");
@@ -639,10 +993,13 @@ public class TaskService {
         return task;
     }
 
-    private List<ReviewVersion> loadTaskVersions(Long tenantId, Long taskId) {
+    private List<ReviewVersion> loadTaskVersions(Long tenantId, ReviewTask task) {
+        if (Boolean.TRUE.equals(task.getArchived())) {
+            return taskArchiveMapper.selectVersionsByTask(tenantId, task.getId());
+        }
         return reviewVersionMapper.selectList(new LambdaQueryWrapper<ReviewVersion>()
                 .eq(ReviewVersion::getTenantId, tenantId)
-                .eq(ReviewVersion::getTaskId, taskId)
+                .eq(ReviewVersion::getTaskId, task.getId())
                 .orderByDesc(ReviewVersion::getVersionNumber));
     }
 
@@ -670,11 +1027,27 @@ public class TaskService {
     }
 
     private ReviewVersion loadVersion(Long versionId, Long tenantId) {
+        return loadVersion(versionId, tenantId, null);
+    }
+
+    private ReviewVersion loadVersion(Long versionId, Long tenantId, Boolean missMarked) {
+        ReviewVersion version = loadVersionIncludingArchived(versionId, tenantId, missMarked);
+        if (Boolean.TRUE.equals(version.getArchived())) {
+            throw new BusinessException(ARCHIVED_READ_ONLY);
+        }
+        return version;
+    }
+
+    private ReviewVersion loadVersionIncludingArchived(Long versionId, Long tenantId) {
+        return loadVersionIncludingArchived(versionId, tenantId, null);
+    }
+
+    private ReviewVersion loadVersionIncludingArchived(Long versionId, Long tenantId, Boolean missMarked) {
         String missKey = taskCacheSupport.versionMissKey(versionId);
-        if (isMissMarked(missKey)) {
+        if (missMarked != null ? missMarked : isMissMarked(missKey)) {
             throw new BusinessException("??????????");
         }
-        ReviewVersion version = reviewVersionMapper.selectById(versionId);
+        ReviewVersion version = entityLoader.versionIncludingArchived(versionId);
         if (version == null) {
             markMiss(missKey);
             throw new BusinessException("??????????");
@@ -685,46 +1058,62 @@ public class TaskService {
         return version;
     }
 
-    private Integer getNextVersionNumber(Long taskId) {
-        ReviewVersion maxVersion = reviewVersionMapper.selectOne(new LambdaQueryWrapper<ReviewVersion>()
-                .select(ReviewVersion::getVersionNumber)
+    /**
+     * 从任务的 next_version 计数器原子分配版本号，一条 UPDATE 完成并返回分配值，并发分配互不重复。
+     * 版本号只增不减，放弃的分配会在序列中留下空洞。
+     */
+    private Integer allocateVersionNumber(Long taskId) {
+        VersionAllocation allocation = new VersionAllocation(taskId);
+        if (reviewTaskMapper.allocateVersion(allocation) == 0 || allocation.getVersionNumber() == null) {
+            throw new BusinessException("任务不存在或无权访问");
+        }
+        return allocation.getVersionNumber();
+    }
+
+    /**
+     * 查找任务的准备中版本；currentRead 为 true 时以共享锁读取最新提交，用于唯一键冲突后取回并发请求创建的版本。
+     */
+    private ReviewVersion findPreparingVersion(Long taskId, boolean currentRead) {
+        return reviewVersionMapper.selectOne(new LambdaQueryWrapper<ReviewVersion>()
                 .eq(ReviewVersion::getTaskId, taskId)
-                .orderByDesc(ReviewVersion::getVersionNumber)
-                .last("LIMIT 1"));
-        Integer max = maxVersion == null ? null : maxVersion.getVersionNumber();
-        if (max == null) {
-            return 1;
-        }
-        return max + 1;
-    }
-
-    private void copyOldFilesAsync(Long oldVersionId, Long newVersionId, Long tenantId) {
-        CompletableFuture.runAsync(() -> {
-            List<ReviewFile> oldFiles = reviewFileMapper.selectList(new LambdaQueryWrapper<ReviewFile>()
-                    .eq(ReviewFile::getVersionId, oldVersionId));
-            if (CollectionUtils.isEmpty(oldFiles)) {
-                reviewVersionMapper.update(null, new LambdaUpdateWrapper<ReviewVersion>()
-                        .eq(ReviewVersion::getId, newVersionId)
-                        .set(ReviewVersion::getFilesReady, 1)
-                        .set(ReviewVersion::getFileCount, 0));
-                return;
-            }
-            for (ReviewFile file : oldFiles) {
-                ReviewFile copy = new ReviewFile();
-                copy.setTenantId(tenantId);
-                copy.setVersionId(newVersionId);
-                copy.setFileName(file.getFileName());
-                copy.setMinioObjectName(file.getMinioObjectName());
-                copy.setFileMd5(file.getFileMd5());
-                copy.setFileSize(file.getFileSize());
-                copy.setFileType(file.getFileType());
-                reviewFileMapper.insert(copy);
+                .eq(ReviewVersion::getStatus, STATUS_PREPARING)
+                .last(currentRead ? "LIMIT 1 LOCK IN SHARE MODE" : "LIMIT 1"));
+    }
+
+    /**
+     * 事务提交后再投递复制任务，避免消费者读到未提交的新版本，或事务回滚后留下孤立的复制任务。
+     */
+    private void dispatchCopyAfterCommit(Long taskId, Long oldVersionId, Long newVersionId, Long tenantId,
+                                         Integer estimatedFileCount) {
+        FileCopyMessage message = new FileCopyMessage(tenantId, taskId, oldVersionId, newVersionId,
+                UUID.randomUUID().toString(), estimatedFileCount);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sendCopyJob(message);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                sendCopyJob(message);
             }
-            reviewVersionMapper.update(null, new LambdaUpdateWrapper<ReviewVersion>()
-                    .eq(ReviewVersion::getId, newVersionId)
-                    .set(ReviewVersion::getFilesReady, 1)
-                    .set(ReviewVersion::getFileCount, oldFiles.size()));
-        }, copyExecutor);
+        });
+    }
+
+    private void sendCopyJob(FileCopyMessage message) {
+        try {
+            fileCopyJobQueue.send(message);
+        } catch (BusinessException ex) {
+            // 版本已提交，投递失败时标记复制失败，前端会提示用户重新上传
+            fileAsyncService.markCopyFailed(message.getNewVersionId());
+        }
+    }
+
+    private void publishAssigned(ReviewTask task, ReviewVersion version) {
+        UserEventMessage event = new UserEventMessage(UserEventMessage.TASK_ASSIGNED, task.getReviewerId(),
+                task.getTenantId(), task.getId(), version.getId());
+        event.setStatus(version.getStatus());
+        event.setFileCount(version.getFileCount());
+        userEventPublisher.publish(event);
     }
 
     private int countFiles(Long versionId) {
@@ -745,8 +1134,29 @@ public class TaskService {
         }
     }
 
+    /**
+     * 手动指派直接使用请求中的审查员；自动分配时从可用审查员（不含创建人本人）中按配置的策略选出。
+     */
+    private Long resolveReviewerId(Long tenantId, Long creatorId, TaskCreateRequest request) {
+        if (!Boolean.TRUE.equals(request.getAutoAssign())) {
+            if (request.getReviewerId() == null) {
+                throw new BusinessException("请选择审查员");
+            }
+            return request.getReviewerId();
+        }
+        List<Long> candidateIds = listReviewers().stream()
+                .map(ReviewerOptionResponse::getUserId)
+                .filter(id -> !id.equals(creatorId))
+                .sorted()
+                .collect(Collectors.toList());
+        if (candidateIds.isEmpty()) {
+            throw new BusinessException("当前租户暂无可分配的审查员");
+        }
+        return reviewerAssigner.assign(tenantId, candidateIds);
+    }
+
     private User loadReviewer(Long tenantId, Long reviewerId) {
-        User reviewer = userMapper.selectById(reviewerId);
+        User reviewer = entityLoader.user(reviewerId);
         if (reviewer == null || !tenantId.equals(reviewer.getTenantId())) {
             throw new BusinessException("审查员不存在或不属于当前租户");
         }
@@ -795,6 +1205,14 @@ public class TaskService {
         }
     }
 
+    private ReviewTask toAccessTask(DetailCacheEntry entry) {
+        ReviewTask task = new ReviewTask();
+        task.setTenantId(entry.getTenantId());
+        task.setCreatorId(entry.getCreatorId());
+        task.setReviewerId(entry.getReviewerId());
+        return task;
+    }
+
     private void ensureTaskReadable(ReviewTask task) {
         Long currentUser = ensureUser();
         if (!currentUser.equals(task.getCreatorId()) && !currentUser.equals(task.getReviewerId())) {
@@ -808,17 +1226,6 @@ public class TaskService {
         }
     }
 
-    private TaskStatisticResponse readStatisticCache(String cacheKey) {
-        if (!StringUtils.hasText(cacheKey)) {
-            return null;
-        }
-        Object cached = taskCacheSupport.read(cacheKey);
-        if (cached instanceof TaskStatisticResponse) {
-            return (TaskStatisticResponse) cached;
-        }
-        return null;
-    }
-
     private boolean isMissMarked(String key) {
         if (!StringUtils.hasText(key)) {
             return false;
@@ -826,11 +1233,20 @@ public class TaskService {
         return taskCacheSupport.read(key) != null;
     }
 
+    /**
+     * 同时加载任务与版本的操作以一次 MGET 读取两者的空值标记，依次为任务、版本。
+     */
+    private boolean[] readMissMarkers(Long taskId, Long versionId) {
+        List<Object> markers = taskCacheSupport.readMany(Arrays.asList(
+                taskCacheSupport.taskMissKey(taskId), taskCacheSupport.versionMissKey(versionId)));
+        return new boolean[]{markers.get(0) != null, markers.get(1) != null};
+    }
+
     private void markMiss(String key) {
         if (!StringUtils.hasText(key)) {
             return;
         }
-        taskCacheSupport.cache(key, Boolean.TRUE, MISS_TTL);
+        taskCacheSupport.cacheFresh(key, Boolean.TRUE, MISS_TTL);
     }
 
 }
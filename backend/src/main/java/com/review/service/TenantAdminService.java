@@ -11,6 +11,8 @@ import com.review.entity.Tenant;
 import com.review.entity.User;
 import com.review.mapper.TenantMapper;
 import com.review.mapper.UserMapper;
+import com.review.service.support.TaskCacheSupport;
+import com.review.service.support.TaskListProjector;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -34,6 +36,12 @@ public class TenantAdminService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private TaskListProjector taskListProjector;
+
+    @Autowired
+    private TaskCacheSupport taskCacheSupport;
+
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     /**
@@ -96,6 +104,7 @@ public class TenantAdminService {
 
         tenant.setUserCount(currentCount + 1);
         tenantMapper.updateById(tenant);
+        taskCacheSupport.invalidateTenantList();
     }
 
     /**
@@ -119,6 +128,7 @@ public class TenantAdminService {
         admin.setRealName(request.getRealName());
         admin.setPhone(request.getPhone());
         userMapper.updateById(admin);
+        taskListProjector.refreshUser(admin.getId(), admin.getRealName(), admin.getPhone());
     }
 
     /**
@@ -1,41 +1,63 @@
 package com.review.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.review.common.BusinessException;
+import com.review.config.TenantShardRoutingDataSource;
 import com.review.dto.TenantCreateRequest;
+import com.review.dto.TenantPageCacheEntry;
 import com.review.dto.TenantQueryRequest;
 import com.review.dto.TenantResponse;
 import com.review.dto.TenantStatusUpdateRequest;
 import com.review.dto.TenantUpdateRequest;
 import com.review.entity.Tenant;
 import com.review.mapper.TenantMapper;
+import com.review.service.support.TaskCacheSupport;
+import com.review.service.support.TenantShardRouter;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
- * 租户业务
+ * 租户业务。
+ * 启用分片时，按租户 ID 操作的请求由 TenantShardInterceptor 路由到租户所在分片；
+ * 创建、删除需同时维护分片 0 的目录行，分页查询在各分片汇总。
  */
 @Service
 public class TenantService {
 
     private static final long DEFAULT_STORAGE_QUOTA = 107_374_182_400L; // 默认100GB
     private static final int DEFAULT_USER_QUOTA = 50;
+    private static final int DIRECTORY_SHARD = TenantShardRoutingDataSource.DIRECTORY_SHARD;
+    private static final Duration TENANT_LIST_TTL = Duration.ofMinutes(2);
 
     @Autowired
     private TenantMapper tenantMapper;
 
+    @Autowired
+    private TenantShardRouter tenantShardRouter;
+
+    @Autowired
+    private TaskCacheSupport taskCacheSupport;
+
     /**
-     * 创建租户
+     * 创建租户：先在分片 0 写入目录行取得 ID，再以相同 ID 写入租户数量最少的分片。
+     * 两步位于不同分片，不放在同一事务中，第二步失败时删除目录行。
      */
-    @Transactional(rollbackFor = Exception.class)
     public Long createTenant(TenantCreateRequest request) {
         LambdaQueryWrapper<Tenant> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(Tenant::getTenantName, request.getTenantName());
@@ -55,8 +77,18 @@ public class TenantService {
                 request.getUserQuota() != null ? request.getUserQuota() : DEFAULT_USER_QUOTA);
         tenant.setUserCount(0);
         tenant.setStatus(1);
+        tenant.setShardId(pickShardForNewTenant());
 
         tenantMapper.insert(tenant);
+        if (tenant.getShardId() != DIRECTORY_SHARD) {
+            try {
+                tenantShardRouter.runInShard(tenant.getShardId(), () -> tenantMapper.insert(tenant));
+            } catch (RuntimeException ex) {
+                tenantMapper.deleteById(tenant.getId());
+                throw ex;
+            }
+        }
+        taskCacheSupport.invalidateTenantList();
         return tenant.getId();
     }
 
@@ -84,6 +116,7 @@ public class TenantService {
         tenant.setUserQuota(request.getUserQuota());
 
         tenantMapper.updateById(tenant);
+        taskCacheSupport.invalidateTenantList();
     }
 
     /**
@@ -109,12 +142,12 @@ public class TenantService {
         }
         tenant.setStatus(request.getStatus());
         tenantMapper.updateById(tenant);
+        taskCacheSupport.invalidateTenantList();
     }
 
     /**
-     * 删除租户
+     * 删除租户：先删除所在分片的租户行，再删除分片 0 的目录行。
      */
-    @Transactional(rollbackFor = Exception.class)
     public void deleteTenant(Long tenantId) {
         ensureNotPlatformTenant(tenantId);
         Tenant tenant = tenantMapper.selectById(tenantId);
@@ -125,26 +158,64 @@ public class TenantService {
             throw new BusinessException("请先删除租户下的用户/管理员后再操作");
         }
         tenantMapper.deleteById(tenantId);
+        if (tenant.getShardId() != null && tenant.getShardId() != DIRECTORY_SHARD) {
+            tenantShardRouter.runInShard(DIRECTORY_SHARD, () -> tenantMapper.deleteById(tenantId));
+        }
+        tenantShardRouter.evict(tenantId);
+        taskCacheSupport.invalidateTenantList();
     }
 
     /**
-     * 分页查询租户
+     * 分页查询租户，结果按查询条件短时缓存，租户增删改时整体失效。
      */
     public Page<TenantResponse> queryTenantPage(TenantQueryRequest request) {
         int pageNo = request.getPageNo() == null ? 1 : request.getPageNo();
         int pageSize = request.getPageSize() == null ? 10 : request.getPageSize();
-        Page<Tenant> page = new Page<>(pageNo, pageSize);
+        String condition = DigestUtils.md5DigestAsHex((pageNo + "|" + pageSize + "|" + request.getStatus() + "|"
+                + request.getKeyword()).getBytes(StandardCharsets.UTF_8));
+        String cacheKey = taskCacheSupport.tenantListKey(condition);
+        TenantPageCacheEntry entry = taskCacheSupport.load(cacheKey, TENANT_LIST_TTL, () -> {
+            Page<TenantResponse> page = loadTenantPage(request, pageNo, pageSize);
+            return new TenantPageCacheEntry(page.getTotal(), page.getRecords());
+        });
+        Page<TenantResponse> result = new Page<>(pageNo, pageSize, entry.getTotal() == null ? 0 : entry.getTotal());
+        result.setRecords(entry.getRecords());
+        return result;
+    }
 
-        LambdaQueryWrapper<Tenant> wrapper = new LambdaQueryWrapper<>();
-        if (StringUtils.hasText(request.getKeyword())) {
-            wrapper.like(Tenant::getTenantName, request.getKeyword());
+    /**
+     * 每个分片只统计 shard_id 指向自身的行，各取前 pageNo * pageSize 条后合并排序截取当前页。
+     */
+    private Page<TenantResponse> loadTenantPage(TenantQueryRequest request, int pageNo, int pageSize) {
+        if (!tenantShardRouter.isEnabled()) {
+            return tenantShardRouter.inShard(DIRECTORY_SHARD, true, () -> queryShardPage(request, pageNo, pageSize));
         }
-        if (request.getStatus() != null) {
-            wrapper.eq(Tenant::getStatus, request.getStatus());
+
+        long total = 0;
+        List<Tenant> merged = new ArrayList<>();
+        for (Integer shardId : tenantShardRouter.shardIds()) {
+            Page<Tenant> shardPage = tenantShardRouter.inShard(shardId, true, () -> {
+                Page<Tenant> top = new Page<>(1, (long) pageNo * pageSize);
+                return tenantMapper.selectPage(top, tenantPageWrapper(request).eq(Tenant::getShardId, shardId));
+            });
+            total += shardPage.getTotal();
+            merged.addAll(shardPage.getRecords());
         }
-        wrapper.orderByDesc(Tenant::getCreateTime);
+        List<TenantResponse> records = merged.stream()
+                .sorted(Comparator.comparing(Tenant::getCreateTime, Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(Tenant::getId, Comparator.reverseOrder()))
+                .skip((long) (pageNo - 1) * pageSize)
+                .limit(pageSize)
+                .map(this::toResponse)
+                .collect(Collectors.toList());
 
-        Page<Tenant> tenantPage = tenantMapper.selectPage(page, wrapper);
+        Page<TenantResponse> result = new Page<>(pageNo, pageSize, total);
+        result.setRecords(records);
+        return result;
+    }
+
+    private Page<TenantResponse> queryShardPage(TenantQueryRequest request, int pageNo, int pageSize) {
+        Page<Tenant> tenantPage = tenantMapper.selectPage(new Page<>(pageNo, pageSize), tenantPageWrapper(request));
         List<TenantResponse> records = tenantPage.getRecords().stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
@@ -154,6 +225,40 @@ public class TenantService {
         return result;
     }
 
+    private LambdaQueryWrapper<Tenant> tenantPageWrapper(TenantQueryRequest request) {
+        LambdaQueryWrapper<Tenant> wrapper = new LambdaQueryWrapper<>();
+        if (StringUtils.hasText(request.getKeyword())) {
+            wrapper.like(Tenant::getTenantName, request.getKeyword());
+        }
+        if (request.getStatus() != null) {
+            wrapper.eq(Tenant::getStatus, request.getStatus());
+        }
+        wrapper.orderByDesc(Tenant::getCreateTime);
+        return wrapper;
+    }
+
+    /**
+     * 新租户放在租户数量最少的分片，按分片 0 的目录统计。
+     */
+    private int pickShardForNewTenant() {
+        List<Integer> shardIds = tenantShardRouter.shardIds();
+        if (shardIds.size() == 1) {
+            return DIRECTORY_SHARD;
+        }
+        List<Map<String, Object>> rows = tenantShardRouter.inShard(DIRECTORY_SHARD, false, () ->
+                tenantMapper.selectMaps(new QueryWrapper<Tenant>()
+                        .select("shard_id", "COUNT(*) AS tenant_count")
+                        .ne("id", 0L)
+                        .groupBy("shard_id")));
+        Map<Integer, Long> counts = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            counts.put(((Number) row.get("shard_id")).intValue(), ((Number) row.get("tenant_count")).longValue());
+        }
+        return shardIds.stream()
+                .min(Comparator.comparingLong(shardId -> counts.getOrDefault(shardId, 0L)))
+                .orElse(DIRECTORY_SHARD);
+    }
+
     private void ensureNotPlatformTenant(Long tenantId) {
         if (tenantId != null && Objects.equals(tenantId, 0L)) {
             throw new BusinessException("平台系统租户禁止修改");
@@ -0,0 +1,489 @@
+package com.review.service;
+
+import com.review.common.BusinessException;
+import com.review.common.CacheConstants;
+import com.review.config.TenantShardProperties;
+import com.review.config.TenantShardRoutingDataSource;
+import com.review.dto.TenantShardMigrateRequest;
+import com.review.dto.TenantShardMigrationResponse;
+import com.review.service.support.TaskArchiver;
+import com.review.service.support.TaskCacheSupport;
+import com.review.service.support.TenantShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 租户在线迁移到其他分片。
+ * <p>
+ * 迁移期间租户照常读写：先按主键分块复制全部租户数据，再逐块比对校验和、只重传不一致的块；
+ * 随后冻结该租户的写请求，等待进行中的请求与文件复制结束，做最后一轮校验同步后修改分片目录，
+ * 冻结保持到各节点的目录缓存过期，最后清理源分片。切换前失败时目录不变，目标分片的残留数据在下次迁移时覆盖。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TenantShardMigrationService {
+
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_FINISHED = "FINISHED";
+    private static final String STATUS_FAILED = "FAILED";
+
+    private static final String PHASE_COPY = "COPY";
+    private static final String PHASE_SYNC = "SYNC";
+    private static final String PHASE_FREEZE = "FREEZE";
+    private static final String PHASE_FINAL_SYNC = "FINAL_SYNC";
+    private static final String PHASE_CLEANUP = "CLEANUP";
+
+    private static final String MIGRATE_LOCK_PREFIX = "lock:tenant:shard:migrate:";
+    private static final Duration MIGRATE_LOCK_TTL = Duration.ofHours(12);
+    private static final Duration FREEZE_TTL = Duration.ofHours(1);
+    private static final Duration ARCHIVE_LOCK_TTL = Duration.ofHours(1);
+
+    /**
+     * 租户相关的表，按父表到子表的顺序复制，清理源分片时逆序删除。
+     */
+    private static final List<TableSpec> TABLES = Arrays.asList(
+            new TableSpec("tenant", "id", "id"),
+            new TableSpec("user", "id", "tenant_id"),
+            new TableSpec("review_task", "id", "tenant_id"),
+            new TableSpec("review_version", "id", "tenant_id"),
+            new TableSpec("review_file", "id", "tenant_id"),
+            new TableSpec("task_list_view", "task_id", "tenant_id"),
+            new TableSpec("review_task_archive", "id", "tenant_id"),
+            new TableSpec("review_version_archive", "id", "tenant_id"),
+            new TableSpec("review_file_archive", "id", "tenant_id"),
+            new TableSpec("task_list_view_archive", "task_id", "tenant_id"));
+
+    private final TenantShardRouter tenantShardRouter;
+    private final TenantShardProperties properties;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final TaskCacheSupport taskCacheSupport;
+
+    private final ExecutorService migrationExecutor = Executors.newSingleThreadExecutor();
+    private final Map<Long, MigrationJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * 启动迁移，同一租户同一时间只允许一个迁移任务。
+     */
+    public TenantShardMigrationResponse startMigration(Long tenantId, TenantShardMigrateRequest request) {
+        if (!tenantShardRouter.isEnabled()) {
+            throw new BusinessException("未启用租户分片");
+        }
+        if (tenantId == null || Objects.equals(tenantId, 0L)) {
+            throw new BusinessException("平台系统租户不支持迁移");
+        }
+        int targetShard = request.getTargetShard();
+        if (!tenantShardRouter.shardIds().contains(targetShard)) {
+            throw new BusinessException("目标分片不存在");
+        }
+        JdbcTemplate directory = jdbc(TenantShardRoutingDataSource.DIRECTORY_SHARD);
+        List<Integer> current = directory.queryForList("SELECT shard_id FROM tenant WHERE id = ?", Integer.class, tenantId);
+        if (current.isEmpty()) {
+            throw new BusinessException("租户不存在");
+        }
+        int sourceShard = current.get(0);
+        if (sourceShard == targetShard) {
+            throw new BusinessException("租户已位于目标分片");
+        }
+        String owner = UUID.randomUUID().toString();
+        Boolean locked = stringRedisTemplate.opsForValue()
+                .setIfAbsent(MIGRATE_LOCK_PREFIX + tenantId, owner, MIGRATE_LOCK_TTL);
+        if (!Boolean.TRUE.equals(locked)) {
+            throw new BusinessException("该租户已有迁移任务正在执行");
+        }
+        MigrationJob job = new MigrationJob(tenantId, sourceShard, targetShard, owner);
+        jobs.put(tenantId, job);
+        migrationExecutor.submit(() -> runMigration(job));
+        return job.toResponse();
+    }
+
+    /**
+     * 查询本节点最近一次该租户的迁移进度。
+     */
+    public TenantShardMigrationResponse currentProgress(Long tenantId) {
+        MigrationJob job = jobs.get(tenantId);
+        return job == null ? null : job.toResponse();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        migrationExecutor.shutdownNow();
+    }
+
+    private void runMigration(MigrationJob job) {
+        log.info("tenant shard migration started, tenantId={}, source={}, target={}",
+                job.tenantId, job.sourceShard, job.targetShard);
+        JdbcTemplate source = jdbc(job.sourceShard);
+        JdbcTemplate target = jdbc(job.targetShard);
+        try {
+            markMigrating(job, true);
+            job.phase = PHASE_COPY;
+            for (TableSpec table : TABLES) {
+                copyTable(source, target, table, job);
+            }
+            // 在线预同步一轮，缩小冻结期间需要追平的差异
+            job.phase = PHASE_SYNC;
+            for (TableSpec table : TABLES) {
+                syncTable(source, target, table, job);
+            }
+            freezeAndSwitch(source, target, job);
+            job.phase = PHASE_CLEANUP;
+            cleanupSource(source, job);
+            job.finish(STATUS_FINISHED, null);
+        } catch (Exception ex) {
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("tenant shard migration failed, tenantId={}, phase={}, switched={}",
+                    job.tenantId, job.phase, job.switched, ex);
+            job.finish(STATUS_FAILED, job.switched
+                    ? "已切换到目标分片，源分片清理失败：" + ex.getMessage() : ex.getMessage());
+        } finally {
+            markMigrating(job, false);
+            String lockKey = MIGRATE_LOCK_PREFIX + job.tenantId;
+            if (job.owner.equals(stringRedisTemplate.opsForValue().get(lockKey))) {
+                stringRedisTemplate.delete(lockKey);
+            }
+        }
+        log.info("tenant shard migration {}, tenantId={}, copied={}, resyncedChunks={}, deleted={}", job.status,
+                job.tenantId, job.copiedRows.get(), job.resyncedChunks.get(), job.deletedRows.get());
+    }
+
+    private void freezeAndSwitch(JdbcTemplate source, JdbcTemplate target, MigrationJob job) throws InterruptedException {
+        job.phase = PHASE_FREEZE;
+        String freezeKey = CacheConstants.TENANT_SHARD_FREEZE_PREFIX + job.tenantId;
+        stringRedisTemplate.opsForValue().set(freezeKey, job.owner, FREEZE_TTL);
+        boolean archiveLocked = false;
+        try {
+            // 各节点的目录缓存过期后才会看到迁移中标记，此前它们不检查冻结标记
+            long visibleAt = job.migratingMarkedAt + (properties.getDirectoryCacheSeconds() + 1) * 1000L;
+            long graceEnd = System.currentTimeMillis() + properties.getFreezeGraceSeconds() * 1000L;
+            TimeUnit.MILLISECONDS.sleep(Math.max(Math.max(visibleAt, graceEnd) - System.currentTimeMillis(), 0));
+            archiveLocked = acquireArchiveLock(job);
+            awaitCopiesDrained(source, job);
+
+            job.phase = PHASE_FINAL_SYNC;
+            for (TableSpec table : TABLES) {
+                syncTable(source, target, table, job);
+            }
+            // 目录行最后修改：在此之前路由仍指向源分片
+            Set<Integer> shards = new LinkedHashSet<>(Arrays.asList(
+                    job.targetShard, job.sourceShard, TenantShardRoutingDataSource.DIRECTORY_SHARD));
+            for (Integer shardId : shards) {
+                jdbc(shardId).update("UPDATE tenant SET shard_id = ? WHERE id = ?", job.targetShard, job.tenantId);
+            }
+            job.switched = true;
+            tenantShardRouter.evict(job.tenantId);
+            taskCacheSupport.invalidateTenantList();
+            log.info("tenant shard switched, tenantId={}, target={}", job.tenantId, job.targetShard);
+            // 其他节点的目录缓存过期前仍可能把请求路由到源分片，冻结保持到缓存全部过期
+            TimeUnit.SECONDS.sleep(properties.getDirectoryCacheSeconds() + 1);
+        } finally {
+            if (archiveLocked && job.owner.equals(stringRedisTemplate.opsForValue().get(TaskArchiver.ARCHIVE_LOCK_KEY))) {
+                stringRedisTemplate.delete(TaskArchiver.ARCHIVE_LOCK_KEY);
+            }
+            stringRedisTemplate.delete(freezeKey);
+        }
+    }
+
+    /**
+     * 设置或清除迁移中标记：路由以分片 0 目录行的 shard_migrating 为准，标记存在期间写请求检查冻结，Redis 不可用时拒绝写入。
+     * 源分片的租户行同时标记，复制到目标分片（含迁回分片 0 时覆盖目录行）后标记不丢失；清除失败只记录日志。
+     */
+    private void markMigrating(MigrationJob job, boolean migrating) {
+        Set<Integer> shards = new LinkedHashSet<>(Arrays.asList(
+                TenantShardRoutingDataSource.DIRECTORY_SHARD, job.sourceShard, job.targetShard));
+        try {
+            for (Integer shardId : shards) {
+                jdbc(shardId).update("UPDATE tenant SET shard_migrating = ? WHERE id = ?", migrating ? 1 : 0, job.tenantId);
+            }
+            job.migratingMarkedAt = System.currentTimeMillis();
+        } catch (RuntimeException ex) {
+            if (migrating) {
+                throw ex;
+            }
+            log.error("clear tenant shard migrating flag failed, tenantId={}", job.tenantId, ex);
+        }
+    }
+
+    /**
+     * 持有归档锁，避免归档任务在最后一轮同步期间搬动该租户的数据。
+     */
+    private boolean acquireArchiveLock(MigrationJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + properties.getDrainTimeoutSeconds() * 1000;
+        while (true) {
+            Boolean locked = stringRedisTemplate.opsForValue()
+                    .setIfAbsent(TaskArchiver.ARCHIVE_LOCK_KEY, job.owner, ARCHIVE_LOCK_TTL);
+            if (Boolean.TRUE.equals(locked)) {
+                return true;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("task archive still running, migration aborted");
+            }
+            TimeUnit.SECONDS.sleep(1);
+        }
+    }
+
+    /**
+     * 等待冻结前已开始的文件复制结束，复制消费者写入的文件记录也需包含在最后一轮同步中。
+     */
+    private void awaitCopiesDrained(JdbcTemplate source, MigrationJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + properties.getDrainTimeoutSeconds() * 1000;
+        while (true) {
+            Long copying = source.queryForObject(
+                    "SELECT COUNT(*) FROM review_version WHERE tenant_id = ? AND files_ready = 0", Long.class, job.tenantId);
+            if (copying == null || copying == 0) {
+                return;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException(copying + " versions still copying files, migration aborted");
+            }
+            TimeUnit.SECONDS.sleep(1);
+        }
+    }
+
+    private void copyTable(JdbcTemplate source, JdbcTemplate target, TableSpec table, MigrationJob job) {
+        int chunkSize = Math.max(properties.getMigrationChunkSize(), 1);
+        long lastKey = 0;
+        while (true) {
+            List<Map<String, Object>> rows = source.queryForList(
+                    "SELECT * FROM " + table.quotedName() + " WHERE " + table.quotedFilter() + " = ? AND "
+                            + table.quotedKey() + " > ? ORDER BY " + table.quotedKey() + " LIMIT ?",
+                    job.tenantId, lastKey, chunkSize);
+            if (rows.isEmpty()) {
+                return;
+            }
+            writeRows(target, table, rows, job);
+            job.copiedRows.addAndGet(rows.size());
+            if (rows.size() < chunkSize) {
+                return;
+            }
+            lastKey = ((Number) rows.get(rows.size() - 1).get(table.keyColumn)).longValue();
+        }
+    }
+
+    /**
+     * 按源分片的主键把数据切成连续区间，比对两侧区间内的行数与行校验和，只重传不一致的区间。
+     */
+    private void syncTable(JdbcTemplate source, JdbcTemplate target, TableSpec table, MigrationJob job) {
+        int chunkSize = Math.max(properties.getMigrationChunkSize(), 1);
+        String checksumSql = checksumSql(source, table);
+        long lowerKey = 0;
+        while (true) {
+            List<Long> keys = source.queryForList(
+                    "SELECT " + table.quotedKey() + " FROM " + table.quotedName() + " WHERE " + table.quotedFilter()
+                            + " = ? AND " + table.quotedKey() + " > ? ORDER BY " + table.quotedKey() + " LIMIT ?",
+                    Long.class, job.tenantId, lowerKey, chunkSize);
+            boolean last = keys.size() < chunkSize;
+            // 最后一个区间不设上界，覆盖目标分片上多出的行
+            long upperKey = last ? Long.MAX_VALUE : keys.get(keys.size() - 1);
+            String expected = source.queryForObject(checksumSql, String.class, job.tenantId, lowerKey, upperKey);
+            String actual = target.queryForObject(checksumSql, String.class, job.tenantId, lowerKey, upperKey);
+            if (!Objects.equals(expected, actual)) {
+                resyncRange(source, target, table, keys, lowerKey, upperKey, job);
+                job.resyncedChunks.incrementAndGet();
+            }
+            if (last) {
+                return;
+            }
+            lowerKey = upperKey;
+        }
+    }
+
+    private void resyncRange(JdbcTemplate source, JdbcTemplate target, TableSpec table, List<Long> sourceKeys,
+                             long lowerKey, long upperKey, MigrationJob job) {
+        String range = " WHERE " + table.quotedFilter() + " = ? AND " + table.quotedKey() + " > ? AND "
+                + table.quotedKey() + " <= ?";
+        // 只删除源分片已不存在的行，目录行等仍存在的行由覆盖写入更新，不会出现短暂缺失
+        List<Object> deleteArgs = new ArrayList<>(Arrays.asList(job.tenantId, lowerKey, upperKey));
+        String deleteSql = "DELETE FROM " + table.quotedName() + range;
+        if (!sourceKeys.isEmpty()) {
+            deleteSql += " AND " + table.quotedKey() + " NOT IN (" + placeholders(sourceKeys.size()) + ")";
+            deleteArgs.addAll(sourceKeys);
+        }
+        target.update(deleteSql, deleteArgs.toArray());
+        List<Map<String, Object>> rows = source.queryForList(
+                "SELECT * FROM " + table.quotedName() + range, job.tenantId, lowerKey, upperKey);
+        if (!rows.isEmpty()) {
+            writeRows(target, table, rows, job);
+        }
+    }
+
+    /**
+     * 以 REPLACE 写入目标分片，重复执行结果一致；写入前确认主键未被其他租户占用。
+     */
+    private void writeRows(JdbcTemplate target, TableSpec table, List<Map<String, Object>> rows, MigrationJob job) {
+        List<Object> keys = rows.stream().map(row -> row.get(table.keyColumn)).collect(Collectors.toList());
+        List<Object> conflictArgs = new ArrayList<>(keys);
+        conflictArgs.add(job.tenantId);
+        Long conflicts = target.queryForObject("SELECT COUNT(*) FROM " + table.quotedName() + " WHERE "
+                        + table.quotedKey() + " IN (" + placeholders(keys.size()) + ") AND " + table.quotedFilter() + " <> ?",
+                Long.class, conflictArgs.toArray());
+        if (conflicts != null && conflicts > 0) {
+            throw new IllegalStateException("primary key conflict in " + table.name + " on shard " + job.targetShard
+                    + ", check auto_increment_offset of each shard");
+        }
+        Set<String> generated = job.generatedColumns.computeIfAbsent(table.name, name -> generatedColumns(target, name));
+        List<String> columns = rows.get(0).keySet().stream()
+                .filter(column -> !generated.contains(column.toLowerCase(Locale.ROOT)))
+                .collect(Collectors.toList());
+        String sql = "REPLACE INTO " + table.quotedName() + " ("
+                + columns.stream().map(TenantShardMigrationService::quote).collect(Collectors.joining(", "))
+                + ") VALUES (" + placeholders(columns.size()) + ")";
+        List<Object[]> batch = rows.stream()
+                .map(row -> columns.stream().map(row::get).toArray())
+                .collect(Collectors.toList());
+        target.batchUpdate(sql, batch);
+    }
+
+    /**
+     * 生成列（如 review_version.preparing_task_id）不能写入，由目标分片自行计算。
+     */
+    private Set<String> generatedColumns(JdbcTemplate target, String tableName) {
+        return target.queryForList("SELECT COLUMN_NAME FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() "
+                        + "AND TABLE_NAME = ? AND EXTRA LIKE '%GENERATED%'", String.class, tableName).stream()
+                .map(column -> column.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+    }
+
+    private void cleanupSource(JdbcTemplate source, MigrationJob job) {
+        int chunkSize = Math.max(properties.getMigrationChunkSize(), 1);
+        List<TableSpec> reversed = new ArrayList<>(TABLES);
+        Collections.reverse(reversed);
+        for (TableSpec table : reversed) {
+            if ("tenant".equals(table.name) && job.sourceShard == TenantShardRoutingDataSource.DIRECTORY_SHARD) {
+                // 分片 0 保留目录行
+                continue;
+            }
+            int deleted;
+            do {
+                deleted = source.update("DELETE FROM " + table.quotedName() + " WHERE " + table.quotedFilter()
+                        + " = ? ORDER BY " + table.quotedKey() + " LIMIT ?", job.tenantId, chunkSize);
+                job.deletedRows.addAndGet(deleted);
+            } while (deleted >= chunkSize);
+        }
+    }
+
+    /**
+     * 区间内行数与各行 CRC32 的异或，列值为 NULL 与空串通过 ISNULL 区分。
+     */
+    private String checksumSql(JdbcTemplate source, TableSpec table) {
+        String[] columns = source.queryForRowSet("SELECT * FROM " + table.quotedName() + " WHERE 1 = 0")
+                .getMetaData().getColumnNames();
+        String row = Arrays.stream(columns)
+                .map(column -> quote(column) + ", ISNULL(" + quote(column) + ")")
+                .collect(Collectors.joining(", "));
+        return "SELECT CONCAT(COUNT(*), ':', COALESCE(BIT_XOR(CRC32(CONCAT_WS('#', " + row + "))), 0)) FROM "
+                + table.quotedName() + " WHERE " + table.quotedFilter() + " = ? AND "
+                + table.quotedKey() + " > ? AND " + table.quotedKey() + " <= ?";
+    }
+
+    private JdbcTemplate jdbc(int shardId) {
+        return new JdbcTemplate(tenantShardRouter.writableShard(shardId));
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static String quote(String identifier) {
+        return "`" + identifier + "`";
+    }
+
+    private static final class TableSpec {
+
+        private final String name;
+        private final String keyColumn;
+        private final String filterColumn;
+
+        private TableSpec(String name, String keyColumn, String filterColumn) {
+            this.name = name;
+            this.keyColumn = keyColumn;
+            this.filterColumn = filterColumn;
+        }
+
+        private String quotedName() {
+            return quote(name);
+        }
+
+        private String quotedKey() {
+            return quote(keyColumn);
+        }
+
+        private String quotedFilter() {
+            return quote(filterColumn);
+        }
+    }
+
+    private static final class MigrationJob {
+
+        private final Long tenantId;
+        private final int sourceShard;
+        private final int targetShard;
+        private final String owner;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong copiedRows = new AtomicLong();
+        private final AtomicLong resyncedChunks = new AtomicLong();
+        private final AtomicLong deletedRows = new AtomicLong();
+        private final Map<String, Set<String>> generatedColumns = new ConcurrentHashMap<>();
+        private volatile long migratingMarkedAt;
+        private volatile String phase = PHASE_COPY;
+        private volatile boolean switched;
+        private volatile String status = STATUS_RUNNING;
+        private volatile String errorMessage;
+        private volatile LocalDateTime finishedAt;
+
+        private MigrationJob(Long tenantId, int sourceShard, int targetShard, String owner) {
+            this.tenantId = tenantId;
+            this.sourceShard = sourceShard;
+            this.targetShard = targetShard;
+            this.owner = owner;
+        }
+
+        private void finish(String finalStatus, String error) {
+            this.errorMessage = error;
+            this.finishedAt = LocalDateTime.now();
+            this.status = finalStatus;
+        }
+
+        private TenantShardMigrationResponse toResponse() {
+            TenantShardMigrationResponse response = new TenantShardMigrationResponse();
+            response.setTenantId(tenantId);
+            response.setSourceShard(sourceShard);
+            response.setTargetShard(targetShard);
+            response.setStatus(status);
+            response.setPhase(phase);
+            response.setCopiedRows(copiedRows.get());
+            response.setResyncedChunks(resyncedChunks.get());
+            response.setDeletedRows(deletedRows.get());
+            response.setSwitched(switched);
+            response.setErrorMessage(errorMessage);
+            response.setStartedAt(startedAt);
+            response.setFinishedAt(finishedAt);
+            return response;
+        }
+    }
+}
@@ -14,6 +14,8 @@ import com.review.entity.Tenant;
 import com.review.entity.User;
 import com.review.mapper.TenantMapper;
 import com.review.mapper.UserMapper;
+import com.review.service.support.TaskCacheSupport;
+import com.review.service.support.TaskListProjector;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -43,6 +45,12 @@ public class TenantUserService {
     @Autowired
     private TenantMapper tenantMapper;
 
+    @Autowired
+    private TaskListProjector taskListProjector;
+
+    @Autowired
+    private TaskCacheSupport taskCacheSupport;
+
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     public Page<UserResponse> queryUsers(Long tenantId, UserQueryRequest request) {
@@ -100,6 +108,8 @@ public class TenantUserService {
 
         tenant.setUserCount((tenant.getUserCount() == null ? 0 : tenant.getUserCount()) + 1);
         tenantMapper.updateById(tenant);
+        taskCacheSupport.invalidateReviewerOptions(tenantId);
+        taskCacheSupport.invalidateTenantList();
     }
 
     @Transactional(rollbackFor = Exception.class)
@@ -111,6 +121,8 @@ public class TenantUserService {
         user.setPhone(request.getPhone());
         user.setRoles(joinRoles(request.getRoles()));
         userMapper.updateById(user);
+        taskListProjector.refreshUser(user.getId(), user.getRealName(), user.getPhone());
+        taskCacheSupport.invalidateReviewerOptions(tenantId);
     }
 
     @Transactional(rollbackFor = Exception.class)
@@ -132,6 +144,7 @@ public class TenantUserService {
         }
         user.setStatus(request.getStatus());
         userMapper.updateById(user);
+        taskCacheSupport.invalidateReviewerOptions(tenantId);
     }
 
     @Transactional(rollbackFor = Exception.class)
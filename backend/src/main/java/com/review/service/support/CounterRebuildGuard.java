@@ -0,0 +1,101 @@
+package com.review.service.support;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 增量计数的重建保护，供 TaskStatCounter 与 ReviewerLoadTracker 使用。
+ * <p>
+ * 计数缺失时由读取方按数据库快照重建，而快照与提交后增量之间没有先后保证：快照之后提交、增量却先于写入执行会丢失增量，
+ * 快照已包含、增量却在写入之后执行会重复计数。每个计数 Key 配一个保护 Hash（{key}:guard）：
+ * epoch 在写事务提交前以及增量遇到计数缺失时递增，pending 为已登记提交、尚未执行完提交后增量的事务数。
+ * 重建在查询前读取 epoch，写入时要求 epoch 未变且 pending 为 0，否则放弃写入，由下次读取再重建。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CounterRebuildGuard {
+
+    private static final String GUARD_SUFFIX = ":guard";
+
+    /** 保护 Hash 的过期时间，覆盖登记到提交后增量之间的窗口；节点宕机遗留的 pending 到期后自动清除 */
+    public static final Duration GUARD_TTL = Duration.ofMinutes(5);
+
+    private static final DefaultRedisScript<Long> BEGIN_SCRIPT = new DefaultRedisScript<>(
+            "for i = 1, #KEYS do "
+                    + "  redis.call('HINCRBY', KEYS[i], 'epoch', 1) "
+                    + "  redis.call('HINCRBY', KEYS[i], 'pending', 1) "
+                    + "  redis.call('EXPIRE', KEYS[i], ARGV[1]) "
+                    + "end "
+                    + "return 1", Long.class);
+
+    /**
+     * 保护 Hash 已过期时 HINCRBY 会得到负数，此时直接删除。
+     */
+    private static final DefaultRedisScript<Long> END_SCRIPT = new DefaultRedisScript<>(
+            "for i = 1, #KEYS do "
+                    + "  if redis.call('HINCRBY', KEYS[i], 'pending', -1) < 0 then redis.call('DEL', KEYS[i]) end "
+                    + "end "
+                    + "return 1", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public String guardKey(String key) {
+        return key + GUARD_SUFFIX;
+    }
+
+    public List<String> guardKeys(Collection<String> keys) {
+        return keys.stream().map(this::guardKey).collect(Collectors.toList());
+    }
+
+    /**
+     * 写事务提交前登记；返回 false 表示登记失败，调用方应以删除计数代替增量。
+     */
+    public boolean begin(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return true;
+        }
+        try {
+            stringRedisTemplate.execute(BEGIN_SCRIPT, guardKeys(keys), String.valueOf(GUARD_TTL.getSeconds()));
+            return true;
+        } catch (Exception ex) {
+            log.warn("register counter update failed, keys={}", keys, ex);
+            return false;
+        }
+    }
+
+    /**
+     * 提交后增量执行完毕（或事务回滚）后调用。
+     */
+    public void end(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.execute(END_SCRIPT, guardKeys(keys));
+        } catch (Exception ex) {
+            log.warn("release counter update failed, keys={}", keys, ex);
+        }
+    }
+
+    /**
+     * 重建前读取 epoch，不存在时为 "0"；读取失败返回 null，调用方不应写入重建结果。
+     */
+    public String epoch(String key) {
+        try {
+            Object epoch = stringRedisTemplate.opsForHash().get(guardKey(key), "epoch");
+            return epoch == null ? "0" : String.valueOf(epoch);
+        } catch (Exception ex) {
+            log.warn("read counter rebuild epoch failed, key={}", key, ex);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.review.service.support;
+
+import com.review.common.CacheConstants;
+import com.review.dto.DetailCacheEntry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 任务详情 / 审查详情缓存。
+ * 每个任务与版本各有一个失效版本号：写入缓存前先读版本号，仅当版本号未变时才落盘，
+ * 业务变更在事务提交后递增版本号，保证读到旧数据的并发请求无法覆盖新数据。
+ * 人员姓名等展示字段变化不主动失效，由条目 TTL 兜底。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DetailCacheSupport {
+
+    private static final Duration ENTRY_TTL = Duration.ofMinutes(10);
+    private static final Duration GENERATION_TTL = Duration.ofDays(1);
+
+    /**
+     * KEYS[1] 版本号，KEYS[2] 条目；ARGV[1] 读取时的版本号，ARGV[2] 条目，ARGV[3] TTL 秒数。
+     */
+    private static final DefaultRedisScript<Long> WRITE_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('GET', KEYS[1]) or '0' "
+                    + "if current ~= ARGV[1] then return 0 end "
+                    + "redis.call('SET', KEYS[2], ARGV[2], 'EX', ARGV[3]) "
+                    + "return 1", Long.class);
+
+    /**
+     * KEYS 按 (版本号, 条目) 成对传入：递增版本号并删除旧条目；ARGV[1] 为版本号 TTL 秒数。
+     */
+    private static final DefaultRedisScript<Long> INVALIDATE_SCRIPT = new DefaultRedisScript<>(
+            "for i = 1, #KEYS, 2 do "
+                    + "  redis.call('INCR', KEYS[i]) "
+                    + "  redis.call('EXPIRE', KEYS[i], ARGV[1]) "
+                    + "  redis.call('DEL', KEYS[i + 1]) "
+                    + "end "
+                    + "return 1", Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    public DetailCacheEntry readTaskDetail(Long taskId) {
+        return read(taskGenerationKey(taskId), CacheConstants.DETAIL_TASK_PREFIX + taskId);
+    }
+
+    public DetailCacheEntry readReviewDetail(Long versionId) {
+        return read(versionGenerationKey(versionId), CacheConstants.DETAIL_REVIEW_PREFIX + versionId);
+    }
+
+    /**
+     * 缓存未命中时在查询数据库之前调用，返回值在写入时用于比对。
+     */
+    public long taskGeneration(Long taskId) {
+        return generation(taskGenerationKey(taskId));
+    }
+
+    public long versionGeneration(Long versionId) {
+        return generation(versionGenerationKey(versionId));
+    }
+
+    public void writeTaskDetail(Long taskId, long generation, DetailCacheEntry entry) {
+        write(taskGenerationKey(taskId), CacheConstants.DETAIL_TASK_PREFIX + taskId, generation, entry);
+    }
+
+    public void writeReviewDetail(Long versionId, long generation, DetailCacheEntry entry) {
+        write(versionGenerationKey(versionId), CacheConstants.DETAIL_REVIEW_PREFIX + versionId, generation, entry);
+    }
+
+    /**
+     * 任务及其某个版本发生变化：任务详情与该版本的审查详情一并失效，处于事务中时在提交后执行。
+     */
+    public void invalidate(Long taskId, Long versionId) {
+        List<String> keys = new ArrayList<>(4);
+        addKeys(keys, taskId, versionId);
+        invalidateKeys(keys);
+    }
+
+    /**
+     * 批量操作涉及的多组 (任务, 版本) 合并为一次脚本调用失效。
+     */
+    public void invalidateAll(Map<Long, Long> versionIdByTaskId) {
+        if (versionIdByTaskId == null || versionIdByTaskId.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(versionIdByTaskId.size() * 4);
+        versionIdByTaskId.forEach((taskId, versionId) -> addKeys(keys, taskId, versionId));
+        invalidateKeys(keys);
+    }
+
+    private void addKeys(List<String> keys, Long taskId, Long versionId) {
+        if (taskId != null) {
+            keys.add(taskGenerationKey(taskId));
+            keys.add(CacheConstants.DETAIL_TASK_PREFIX + taskId);
+        }
+        if (versionId != null) {
+            keys.add(versionGenerationKey(versionId));
+            keys.add(CacheConstants.DETAIL_REVIEW_PREFIX + versionId);
+        }
+    }
+
+    private void invalidateKeys(List<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doInvalidate(keys);
+                }
+            });
+            return;
+        }
+        doInvalidate(keys);
+    }
+
+    private DetailCacheEntry read(String generationKey, String entryKey) {
+        try {
+            List<Object> values = redisTemplate.opsForValue().multiGet(Arrays.asList(generationKey, entryKey));
+            if (values == null || values.size() < 2 || !(values.get(1) instanceof DetailCacheEntry)) {
+                return null;
+            }
+            DetailCacheEntry entry = (DetailCacheEntry) values.get(1);
+            long current = toLong(values.get(0));
+            return entry.getGeneration() != null && entry.getGeneration() == current ? entry : null;
+        } catch (Exception ex) {
+            log.warn("read detail cache failed, key={}", entryKey, ex);
+            return null;
+        }
+    }
+
+    private long generation(String generationKey) {
+        try {
+            return toLong(redisTemplate.opsForValue().get(generationKey));
+        } catch (Exception ex) {
+            log.warn("read detail cache generation failed, key={}", generationKey, ex);
+            return -1L;
+        }
+    }
+
+    private void write(String generationKey, String entryKey, long generation, DetailCacheEntry entry) {
+        // 读取版本号失败时不写缓存，避免在无法判断新旧的情况下落盘
+        if (generation < 0 || entry == null) {
+            return;
+        }
+        entry.setGeneration(generation);
+        try {
+            redisTemplate.execute(WRITE_SCRIPT, Arrays.asList(generationKey, entryKey),
+                    generation, entry, ENTRY_TTL.getSeconds());
+        } catch (Exception ex) {
+            log.warn("write detail cache failed, key={}", entryKey, ex);
+        }
+    }
+
+    private void doInvalidate(List<String> keys) {
+        try {
+            redisTemplate.execute(INVALIDATE_SCRIPT, keys, GENERATION_TTL.getSeconds());
+        } catch (Exception ex) {
+            log.warn("invalidate detail cache failed, keys={}", keys, ex);
+        }
+    }
+
+    private long toLong(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value != null) {
+            try {
+                return Long.parseLong(String.valueOf(value));
+            } catch (NumberFormatException ignored) {
+                return 0L;
+            }
+        }
+        return 0L;
+    }
+
+    private String taskGenerationKey(Long taskId) {
+        return CacheConstants.DETAIL_GEN_PREFIX + "task:" + taskId;
+    }
+
+    private String versionGenerationKey(Long versionId) {
+        return CacheConstants.DETAIL_GEN_PREFIX + "version:" + versionId;
+    }
+}
@@ -0,0 +1,174 @@
+package com.review.service.support;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.review.entity.ReviewTask;
+import com.review.entity.ReviewVersion;
+import com.review.entity.User;
+import com.review.mapper.ReviewTaskMapper;
+import com.review.mapper.ReviewVersionMapper;
+import com.review.mapper.TaskArchiveMapper;
+import com.review.mapper.UserMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 请求级实体加载器：同一请求内按主键查询的用户、任务、版本会被记忆，多个 ID 合并为一次 selectBatchIds。
+ * 调用方可先用批量方法预取，随后的单个查询直接命中；不在 Web 请求内（如 MQ 消费、定时任务）时不做记忆，直接查库。
+ * 记忆的是实体对象本身，服务内原地修改后 updateById 的场景仍保持一致；通过 UpdateWrapper 更新时需调用 forget，
+ * 乐观锁冲突重试前调用 clear 丢弃全部记忆。
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityLoader {
+
+    private static final String ATTRIBUTE_PREFIX = EntityLoader.class.getName() + ".";
+
+    private final UserMapper userMapper;
+    private final ReviewTaskMapper reviewTaskMapper;
+    private final ReviewVersionMapper reviewVersionMapper;
+    private final TaskArchiveMapper taskArchiveMapper;
+
+    public User user(Long id) {
+        return users(Collections.singleton(id)).get(id);
+    }
+
+    public Map<Long, User> users(Collection<Long> ids) {
+        return loadMany(User.class, userMapper, User::getId, ids);
+    }
+
+    public ReviewTask task(Long id) {
+        return tasks(Collections.singleton(id)).get(id);
+    }
+
+    public Map<Long, ReviewTask> tasks(Collection<Long> ids) {
+        return loadMany(ReviewTask.class, reviewTaskMapper, ReviewTask::getId, ids);
+    }
+
+    public ReviewVersion version(Long id) {
+        return versions(Collections.singleton(id)).get(id);
+    }
+
+    public Map<Long, ReviewVersion> versions(Collection<Long> ids) {
+        return loadMany(ReviewVersion.class, reviewVersionMapper, ReviewVersion::getId, ids);
+    }
+
+    /**
+     * 只读详情使用：热表不存在时回查归档表，归档实体标记 archived 且不做记忆。
+     */
+    public ReviewTask taskIncludingArchived(Long id) {
+        ReviewTask task = task(id);
+        if (task == null && id != null) {
+            task = taskArchiveMapper.selectTask(id);
+            if (task != null) {
+                task.setArchived(Boolean.TRUE);
+            }
+        }
+        return task;
+    }
+
+    public ReviewVersion versionIncludingArchived(Long id) {
+        ReviewVersion version = version(id);
+        if (version == null && id != null) {
+            version = taskArchiveMapper.selectVersion(id);
+            if (version != null) {
+                version.setArchived(Boolean.TRUE);
+            }
+        }
+        return version;
+    }
+
+    /**
+     * 绕过实体对象直接更新数据库后，移除对应的记忆结果。
+     */
+    public void forget(Class<?> type, Long id) {
+        Map<Long, Optional<Object>> memo = memo(type);
+        if (memo != null && id != null) {
+            memo.remove(id);
+        }
+    }
+
+    /**
+     * 丢弃当前请求内的全部记忆结果，下一次加载重新查库。
+     */
+    public void clear() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        for (Class<?> type : new Class<?>[]{User.class, ReviewTask.class, ReviewVersion.class}) {
+            attributes.removeAttribute(ATTRIBUTE_PREFIX + type.getSimpleName(), RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Map<Long, T> loadMany(Class<T> type, BaseMapper<T> mapper, Function<T, Long> idOf, Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Set<Long> wanted = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (id != null && id > 0) {
+                wanted.add(id);
+            }
+        }
+        if (wanted.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, Optional<Object>> memo = memo(type);
+        Map<Long, T> result = new HashMap<>(wanted.size() * 2);
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long id : wanted) {
+            Optional<Object> known = memo == null ? null : memo.get(id);
+            if (known == null) {
+                missing.add(id);
+            } else {
+                known.ifPresent(entity -> result.put(id, (T) entity));
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        List<T> loaded = mapper.selectBatchIds(missing);
+        for (T entity : loaded) {
+            Long id = idOf.apply(entity);
+            result.put(id, entity);
+            if (memo != null) {
+                memo.put(id, Optional.of(entity));
+            }
+        }
+        if (memo != null) {
+            // 不存在的 ID 同样记忆，避免同一请求内重复查询
+            for (Long id : missing) {
+                memo.putIfAbsent(id, Optional.empty());
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Optional<Object>> memo(Class<?> type) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        String name = ATTRIBUTE_PREFIX + type.getSimpleName();
+        Object memo = attributes.getAttribute(name, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = new HashMap<Long, Optional<Object>>();
+            attributes.setAttribute(name, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Map<Long, Optional<Object>>) memo;
+    }
+}
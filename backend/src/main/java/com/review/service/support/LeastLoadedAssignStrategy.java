@@ -0,0 +1,28 @@
+package com.review.service.support;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 默认策略：待审查任务最少者优先，负载相同时最久未被分配者优先。
+ */
+@Component
+@RequiredArgsConstructor
+public class LeastLoadedAssignStrategy implements ReviewerAssignStrategy {
+
+    public static final String NAME = "least-loaded";
+
+    private final ReviewerLoadTracker reviewerLoadTracker;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Long select(Long tenantId, List<Long> candidateIds) {
+        return reviewerLoadTracker.pickLeastLoaded(tenantId, candidateIds);
+    }
+}
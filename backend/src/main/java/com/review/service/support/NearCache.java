@@ -0,0 +1,170 @@
+package com.review.service.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.review.common.CacheConstants;
+import com.review.config.NearCacheProperties;
+import com.review.dto.CacheMonitorResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Redis 之前的进程内缓存层（L1），供 TaskCacheSupport 使用。
+ * 缓存值为共享实例，调用方只读不改；失效时先清本地再经 Redis 频道广播给其他节点。
+ * <p>
+ * 读取 Redis 前取得该 Key 的失效戳，回填时若期间该 Key 发生过失效则放弃回填，避免失效消息先于回填到达而留下旧值；
+ * 失效戳按 Key 哈希分段计数，其他 Key 的失效只在落入同一分段时影响回填。
+ * 广播丢失时旧值最多保留 expire-after-write-seconds 秒。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NearCache implements MessageListener {
+
+    private static final String KEY_SEPARATOR = "\n";
+
+    /** 失效戳分段数，须为 2 的幂 */
+    private static final int STAMP_STRIPES = 1024;
+
+    private final NearCacheProperties properties;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    private final AtomicLongArray invalidations = new AtomicLongArray(STAMP_STRIPES);
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+
+    private Cache<String, Object> local;
+
+    @PostConstruct
+    public void init() {
+        local = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWriteSeconds(), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        redisMessageListenerContainer.addMessageListener(this,
+                new ChannelTopic(CacheConstants.NEAR_CACHE_INVALIDATE_CHANNEL));
+    }
+
+    public Object get(String key) {
+        return properties.isEnabled() && key != null ? local.getIfPresent(key) : null;
+    }
+
+    /**
+     * 读取 Redis 之前调用，返回值交给 {@link #put} 判断回填是否仍然安全。
+     */
+    public long stamp(String key) {
+        return invalidations.get(stripe(key));
+    }
+
+    public void put(String key, Object value, long stamp) {
+        if (!properties.isEnabled() || key == null || value == null) {
+            return;
+        }
+        local.put(key, value);
+        // 写入与失效并发时以失效为准
+        if (invalidations.get(stripe(key)) != stamp) {
+            local.invalidate(key);
+        }
+    }
+
+    /**
+     * 本节点立即失效，并通知其他节点。
+     */
+    public void invalidate(String key) {
+        invalidateAll(Collections.singletonList(key));
+    }
+
+    /**
+     * 批量失效，多个 Key 以换行分隔合并为一条广播。
+     */
+    public void invalidateAll(Collection<String> keys) {
+        List<String> targets = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            if (key != null) {
+                invalidateLocal(key);
+                targets.add(key);
+            }
+        }
+        if (targets.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.convertAndSend(CacheConstants.NEAR_CACHE_INVALIDATE_CHANNEL,
+                    String.join(KEY_SEPARATOR, targets));
+        } catch (Exception ex) {
+            log.warn("publish near cache invalidation failed, keys={}", targets, ex);
+        }
+    }
+
+    public void recordRemote(boolean hit) {
+        if (hit) {
+            remoteHits.increment();
+        } else {
+            remoteMisses.increment();
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        byte[] body = message.getBody();
+        if (body == null || body.length == 0) {
+            return;
+        }
+        for (String key : new String(body, StandardCharsets.UTF_8).split(KEY_SEPARATOR)) {
+            if (!key.isEmpty()) {
+                invalidateLocal(key);
+            }
+        }
+    }
+
+    /**
+     * 本节点各层命中统计，自进程启动起累计。
+     */
+    public List<CacheMonitorResponse.TierStats> tierStats() {
+        CacheStats stats = local.stats();
+        List<CacheMonitorResponse.TierStats> tiers = new ArrayList<>(2);
+        tiers.add(tier("local", stats.hitCount(), stats.missCount(), local.estimatedSize()));
+        tiers.add(tier("redis", remoteHits.sum(), remoteMisses.sum(), null));
+        return tiers;
+    }
+
+    private void invalidateLocal(String key) {
+        invalidations.incrementAndGet(stripe(key));
+        local.invalidate(key);
+    }
+
+    private static int stripe(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STAMP_STRIPES - 1);
+    }
+
+    private CacheMonitorResponse.TierStats tier(String name, long hits, long misses, Long size) {
+        CacheMonitorResponse.TierStats tier = new CacheMonitorResponse.TierStats();
+        tier.setTier(name);
+        tier.setHits(hits);
+        tier.setMisses(misses);
+        long total = hits + misses;
+        tier.setHitRate(total == 0 ? 0.0 : (double) hits / total);
+        tier.setSize(size);
+        return tier;
+    }
+}
@@ -0,0 +1,54 @@
+package com.review.service.support;
+
+import com.review.common.BusinessException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * 乐观锁冲突重试：每次尝试在独立的新事务中执行，条件更新影响行数为 0 时抛出 conflict() 回滚本次尝试，
+ * 清空请求内的实体记忆后重新读取并校验。REPEATABLE READ 下同一事务内重读仍是旧快照，因此不能在事务内部重试；
+ * 重读后状态已变化的操作（如版本已审查）由业务校验给出明确提示，多次冲突仍未成功时提示用户刷新。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OptimisticRetry {
+
+    public static final String CONFLICT_CODE = "CONCURRENT_UPDATE";
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final PlatformTransactionManager transactionManager;
+    private final EntityLoader entityLoader;
+
+    public static BusinessException conflict() {
+        return new BusinessException(CONFLICT_CODE, "数据已被其他操作更新，请刷新后重试");
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return template.execute(status -> action.get());
+            } catch (BusinessException ex) {
+                if (!CONFLICT_CODE.equals(ex.getCode()) || attempt >= MAX_ATTEMPTS) {
+                    throw ex;
+                }
+                log.info("optimistic lock conflict, retrying, attempt={}", attempt);
+                entityLoader.clear();
+            }
+        }
+    }
+
+    public void run(Runnable action) {
+        execute(() -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,19 @@
+package com.review.service.support;
+
+import java.util.List;
+
+/**
+ * 审查员自动分配策略，通过配置 reviewer-assign.strategy 选择具体实现。
+ */
+public interface ReviewerAssignStrategy {
+
+    /**
+     * 策略名称，与配置值对应。
+     */
+    String name();
+
+    /**
+     * 从候选审查员中选出一位；候选列表已排除停用账号与任务创建人，且不为空。
+     */
+    Long select(Long tenantId, List<Long> candidateIds);
+}
@@ -0,0 +1,35 @@
+package com.review.service.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按配置选择审查员分配策略；配置了不存在的策略时退回负载优先。
+ */
+@Slf4j
+@Component
+public class ReviewerAssigner {
+
+    private final ReviewerAssignStrategy strategy;
+
+    public ReviewerAssigner(List<ReviewerAssignStrategy> strategies,
+                            @Value("${reviewer-assign.strategy:" + LeastLoadedAssignStrategy.NAME + "}") String name) {
+        Map<String, ReviewerAssignStrategy> byName = new HashMap<>();
+        strategies.forEach(item -> byName.put(item.name(), item));
+        ReviewerAssignStrategy configured = byName.get(name);
+        if (configured == null) {
+            log.warn("unknown reviewer assign strategy {}, fallback to {}", name, LeastLoadedAssignStrategy.NAME);
+            configured = byName.get(LeastLoadedAssignStrategy.NAME);
+        }
+        this.strategy = configured;
+    }
+
+    public Long assign(Long tenantId, List<Long> candidateIds) {
+        return strategy.select(tenantId, candidateIds);
+    }
+}
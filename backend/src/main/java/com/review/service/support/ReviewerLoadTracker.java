@@ -0,0 +1,154 @@
+package com.review.service.support;
+
+import com.review.common.CacheConstants;
+import com.review.dto.TaskStatisticRow;
+import com.review.mapper.ReviewTaskMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 审查员负载排行：每个租户一个 ZSET，成员为审查员 ID，score 为待审查任务数。
+ * 新建、审查、重新提交时随统计计数一起增量维护（提交前由 TaskStatCounter 向 CounterRebuildGuard 登记）；
+ * 排行不存在时按一条 GROUP BY 重建，且只在重建时设置过期时间，因此排行每天至多从数据库校准一次，分配时不做任何 COUNT 查询。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReviewerLoadTracker {
+
+    private static final Duration LOAD_TTL = Duration.ofDays(1);
+
+    /**
+     * 仅对已存在的排行做增量，负数截断为 0；不存在的排行由下次分配时重建，同时递增保护 epoch（KEYS[2]），
+     * 使进行中的重建放弃写入。ARGV[3] 为保护 TTL。
+     */
+    private static final DefaultRedisScript<Long> ADJUST_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then "
+                    + "  redis.call('HINCRBY', KEYS[2], 'epoch', 1) "
+                    + "  redis.call('EXPIRE', KEYS[2], ARGV[3]) "
+                    + "  return 0 "
+                    + "end "
+                    + "local score = tonumber(redis.call('ZINCRBY', KEYS[1], ARGV[2], ARGV[1])) "
+                    + "if score < 0 then redis.call('ZADD', KEYS[1], 0, ARGV[1]) end "
+                    + "return 1", Long.class);
+
+    /**
+     * 重建时只在排行不存在、且查询以来保护 epoch 未变、没有登记中的写事务时写入，否则返回 -1；
+     * KEYS[2] 为保护 Hash，ARGV[1] 为 TTL 秒数，ARGV[2] 为查询前的 epoch，之后按 (审查员, 待审数) 成对传入。
+     */
+    private static final DefaultRedisScript<Long> INIT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end "
+                    + "local guard = redis.call('HMGET', KEYS[2], 'epoch', 'pending') "
+                    + "if (guard[1] or '0') ~= ARGV[2] or tonumber(guard[2] or '0') > 0 then return -1 end "
+                    + "for j = 3, #ARGV, 2 do redis.call('ZADD', KEYS[1], ARGV[j + 1], ARGV[j]) end "
+                    + "redis.call('EXPIRE', KEYS[1], ARGV[1]) "
+                    + "return 1", Long.class);
+
+    /**
+     * 在候选人中选出待审数最少者，待审数相同时选最久未被分配的，并记录本次分配时间，
+     * 使同一时刻的并发分配在负载相同的审查员之间轮转。排行不存在时返回 -1。
+     * ARGV[1] 为当前毫秒时间，ARGV[2] 为分配时间 Hash 的 TTL 秒数，之后为候选审查员 ID。
+     */
+    private static final DefaultRedisScript<Long> PICK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end "
+                    + "local best, bestLoad, bestLast "
+                    + "for j = 3, #ARGV do "
+                    + "  local load = tonumber(redis.call('ZSCORE', KEYS[1], ARGV[j]) or '0') "
+                    + "  local last = tonumber(redis.call('HGET', KEYS[2], ARGV[j]) or '0') "
+                    + "  if best == nil or load < bestLoad or (load == bestLoad and last < bestLast) then "
+                    + "    best, bestLoad, bestLast = ARGV[j], load, last "
+                    + "  end "
+                    + "end "
+                    + "redis.call('HSET', KEYS[2], best, ARGV[1]) "
+                    + "redis.call('EXPIRE', KEYS[2], ARGV[2]) "
+                    + "return tonumber(best)", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ReviewTaskMapper reviewTaskMapper;
+    private final CounterRebuildGuard counterRebuildGuard;
+
+    /**
+     * 选出负载最低的候选审查员；Redis 不可用时退回候选列表第一位。
+     */
+    public Long pickLeastLoaded(Long tenantId, List<Long> candidateIds) {
+        List<String> keys = Arrays.asList(loadKey(tenantId), CacheConstants.REVIEWER_ASSIGNED_PREFIX + tenantId);
+        List<String> args = new ArrayList<>(candidateIds.size() + 2);
+        args.add(String.valueOf(System.currentTimeMillis()));
+        args.add(String.valueOf(LOAD_TTL.getSeconds()));
+        candidateIds.forEach(id -> args.add(String.valueOf(id)));
+        try {
+            Long picked = stringRedisTemplate.execute(PICK_SCRIPT, keys, args.toArray());
+            if (picked == null || picked < 0) {
+                rebuild(tenantId);
+                picked = stringRedisTemplate.execute(PICK_SCRIPT, keys, args.toArray());
+            }
+            if (picked != null && picked > 0) {
+                return picked;
+            }
+        } catch (Exception ex) {
+            log.warn("pick least loaded reviewer failed, tenantId={}", tenantId, ex);
+        }
+        return candidateIds.get(0);
+    }
+
+    /**
+     * 调整审查员待审数，由统计计数在事务提交后调用。
+     */
+    public void adjust(Long tenantId, Long reviewerId, long delta) {
+        if (tenantId == null || reviewerId == null || delta == 0) {
+            return;
+        }
+        try {
+            String key = loadKey(tenantId);
+            stringRedisTemplate.execute(ADJUST_SCRIPT, Arrays.asList(key, counterRebuildGuard.guardKey(key)),
+                    String.valueOf(reviewerId), String.valueOf(delta),
+                    String.valueOf(CounterRebuildGuard.GUARD_TTL.getSeconds()));
+        } catch (Exception ex) {
+            log.warn("adjust reviewer load failed, tenantId={}, reviewerId={}", tenantId, reviewerId, ex);
+            try {
+                stringRedisTemplate.delete(loadKey(tenantId));
+            } catch (Exception ignored) {
+                // Redis 不可用时由下次分配重建
+            }
+        }
+    }
+
+    /**
+     * 重建与并发调整重叠时放弃写入，本次分配退回候选列表第一位。
+     */
+    private void rebuild(Long tenantId) {
+        String key = loadKey(tenantId);
+        String epoch = counterRebuildGuard.epoch(key);
+        if (epoch == null) {
+            return;
+        }
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(LOAD_TTL.getSeconds()));
+        args.add(epoch);
+        for (TaskStatisticRow row : reviewTaskMapper.countPendingByReviewer(tenantId)) {
+            if (row.getUserId() == null) {
+                continue;
+            }
+            args.add(String.valueOf(row.getUserId()));
+            args.add(String.valueOf(row.getReviewing() == null ? 0L : row.getReviewing()));
+        }
+        // 没有待审任务的租户写入一个占位成员，避免排行不存在导致每次分配都重建
+        if (args.size() == 2) {
+            args.add("0");
+            args.add("0");
+        }
+        stringRedisTemplate.execute(INIT_SCRIPT, Arrays.asList(key, counterRebuildGuard.guardKey(key)), args.toArray());
+    }
+
+    public String loadKey(Long tenantId) {
+        return CacheConstants.REVIEWER_LOAD_PREFIX + tenantId;
+    }
+}
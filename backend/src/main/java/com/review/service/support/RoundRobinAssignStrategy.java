@@ -0,0 +1,41 @@
+package com.review.service.support;
+
+import com.review.common.CacheConstants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 轮询策略：按租户维护一个 INCR 游标，依次分配给候选审查员，不考虑当前负载。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoundRobinAssignStrategy implements ReviewerAssignStrategy {
+
+    public static final String NAME = "round-robin";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Long select(Long tenantId, List<Long> candidateIds) {
+        try {
+            Long cursor = stringRedisTemplate.opsForValue()
+                    .increment(CacheConstants.REVIEWER_ROUND_ROBIN_PREFIX + tenantId);
+            if (cursor != null) {
+                return candidateIds.get((int) Math.floorMod(cursor - 1, (long) candidateIds.size()));
+            }
+        } catch (Exception ex) {
+            log.warn("round robin reviewer assign failed, tenantId={}", tenantId, ex);
+        }
+        return candidateIds.get(0);
+    }
+}
@@ -0,0 +1,96 @@
+package com.review.service.support;
+
+import com.review.config.TaskArchiveProperties;
+import com.review.mapper.TaskArchiveMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 冷热分离：定时把审查通过且超过保留期的任务，连同版本、文件与读模型行迁入归档表。
+ * 每块一个短事务：先按主键锁定一批到期任务，复制到归档表后再从热表删除，块之间不持锁；
+ * 统计计数本身包含已归档任务，迁移不改变计数。多节点部署时通过 Redis 锁保证同一时间只有一个节点执行，启用租户分片时逐个分片处理。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskArchiver {
+
+    /** 租户分片迁移在冻结期间同样持有该锁，避免迁移校验与归档同时改动同一租户的数据 */
+    public static final String ARCHIVE_LOCK_KEY = "lock:task:archive";
+    private static final Duration ARCHIVE_LOCK_TTL = Duration.ofHours(2);
+
+    private final TaskArchiveMapper taskArchiveMapper;
+    private final TenantShardRouter tenantShardRouter;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final DetailCacheSupport detailCacheSupport;
+    private final TaskArchiveProperties properties;
+
+    @Scheduled(cron = "${task-archive.cron:0 0 4 * * ?}")
+    public void archive() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String owner = UUID.randomUUID().toString();
+        Boolean locked = stringRedisTemplate.opsForValue().setIfAbsent(ARCHIVE_LOCK_KEY, owner, ARCHIVE_LOCK_TTL);
+        if (!Boolean.TRUE.equals(locked)) {
+            log.info("task archive skipped, another node holds the lock");
+            return;
+        }
+        try {
+            LocalDateTime before = LocalDateTime.now().minusDays(properties.getRetentionDays());
+            int chunkSize = Math.max(properties.getChunkSize(), 1);
+            for (Integer shardId : tenantShardRouter.shardIds()) {
+                long archived = 0;
+                for (int chunk = 0; chunk < properties.getMaxChunksPerRun(); chunk++) {
+                    Integer moved = tenantShardRouter.inShard(shardId, false, () -> archiveChunk(before, chunkSize));
+                    archived += moved == null ? 0 : moved;
+                    if (moved == null || moved < chunkSize) {
+                        break;
+                    }
+                }
+                log.info("task archive finished, shard={}, before={}, tasks={}", shardId, before, archived);
+            }
+        } catch (Exception ex) {
+            log.error("task archive failed", ex);
+        } finally {
+            if (owner.equals(stringRedisTemplate.opsForValue().get(ARCHIVE_LOCK_KEY))) {
+                stringRedisTemplate.delete(ARCHIVE_LOCK_KEY);
+            }
+        }
+    }
+
+    private int archiveChunk(LocalDateTime before, int chunkSize) {
+        List<Long> taskIds = taskArchiveMapper.lockArchivableTaskIds(before, chunkSize);
+        if (taskIds.isEmpty()) {
+            return 0;
+        }
+        // 先复制后删除，子表先于父表；任何一步失败整块回滚
+        taskArchiveMapper.copyTasks(taskIds);
+        taskArchiveMapper.copyVersions(taskIds);
+        taskArchiveMapper.copyFiles(taskIds);
+        taskArchiveMapper.copyListRows(taskIds);
+        taskArchiveMapper.deleteFiles(taskIds);
+        taskArchiveMapper.deleteVersions(taskIds);
+        taskArchiveMapper.deleteListRows(taskIds);
+        int deleted = taskArchiveMapper.deleteTasks(taskIds);
+        if (deleted != taskIds.size()) {
+            throw new IllegalStateException("archived task count mismatch, expected " + taskIds.size()
+                    + ", deleted " + deleted);
+        }
+        // 已缓存的任务详情不带归档标记，提交后失效
+        Map<Long, Long> versionIdByTaskId = new LinkedHashMap<>(taskIds.size() * 2);
+        taskIds.forEach(taskId -> versionIdByTaskId.put(taskId, null));
+        detailCacheSupport.invalidateAll(versionIdByTaskId);
+        return taskIds.size();
+    }
+}
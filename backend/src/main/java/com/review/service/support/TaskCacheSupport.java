@@ -1,56 +1,236 @@
 package com.review.service.support;
 
 import com.review.common.CacheConstants;
+import com.review.common.TenantShardContext;
+import com.review.common.UserContext;
+import com.review.dto.RefreshableCacheEntry;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.annotation.PreDestroy;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * 审查任务相关的缓存辅助类，负责常用 Key 的生成、读取与失效。
+ * <p>
+ * 按条件组合的缓存（审查员选项、列表总数、租户列表）以命名空间 + 租户为单位失效：Key 中嵌入该命名空间当前的
+ * 代数，失效时只需 INCR 代数，旧 Key 不再可达、由 TTL 自然过期，无需扫描 keyspace。
+ * 代数 Key 的 TTL 远大于条目 TTL，过期归零时旧代数的条目早已过期，不会被重新命中。
+ * <p>
+ * 通过 {@link #load} 读取的条目在到期前进入刷新窗口：窗口内返回旧值，并由一个调用方在后台重新加载；
+ * 未命中时同一节点内的并发请求合并为一次加载，跨节点以短时 Redis 锁协调，其余节点稍候读取加载结果。
+ * <p>
+ * Redis 之前有一层进程内缓存（{@link NearCache}）：代数、{@link #read} 与 {@link #load} 的读取先查本地，
+ * 代数递增与 {@link #evict} 经 Redis 频道通知各节点清除本地副本。
  */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class TaskCacheSupport {
 
+    private static final Duration GENERATION_TTL = Duration.ofDays(1);
+
+    /** 平台级命名空间（如租户列表）使用的租户占位 */
+    private static final long PLATFORM_TENANT = 0L;
+
+    /**
+     * KEYS[1] 代数；ARGV[1] 代数 TTL 秒数。
+     */
+    private static final DefaultRedisScript<Long> BUMP_SCRIPT = new DefaultRedisScript<>(
+            "local generation = redis.call('INCR', KEYS[1]) "
+                    + "redis.call('EXPIRE', KEYS[1], ARGV[1]) "
+                    + "return generation", Long.class);
+
+    private static final String LOAD_LOCK_PREFIX = "lock:cache:load:";
+    private static final Duration LOAD_LOCK_TTL = Duration.ofSeconds(10);
+    private static final long LOAD_WAIT_INTERVAL_MILLIS = 50L;
+    private static final int LOAD_WAIT_ATTEMPTS = 20;
+
     private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final NearCache nearCache;
+
+    /** 本节点正在进行的未命中加载，按缓存 Key 合并 */
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /** 本节点正在后台刷新的缓存 Key */
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    /** 后台刷新线程池，队列满时放弃本次刷新，旧值仍可在刷新窗口内使用 */
+    private final ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(200));
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
 
     public Object read(String key) {
         if (redisTemplate == null || key == null) {
             return null;
         }
-        return redisTemplate.opsForValue().get(key);
+        Object local = nearCache.get(key);
+        if (local != null) {
+            return local;
+        }
+        long stamp = nearCache.stamp(key);
+        Object value = redisTemplate.opsForValue().get(key);
+        nearCache.recordRemote(value != null);
+        nearCache.put(key, value, stamp);
+        return value;
     }
 
+    /**
+     * 覆盖写入其他节点可能已缓存在本地的 Key，写入后广播失效。
+     */
     public void cache(String key, Object value, Duration ttl) {
         if (redisTemplate == null || key == null || ttl == null) {
             return;
         }
         redisTemplate.opsForValue().set(key, value, randomTtl(ttl));
+        nearCache.invalidate(key);
     }
 
-    public void evict(String key) {
-        if (redisTemplate == null || key == null) {
+    /**
+     * 写入任何节点都不会持有不同值的 Key（空值标记、带代数的新 Key），只回填本节点，不广播失效。
+     */
+    public void cacheFresh(String key, Object value, Duration ttl) {
+        if (redisTemplate == null || key == null || ttl == null) {
             return;
         }
-        redisTemplate.delete(key);
+        long stamp = nearCache.stamp(key);
+        redisTemplate.opsForValue().set(key, value, randomTtl(ttl));
+        nearCache.put(key, value, stamp);
     }
 
     /**
-     * 删除相关人员的统计缓存，确保任务状态变更后读取的是实时数据。
+     * 一次 MGET 读取多个 Key，返回值与 keys 顺序一一对应；本地缓存已有的 Key 不再访问 Redis。
      */
-    public void evictStatistics(Long tenantId, Long creatorId, Long reviewerId) {
-        if (redisTemplate == null || tenantId == null) {
+    public List<Object> readMany(List<String> keys) {
+        List<Object> values = new ArrayList<>(Collections.nCopies(keys.size(), null));
+        if (redisTemplate == null) {
+            return values;
+        }
+        List<String> remoteKeys = new ArrayList<>(keys.size());
+        List<Integer> positions = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            if (key == null) {
+                continue;
+            }
+            Object local = nearCache.get(key);
+            if (local != null) {
+                values.set(i, local);
+            } else {
+                remoteKeys.add(key);
+                positions.add(i);
+            }
+        }
+        if (remoteKeys.isEmpty()) {
+            return values;
+        }
+        long[] stamps = new long[remoteKeys.size()];
+        for (int i = 0; i < remoteKeys.size(); i++) {
+            stamps[i] = nearCache.stamp(remoteKeys.get(i));
+        }
+        List<Object> remoteValues = redisTemplate.opsForValue().multiGet(remoteKeys);
+        for (int i = 0; i < remoteKeys.size(); i++) {
+            Object value = remoteValues == null || i >= remoteValues.size() ? null : remoteValues.get(i);
+            nearCache.recordRemote(value != null);
+            nearCache.put(remoteKeys.get(i), value, stamps[i]);
+            values.set(positions.get(i), value);
+        }
+        return values;
+    }
+
+    public void evict(String key) {
+        evictMany(Collections.singletonList(key));
+    }
+
+    /**
+     * 以一条 UNLINK 删除多个 Key，内存由 Redis 后台线程回收，不阻塞调用方与其他命令。
+     */
+    public void evictMany(Collection<String> keys) {
+        if (redisTemplate == null || keys == null) {
             return;
         }
-        if (creatorId != null) {
-            redisTemplate.delete(userStatKey(tenantId, creatorId));
+        List<String> targets = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            if (key != null) {
+                targets.add(key);
+            }
         }
-        if (reviewerId != null) {
-            redisTemplate.delete(reviewerStatKey(tenantId, reviewerId));
+        if (targets.isEmpty()) {
+            return;
+        }
+        redisTemplate.unlink(targets);
+        nearCache.invalidateAll(targets);
+    }
+
+    /**
+     * 读取缓存，未命中时调用 loader 加载并写入。ttl 为新鲜期，条目实际保留 2 倍 ttl，
+     * 超过新鲜期后返回旧值并触发后台刷新。loader 返回 null 时不缓存。
+     * Key 为 null（如读取代数失败）时直接调用 loader。
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(String key, Duration ttl, Supplier<T> loader) {
+        if (redisTemplate == null || key == null || ttl == null) {
+            return loader.get();
+        }
+        RefreshableCacheEntry entry = readEntry(key);
+        if (entry != null) {
+            if (entry.needsRefresh(System.currentTimeMillis())) {
+                refreshAsync(key, ttl, loader);
+            }
+            return (T) entry.getValue();
+        }
+        return (T) coalesce(key, () -> loadAcrossNodes(key, ttl, loader));
+    }
+
+    /**
+     * 同一节点内对同一 Key 的并发调用只执行一次 action，其余调用等待并共享结果（含异常）。
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T coalesce(String key, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return (T) await(existing);
+        }
+        try {
+            T value = action.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException ex) {
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, future);
         }
     }
 
@@ -68,15 +248,51 @@ public class TaskCacheSupport {
         return CacheConstants.STAT_REVIEWER_PREFIX + tenantId + ":" + reviewerId;
     }
 
+    /**
+     * 读取代数失败时返回 null，调用方按未命中处理且不会写入缓存。
+     */
     public String reviewerOptionKey(Long tenantId) {
         if (tenantId == null) {
             return null;
         }
-        return CacheConstants.REVIEWER_OPTION_PREFIX + tenantId;
+        Long generation = generation(CacheConstants.REVIEWER_OPTION_PREFIX, tenantId);
+        return generation == null ? null : CacheConstants.REVIEWER_OPTION_PREFIX + tenantId + ":" + generation;
     }
 
     public String tenantListKey(String suffix) {
-        return CacheConstants.TENANT_LIST_PREFIX + (suffix == null ? "" : suffix);
+        Long generation = generation(CacheConstants.TENANT_LIST_PREFIX, PLATFORM_TENANT);
+        return generation == null ? null
+                : CacheConstants.TENANT_LIST_PREFIX + generation + ":" + (suffix == null ? "" : suffix);
+    }
+
+    public String taskListTotalKey(String role, Long tenantId, Long userId, String condition) {
+        if (tenantId == null || userId == null) {
+            return null;
+        }
+        Long generation = generation(CacheConstants.TASK_LIST_TOTAL_PREFIX, tenantId);
+        return generation == null ? null : CacheConstants.TASK_LIST_TOTAL_PREFIX + role + ":" + tenantId + ":"
+                + generation + ":" + userId + ":" + condition;
+    }
+
+    /**
+     * 租户的审查员人选变化（新增、停用、角色调整等）。
+     */
+    public void invalidateReviewerOptions(Long tenantId) {
+        invalidateNamespace(CacheConstants.REVIEWER_OPTION_PREFIX, tenantId);
+    }
+
+    /**
+     * 租户的任务数量或状态分布变化。
+     */
+    public void invalidateTaskListTotals(Long tenantId) {
+        invalidateNamespace(CacheConstants.TASK_LIST_TOTAL_PREFIX, tenantId);
+    }
+
+    /**
+     * 租户信息、状态或用户数变化；已用存储随上传频繁变化，由条目 TTL 兜底。
+     */
+    public void invalidateTenantList() {
+        invalidateNamespace(CacheConstants.TENANT_LIST_PREFIX, PLATFORM_TENANT);
     }
 
     public String taskMissKey(Long taskId) {
@@ -93,14 +309,228 @@ public class TaskCacheSupport {
         return CacheConstants.VERSION_MISS_PREFIX + versionId;
     }
 
-    public void evictByPrefix(String prefix) {
-        if (redisTemplate == null || prefix == null) {
+    /**
+     * 递增命名空间代数，处于事务中时在提交后执行，避免并发请求在提交前以新代数缓存旧数据。
+     */
+    private void invalidateNamespace(String namespace, Long tenantId) {
+        if (redisTemplate == null || tenantId == null) {
             return;
         }
-        Set<String> keys = redisTemplate.keys(prefix + "*");
-        if (keys != null && !keys.isEmpty()) {
-            redisTemplate.delete(keys);
+        String generationKey = generationKey(namespace, tenantId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(generationKey);
+                }
+            });
+            return;
         }
+        bump(generationKey);
+    }
+
+    private void bump(String generationKey) {
+        try {
+            redisTemplate.execute(BUMP_SCRIPT, Collections.singletonList(generationKey), GENERATION_TTL.getSeconds());
+        } catch (Exception ex) {
+            log.warn("bump cache generation failed, key={}", generationKey, ex);
+        }
+        nearCache.invalidate(generationKey);
+    }
+
+    private Long generation(String namespace, Long tenantId) {
+        if (redisTemplate == null) {
+            return null;
+        }
+        String generationKey = generationKey(namespace, tenantId);
+        Object local = nearCache.get(generationKey);
+        if (local instanceof Long) {
+            return (Long) local;
+        }
+        try {
+            long stamp = nearCache.stamp(generationKey);
+            Object value = redisTemplate.opsForValue().get(generationKey);
+            nearCache.recordRemote(value != null);
+            Long generation = value == null ? 0L
+                    : value instanceof Number ? ((Number) value).longValue() : Long.parseLong(String.valueOf(value));
+            nearCache.put(generationKey, generation, stamp);
+            return generation;
+        } catch (Exception ex) {
+            log.warn("read cache generation failed, namespace={}, tenantId={}", namespace, tenantId, ex);
+            return null;
+        }
+    }
+
+    /**
+     * 本地缓存只返回仍在新鲜期内的条目，进入刷新窗口后回到 Redis 读取，以便看到其他节点刷新的结果。
+     */
+    private RefreshableCacheEntry readEntry(String key) {
+        Object local = nearCache.get(key);
+        if (local instanceof RefreshableCacheEntry
+                && !((RefreshableCacheEntry) local).needsRefresh(System.currentTimeMillis())) {
+            return (RefreshableCacheEntry) local;
+        }
+        try {
+            long stamp = nearCache.stamp(key);
+            Object value = redisTemplate.opsForValue().get(key);
+            if (!(value instanceof RefreshableCacheEntry)) {
+                nearCache.recordRemote(false);
+                return null;
+            }
+            nearCache.recordRemote(true);
+            nearCache.put(key, value, stamp);
+            return (RefreshableCacheEntry) value;
+        } catch (Exception ex) {
+            log.warn("read cache entry failed, key={}", key, ex);
+            return null;
+        }
+    }
+
+    /**
+     * stamp 需在 loader 查询之前取得，查询期间发生失效时不回填本地缓存。
+     */
+    private void writeEntry(String key, Object value, Duration ttl, long stamp) {
+        if (value == null) {
+            return;
+        }
+        Duration fresh = randomTtl(ttl);
+        RefreshableCacheEntry entry = new RefreshableCacheEntry(value, System.currentTimeMillis() + fresh.toMillis());
+        nearCache.put(key, entry, stamp);
+        try {
+            redisTemplate.opsForValue().set(key, entry, fresh.plus(ttl));
+        } catch (Exception ex) {
+            log.warn("write cache entry failed, key={}", key, ex);
+        }
+    }
+
+    /**
+     * 持有跨节点加载锁的节点查询并写入；其他节点等待其结果，超时仍未写入时自行加载。
+     */
+    private <T> T loadAcrossNodes(String key, Duration ttl, Supplier<T> loader) {
+        String token = tryLock(key);
+        if (token == null) {
+            for (int i = 0; i < LOAD_WAIT_ATTEMPTS; i++) {
+                if (!sleepQuietly()) {
+                    break;
+                }
+                RefreshableCacheEntry entry = readEntry(key);
+                if (entry != null) {
+                    @SuppressWarnings("unchecked")
+                    T value = (T) entry.getValue();
+                    return value;
+                }
+            }
+        }
+        try {
+            long stamp = nearCache.stamp(key);
+            T value = loader.get();
+            writeEntry(key, value, ttl, stamp);
+            return value;
+        } finally {
+            unlock(key, token);
+        }
+    }
+
+    /**
+     * 后台刷新沿用调用线程的登录上下文与分片覆盖，保证 loader 路由到同一租户分片。
+     */
+    private <T> void refreshAsync(String key, Duration ttl, Supplier<T> loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        UserContext context = UserContext.getContext();
+        Long tenantOverride = TenantShardContext.getTenantId();
+        Integer shardOverride = TenantShardContext.getShardId();
+        try {
+            refreshExecutor.execute(() -> {
+                UserContext.setContext(context);
+                try {
+                    TenantShardContext.runAsTenant(tenantOverride, () -> {
+                        if (shardOverride == null) {
+                            refreshIfLocked(key, ttl, loader);
+                            return;
+                        }
+                        TenantShardContext.callOnShard(shardOverride, () -> {
+                            refreshIfLocked(key, ttl, loader);
+                            return null;
+                        });
+                    });
+                } catch (RuntimeException ex) {
+                    log.warn("refresh cache entry failed, key={}", key, ex);
+                } finally {
+                    refreshing.remove(key);
+                    UserContext.clear();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            refreshing.remove(key);
+            log.debug("skip cache refresh, executor busy, key={}", key);
+        }
+    }
+
+    private void refreshIfLocked(String key, Duration ttl, Supplier<?> loader) {
+        String token = tryLock(key);
+        if (token == null) {
+            return;
+        }
+        try {
+            long stamp = nearCache.stamp(key);
+            writeEntry(key, loader.get(), ttl, stamp);
+        } finally {
+            unlock(key, token);
+        }
+    }
+
+    /**
+     * 获取跨节点加载锁，返回持有标识；Redis 不可用时返回空串，按已持有处理直接加载。
+     */
+    private String tryLock(String key) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean locked = stringRedisTemplate.opsForValue().setIfAbsent(LOAD_LOCK_PREFIX + key, token, LOAD_LOCK_TTL);
+            return Boolean.TRUE.equals(locked) ? token : null;
+        } catch (Exception ex) {
+            log.warn("acquire cache load lock failed, key={}", key, ex);
+            return "";
+        }
+    }
+
+    private void unlock(String key, String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+        try {
+            if (token.equals(stringRedisTemplate.opsForValue().get(LOAD_LOCK_PREFIX + key))) {
+                stringRedisTemplate.delete(LOAD_LOCK_PREFIX + key);
+            }
+        } catch (Exception ex) {
+            log.warn("release cache load lock failed, key={}", key, ex);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    private boolean sleepQuietly() {
+        try {
+            Thread.sleep(LOAD_WAIT_INTERVAL_MILLIS);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private String generationKey(String namespace, Long tenantId) {
+        return CacheConstants.CACHE_GEN_PREFIX + namespace + tenantId;
     }
 
     private Duration randomTtl(Duration ttl) {
@@ -0,0 +1,113 @@
+package com.review.service.support;
+
+import com.review.mapper.TaskListViewMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 维护任务列表读模型 task_list_view。
+ * 各写入点在同一事务内调用，读模型与源表一起提交或回滚；复制中的新版本提交前不是当前版本，提交时整体刷新。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskListProjector {
+
+    /** 启动回填每批补齐的任务数 */
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private final TaskListViewMapper taskListViewMapper;
+    private final TenantShardRouter tenantShardRouter;
+
+    /**
+     * 任务或当前版本变化后整行重建。
+     */
+    public void refreshTask(Long taskId) {
+        if (taskId == null) {
+            return;
+        }
+        taskListViewMapper.upsertFromSource(Collections.singletonList(taskId));
+    }
+
+    /**
+     * 批量操作后一次性重建多行。
+     */
+    public void refreshTasks(Collection<Long> taskIds) {
+        if (taskIds == null || taskIds.isEmpty()) {
+            return;
+        }
+        taskListViewMapper.upsertFromSource(taskIds);
+    }
+
+    /**
+     * 版本文件数等变化，仅当该版本是任务当前版本时才会更新读模型。
+     */
+    public void refreshVersion(Long versionId) {
+        if (versionId == null) {
+            return;
+        }
+        taskListViewMapper.syncVersion(versionId);
+    }
+
+    /**
+     * 用户姓名或手机号变化后同步到其创建与负责审查的任务。
+     */
+    public void refreshUser(Long userId, String realName, String phone) {
+        if (userId == null) {
+            return;
+        }
+        taskListViewMapper.syncCreator(userId, realName, phone);
+        taskListViewMapper.syncReviewer(userId, realName, phone);
+    }
+
+    /**
+     * 启动时按主键游标分批补齐读模型中缺失的任务行（新部署、升级或上次回填中断），逐个分片执行，
+     * 每批只按主键比对并在独立事务中写入缺失行。回填失败时终止启动，避免读模型不完整时对外提供列表查询。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissing() {
+        for (Integer shardId : tenantShardRouter.shardIds()) {
+            try {
+                long rows = backfillShard(shardId);
+                if (rows > 0) {
+                    log.info("task list view backfilled, shardId={}, rows={}", shardId, rows);
+                }
+            } catch (RuntimeException ex) {
+                throw new IllegalStateException("task list view backfill failed, shardId=" + shardId, ex);
+            }
+        }
+    }
+
+    private long backfillShard(int shardId) {
+        long rows = 0;
+        long afterId = 0L;
+        while (true) {
+            long cursor = afterId;
+            List<Long> taskIds = tenantShardRouter.inShard(shardId, true,
+                    () -> taskListViewMapper.selectTaskIdsAfter(cursor, BACKFILL_BATCH_SIZE));
+            if (taskIds.isEmpty()) {
+                return rows;
+            }
+            List<Long> missing = tenantShardRouter.inShard(shardId, false, () -> {
+                Set<Long> existing = new HashSet<>(taskListViewMapper.selectExistingTaskIds(taskIds));
+                List<Long> absent = taskIds.stream().filter(id -> !existing.contains(id)).collect(Collectors.toList());
+                if (!absent.isEmpty()) {
+                    taskListViewMapper.upsertFromSource(absent);
+                }
+                return absent;
+            });
+            rows += missing.size();
+            afterId = taskIds.get(taskIds.size() - 1);
+        }
+    }
+}
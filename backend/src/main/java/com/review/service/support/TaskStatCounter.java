@@ -0,0 +1,440 @@
+package com.review.service.support;
+
+import com.review.dto.TaskStatisticResponse;
+import com.review.dto.TaskStatisticRow;
+import com.review.entity.ReviewTask;
+import com.review.mapper.ReviewTaskMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 任务统计计数器：每个 (租户, 用户, 角色) 一个 Redis Hash，任务状态流转时增量维护，
+ * 看板读取只需一次 HGETALL。计数缺失时用一条条件聚合 SQL 重建，重建与并发增量的先后由 CounterRebuildGuard 判定，
+ * 每日再整体校准一次以消除漂移。同一时机一并维护审查员负载排行，供自动分配使用。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskStatCounter {
+
+    private static final String FIELD_TOTAL = "total";
+    private static final String FIELD_REVIEWING = "REVIEWING";
+    private static final String FIELD_APPROVED = "APPROVED";
+    private static final String FIELD_REJECTED = "REJECTED";
+    private static final String MONTH_FIELD_PREFIX = "m:";
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Duration COUNTER_TTL = Duration.ofDays(7);
+    private static final String RECONCILE_LOCK_KEY = "lock:stat:reconcile";
+    private static final Duration RECONCILE_LOCK_TTL = Duration.ofMinutes(30);
+
+    /**
+     * 仅对已存在的 Hash 做增量；不存在的 Hash 由下次读取时整体重建，避免产生残缺计数，
+     * 同时递增其保护 epoch，使进行中的重建放弃写入。KEYS 前一半为计数、后一半为对应的保护 Hash，ARGV[1] 为保护 TTL。
+     */
+    private static final DefaultRedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "local n = #KEYS / 2 "
+                    + "for i = 1, n do "
+                    + "  if redis.call('EXISTS', KEYS[i]) == 1 then "
+                    + "    for j = 2, #ARGV, 2 do redis.call('HINCRBY', KEYS[i], ARGV[j], ARGV[j + 1]) end "
+                    + "  else "
+                    + "    redis.call('HINCRBY', KEYS[n + i], 'epoch', 1) "
+                    + "    redis.call('EXPIRE', KEYS[n + i], ARGV[1]) "
+                    + "  end "
+                    + "end "
+                    + "return 1", Long.class);
+
+    /**
+     * 重建时只在 Hash 不存在、且查询以来没有写事务登记或增量落空（保护 epoch 未变、pending 为 0）时写入；
+     * 返回 -1 表示快照可能与并发增量重叠，已放弃。KEYS[2] 为保护 Hash，ARGV[1] 为 TTL，ARGV[2] 为查询前的 epoch。
+     */
+    private static final DefaultRedisScript<Long> INIT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end "
+                    + "local guard = redis.call('HMGET', KEYS[2], 'epoch', 'pending') "
+                    + "if (guard[1] or '0') ~= ARGV[2] or tonumber(guard[2] or '0') > 0 then return -1 end "
+                    + "for j = 3, #ARGV, 2 do redis.call('HSET', KEYS[1], ARGV[j], ARGV[j + 1]) end "
+                    + "redis.call('EXPIRE', KEYS[1], ARGV[1]) "
+                    + "return 1", Long.class);
+
+    /**
+     * 校准时整体替换 Hash，清理历史月份字段。
+     */
+    private static final DefaultRedisScript<Long> REPLACE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('DEL', KEYS[1]) "
+                    + "for j = 2, #ARGV, 2 do redis.call('HSET', KEYS[1], ARGV[j], ARGV[j + 1]) end "
+                    + "redis.call('EXPIRE', KEYS[1], ARGV[1]) "
+                    + "return 1", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ReviewTaskMapper reviewTaskMapper;
+    private final TaskCacheSupport taskCacheSupport;
+    private final ReviewerLoadTracker reviewerLoadTracker;
+    private final TenantShardRouter tenantShardRouter;
+    private final CounterRebuildGuard counterRebuildGuard;
+
+    public TaskStatisticResponse loadForCreator(Long tenantId, Long userId) {
+        return load(taskCacheSupport.userStatKey(tenantId, userId), tenantId, userId, null);
+    }
+
+    public TaskStatisticResponse loadForReviewer(Long tenantId, Long reviewerId) {
+        return load(taskCacheSupport.reviewerStatKey(tenantId, reviewerId), tenantId, null, reviewerId);
+    }
+
+    /**
+     * 新建任务：计入总数、审查中及创建当月。计数变化的同时失效该租户按条件缓存的列表总数。
+     */
+    public void onCreated(Long tenantId, Long creatorId, Long reviewerId, LocalDateTime createTime) {
+        String month = monthField(createTime);
+        taskCacheSupport.invalidateTaskListTotals(tenantId);
+        afterCommit(counterKeys(tenantId, creatorId, reviewerId), () -> {
+            increment(tenantId, creatorId, reviewerId, FIELD_TOTAL, 1, FIELD_REVIEWING, 1, month + FIELD_TOTAL, 1);
+            reviewerLoadTracker.adjust(tenantId, reviewerId, 1);
+        });
+    }
+
+    /**
+     * 任务状态流转；审查通过时额外计入任务创建当月的通过数。
+     */
+    public void onTransition(Long tenantId, Long creatorId, Long reviewerId,
+                             String fromStatus, String toStatus, LocalDateTime taskCreateTime) {
+        if (fromStatus == null || toStatus == null || fromStatus.equals(toStatus)) {
+            return;
+        }
+        List<Object> deltas = new ArrayList<>(Arrays.asList(fromStatus, -1, toStatus, 1));
+        if (FIELD_APPROVED.equals(toStatus)) {
+            deltas.add(monthField(taskCreateTime) + FIELD_APPROVED);
+            deltas.add(1);
+        }
+        long reviewingDelta = reviewingDelta(fromStatus, toStatus);
+        taskCacheSupport.invalidateTaskListTotals(tenantId);
+        afterCommit(counterKeys(tenantId, creatorId, reviewerId), () -> {
+            increment(tenantId, creatorId, reviewerId, deltas.toArray());
+            reviewerLoadTracker.adjust(tenantId, reviewerId, reviewingDelta);
+        });
+    }
+
+    /**
+     * 批量状态流转：按 (创建人, 审查员, 创建月份) 合并增量，提交后每组只执行一次脚本。
+     */
+    public void onTransitions(Collection<ReviewTask> tasks, String fromStatus, String toStatus) {
+        if (tasks == null || tasks.isEmpty() || fromStatus == null || toStatus == null
+                || fromStatus.equals(toStatus)) {
+            return;
+        }
+        Map<String, List<ReviewTask>> groups = new LinkedHashMap<>();
+        Set<String> keys = new LinkedHashSet<>();
+        for (ReviewTask task : tasks) {
+            String group = task.getTenantId() + ":" + task.getCreatorId() + ":" + task.getReviewerId()
+                    + ":" + monthField(task.getCreateTime());
+            groups.computeIfAbsent(group, key -> new ArrayList<>()).add(task);
+            keys.addAll(counterKeys(task.getTenantId(), task.getCreatorId(), task.getReviewerId()));
+        }
+        long reviewingDelta = reviewingDelta(fromStatus, toStatus);
+        tasks.stream().map(ReviewTask::getTenantId).distinct().forEach(taskCacheSupport::invalidateTaskListTotals);
+        afterCommit(keys, () -> groups.values().forEach(members -> {
+            ReviewTask sample = members.get(0);
+            int count = members.size();
+            List<Object> deltas = new ArrayList<>(Arrays.asList(fromStatus, -count, toStatus, count));
+            if (FIELD_APPROVED.equals(toStatus)) {
+                deltas.add(monthField(sample.getCreateTime()) + FIELD_APPROVED);
+                deltas.add(count);
+            }
+            increment(sample.getTenantId(), sample.getCreatorId(), sample.getReviewerId(), deltas.toArray());
+            reviewerLoadTracker.adjust(sample.getTenantId(), sample.getReviewerId(), reviewingDelta * count);
+        }));
+    }
+
+    /**
+     * 每日校准：两条 GROUP BY 条件聚合分别覆盖创建者与审查员维度，整体覆盖计数。
+     * 多节点部署时通过 Redis 锁保证同一时间只有一个节点执行。
+     */
+    @Scheduled(cron = "${task-stat.reconcile-cron:0 30 3 * * ?}")
+    public void reconcile() {
+        String owner = UUID.randomUUID().toString();
+        Boolean locked = stringRedisTemplate.opsForValue()
+                .setIfAbsent(RECONCILE_LOCK_KEY, owner, RECONCILE_LOCK_TTL);
+        if (!Boolean.TRUE.equals(locked)) {
+            log.info("task statistic reconcile skipped, another node holds the lock");
+            return;
+        }
+        try {
+            LocalDateTime monthStart = currentMonthStart();
+            int creators = 0;
+            int reviewers = 0;
+            // 每个租户的数据只在一个分片，按分片依次聚合即可覆盖全部计数
+            for (Integer shardId : tenantShardRouter.shardIds()) {
+                List<TaskStatisticRow> creatorRows = tenantShardRouter.inShard(shardId, false,
+                        () -> reviewTaskMapper.aggregateByCreator(monthStart));
+                for (TaskStatisticRow row : creatorRows) {
+                    replace(taskCacheSupport.userStatKey(row.getTenantId(), row.getUserId()), row);
+                    creators++;
+                }
+                List<TaskStatisticRow> reviewerRows = tenantShardRouter.inShard(shardId, false,
+                        () -> reviewTaskMapper.aggregateByReviewer(monthStart));
+                for (TaskStatisticRow row : reviewerRows) {
+                    replace(taskCacheSupport.reviewerStatKey(row.getTenantId(), row.getUserId()), row);
+                    reviewers++;
+                }
+            }
+            log.info("task statistic reconcile finished, creators={}, reviewers={}", creators, reviewers);
+        } catch (Exception ex) {
+            log.error("task statistic reconcile failed", ex);
+        } finally {
+            if (owner.equals(stringRedisTemplate.opsForValue().get(RECONCILE_LOCK_KEY))) {
+                stringRedisTemplate.delete(RECONCILE_LOCK_KEY);
+            }
+        }
+    }
+
+    private TaskStatisticResponse load(String key, Long tenantId, Long creatorId, Long reviewerId) {
+        if (key == null) {
+            return new TaskStatisticResponse();
+        }
+        Map<Object, Object> hash = readHash(key);
+        if (hash != null && !hash.isEmpty()) {
+            return toResponse(hash);
+        }
+        // 计数 Hash 过期后的并发读取在本节点合并为一次聚合查询
+        Map<String, Long> fields = taskCacheSupport.coalesce(key, () -> {
+            String epoch = counterRebuildGuard.epoch(key);
+            TaskStatisticRow row = reviewTaskMapper.aggregateStatistics(tenantId, creatorId, reviewerId, currentMonthStart());
+            Map<String, Long> aggregated = toFields(row);
+            if (epoch != null) {
+                initialize(key, epoch, aggregated);
+            }
+            return aggregated;
+        });
+        return toResponse(new LinkedHashMap<Object, Object>(fields));
+    }
+
+    private TaskStatisticResponse toResponse(Map<Object, Object> hash) {
+        String month = monthField(LocalDateTime.now());
+        TaskStatisticResponse response = new TaskStatisticResponse();
+        long total = field(hash, FIELD_TOTAL);
+        long approved = field(hash, FIELD_APPROVED);
+        response.setTotal(total);
+        response.setReviewing(field(hash, FIELD_REVIEWING));
+        response.setApproved(approved);
+        response.setRejected(field(hash, FIELD_REJECTED));
+        response.setMonthTotal(field(hash, month + FIELD_TOTAL));
+        response.setMonthApproved(field(hash, month + FIELD_APPROVED));
+        response.setPassRate(total == 0 ? 0.0 : Math.round((approved * 1.0 / total) * 1000.0) / 1000.0);
+        return response;
+    }
+
+    private Map<String, Long> toFields(TaskStatisticRow row) {
+        String month = monthField(LocalDateTime.now());
+        Map<String, Long> fields = new LinkedHashMap<>();
+        fields.put(FIELD_TOTAL, row == null ? 0L : nullToZero(row.getTotal()));
+        fields.put(FIELD_REVIEWING, row == null ? 0L : nullToZero(row.getReviewing()));
+        fields.put(FIELD_APPROVED, row == null ? 0L : nullToZero(row.getApproved()));
+        fields.put(FIELD_REJECTED, row == null ? 0L : nullToZero(row.getRejected()));
+        fields.put(month + FIELD_TOTAL, row == null ? 0L : nullToZero(row.getMonthTotal()));
+        fields.put(month + FIELD_APPROVED, row == null ? 0L : nullToZero(row.getMonthApproved()));
+        return fields;
+    }
+
+    private Map<Object, Object> readHash(String key) {
+        try {
+            return stringRedisTemplate.opsForHash().entries(key);
+        } catch (Exception ex) {
+            log.warn("read task statistic counter failed, key={}", key, ex);
+            return null;
+        }
+    }
+
+    private void increment(Long tenantId, Long creatorId, Long reviewerId, Object... fieldDeltas) {
+        List<String> keys = new ArrayList<>(2);
+        String creatorKey = taskCacheSupport.userStatKey(tenantId, creatorId);
+        String reviewerKey = taskCacheSupport.reviewerStatKey(tenantId, reviewerId);
+        if (creatorKey != null) {
+            keys.add(creatorKey);
+        }
+        if (reviewerKey != null) {
+            keys.add(reviewerKey);
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<String> scriptKeys = new ArrayList<>(keys);
+        scriptKeys.addAll(counterRebuildGuard.guardKeys(keys));
+        List<Object> args = new ArrayList<>(fieldDeltas.length + 1);
+        args.add(CounterRebuildGuard.GUARD_TTL.getSeconds());
+        args.addAll(Arrays.asList(fieldDeltas));
+        // 计数失败时删除对应 Hash，下次读取会重新聚合，避免长期偏差
+        try {
+            stringRedisTemplate.execute(INCREMENT_SCRIPT, scriptKeys, toArgs(args.toArray()));
+        } catch (Exception ex) {
+            log.warn("increment task statistic counter failed, keys={}", keys, ex);
+            try {
+                taskCacheSupport.evictMany(keys);
+            } catch (Exception ignored) {
+                // Redis 不可用时由每日校准兜底
+            }
+        }
+    }
+
+    private void initialize(String key, String epoch, Map<String, Long> fields) {
+        List<Object> args = new ArrayList<>(fields.size() * 2 + 2);
+        args.add(COUNTER_TTL.getSeconds());
+        args.add(epoch);
+        fields.forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+        try {
+            Long result = stringRedisTemplate.execute(INIT_SCRIPT,
+                    Arrays.asList(key, counterRebuildGuard.guardKey(key)), toArgs(args.toArray()));
+            if (result != null && result < 0) {
+                log.debug("task statistic rebuild overlapped concurrent updates, discarded, key={}", key);
+            }
+        } catch (Exception ex) {
+            log.warn("initialize task statistic counter failed, key={}", key, ex);
+        }
+    }
+
+    private void replace(String key, TaskStatisticRow row) {
+        if (key == null) {
+            return;
+        }
+        stringRedisTemplate.execute(REPLACE_SCRIPT, Collections.singletonList(key), hashArgs(toFields(row)));
+    }
+
+    private Object[] hashArgs(Map<String, Long> fields) {
+        List<Object> args = new ArrayList<>(fields.size() * 2 + 1);
+        args.add(COUNTER_TTL.getSeconds());
+        fields.forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+        return toArgs(args.toArray());
+    }
+
+    private Object[] toArgs(Object... values) {
+        Object[] args = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            args[i] = String.valueOf(values[i]);
+        }
+        return args;
+    }
+
+    /**
+     * 一次状态变化涉及的计数 Key：创建者与审查员统计，以及租户的审查员负载排行。
+     */
+    private List<String> counterKeys(Long tenantId, Long creatorId, Long reviewerId) {
+        List<String> keys = new ArrayList<>(3);
+        String creatorKey = taskCacheSupport.userStatKey(tenantId, creatorId);
+        String reviewerKey = taskCacheSupport.reviewerStatKey(tenantId, reviewerId);
+        if (creatorKey != null) {
+            keys.add(creatorKey);
+        }
+        if (reviewerKey != null) {
+            keys.add(reviewerKey);
+        }
+        if (tenantId != null) {
+            keys.add(reviewerLoadTracker.loadKey(tenantId));
+        }
+        return keys;
+    }
+
+    /**
+     * 事务提交前向重建保护登记，提交后执行增量，结束（含回滚）时注销；
+     * 登记失败时无法与重建区分先后，提交后改为删除相关计数。
+     */
+    private void afterCommit(Collection<String> keys, Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            boolean registered = counterRebuildGuard.begin(keys);
+            try {
+                applyOrEvict(registered, keys, action);
+            } finally {
+                if (registered) {
+                    counterRebuildGuard.end(keys);
+                }
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean registered;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                registered = counterRebuildGuard.begin(keys);
+            }
+
+            @Override
+            public void afterCommit() {
+                applyOrEvict(registered, keys, action);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (registered) {
+                    counterRebuildGuard.end(keys);
+                }
+            }
+        });
+    }
+
+    private void applyOrEvict(boolean registered, Collection<String> keys, Runnable action) {
+        if (registered) {
+            action.run();
+            return;
+        }
+        try {
+            taskCacheSupport.evictMany(keys);
+        } catch (Exception ex) {
+            log.warn("evict task statistic counters failed, keys={}", keys, ex);
+        }
+    }
+
+    private long field(Map<Object, Object> hash, String name) {
+        Object value = hash.get(name);
+        if (value == null) {
+            return 0L;
+        }
+        try {
+            return Math.max(0L, Long.parseLong(String.valueOf(value)));
+        } catch (NumberFormatException ex) {
+            return 0L;
+        }
+    }
+
+    /**
+     * 状态流转对审查员待审数的影响：进入审查中 +1，离开审查中 -1。
+     */
+    private long reviewingDelta(String fromStatus, String toStatus) {
+        return (FIELD_REVIEWING.equals(toStatus) ? 1 : 0) - (FIELD_REVIEWING.equals(fromStatus) ? 1 : 0);
+    }
+
+    private long nullToZero(Long value) {
+        return value == null ? 0L : value;
+    }
+
+    private String monthField(LocalDateTime time) {
+        return MONTH_FIELD_PREFIX + (time == null ? LocalDate.now() : time.toLocalDate()).format(MONTH_FORMAT) + ":";
+    }
+
+    private LocalDateTime currentMonthStart() {
+        return LocalDate.now().withDayOfMonth(1).atStartOfDay();
+    }
+}
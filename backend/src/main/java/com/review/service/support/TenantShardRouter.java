@@ -0,0 +1,100 @@
+package com.review.service.support;
+
+import com.review.common.CacheConstants;
+import com.review.common.TenantShardContext;
+import com.review.config.TenantShardRoutingDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 业务侧的分片入口：未启用分片时只有分片 0，调用方无需区分。
+ * 在指定分片执行的操作总是开启新事务，外层事务已绑定的连接不会被复用，因此可在事务内外调用。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TenantShardRouter {
+
+    private final ObjectProvider<TenantShardRoutingDataSource> routingProvider;
+    private final PlatformTransactionManager transactionManager;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public boolean isEnabled() {
+        return routingProvider.getIfAvailable() != null;
+    }
+
+    public List<Integer> shardIds() {
+        TenantShardRoutingDataSource routing = routingProvider.getIfAvailable();
+        return routing == null
+                ? Collections.singletonList(TenantShardRoutingDataSource.DIRECTORY_SHARD)
+                : routing.shardIds();
+    }
+
+    public int shardOf(Long tenantId) {
+        TenantShardRoutingDataSource routing = routingProvider.getIfAvailable();
+        return routing == null ? TenantShardRoutingDataSource.DIRECTORY_SHARD : routing.shardOf(tenantId);
+    }
+
+    public void evict(Long tenantId) {
+        TenantShardRoutingDataSource routing = routingProvider.getIfAvailable();
+        if (routing != null) {
+            routing.evict(tenantId);
+        }
+    }
+
+    /**
+     * 在指定分片的新事务中执行；readOnly 为 true 时分片 0 可路由到只读副本。
+     */
+    public <T> T inShard(int shardId, boolean readOnly, Supplier<T> action) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setReadOnly(readOnly);
+        return TenantShardContext.callOnShard(shardId, () -> template.execute(status -> action.get()));
+    }
+
+    public void runInShard(int shardId, Runnable action) {
+        inShard(shardId, false, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * 分片主库连接池，仅供迁移工具使用。
+     */
+    public DataSource writableShard(int shardId) {
+        TenantShardRoutingDataSource routing = routingProvider.getIfAvailable();
+        if (routing == null) {
+            throw new IllegalStateException("tenant sharding is disabled");
+        }
+        return routing.writableShard(shardId);
+    }
+
+    /**
+     * 租户是否处于迁移切换的写入冻结期。只有目录行标记为迁移中的租户才检查 Redis 冻结标记，
+     * 此时 Redis 不可用按已冻结处理：冻结期间漏放的写入会落在源分片，并在迁移的清理阶段被删除。
+     */
+    public boolean isFrozen(Long tenantId) {
+        TenantShardRoutingDataSource routing = routingProvider.getIfAvailable();
+        if (tenantId == null || routing == null || !routing.isMigrating(tenantId)) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.hasKey(CacheConstants.TENANT_SHARD_FREEZE_PREFIX + tenantId));
+        } catch (Exception ex) {
+            log.warn("check tenant shard freeze failed, rejecting write during migration, tenantId={}", tenantId, ex);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.review.service.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.review.common.CacheConstants;
+import com.review.dto.UserEventMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本节点持有的 SSE 连接注册表，订阅 Redis 事件频道并把事件下发给对应用户。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserEventHub implements MessageListener {
+
+    private static final long EMITTER_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final long HEARTBEAT_SECONDS = 25;
+    private static final int MAX_EMITTERS_PER_USER = 5;
+
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService heartbeatExecutor = Executors.newSingleThreadScheduledExecutor();
+
+    @PostConstruct
+    public void init() {
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(CacheConstants.USER_EVENT_CHANNEL));
+        heartbeatExecutor.scheduleAtFixedRate(this::heartbeat, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatExecutor.shutdownNow();
+        emitters.values().forEach(list -> list.forEach(SseEmitter::complete));
+        emitters.clear();
+    }
+
+    /**
+     * 为用户建立新的 SSE 连接，单用户连接数超限时关闭最早的连接。
+     */
+    public SseEmitter connect(Long userId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        List<SseEmitter> userEmitters = emitters.computeIfAbsent(userId, key -> new CopyOnWriteArrayList<>());
+        userEmitters.add(emitter);
+        while (userEmitters.size() > MAX_EMITTERS_PER_USER) {
+            SseEmitter oldest = userEmitters.remove(0);
+            oldest.complete();
+        }
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(ex -> remove(userId, emitter));
+        try {
+            emitter.send(SseEmitter.event().name("CONNECTED").data("ok"));
+        } catch (IOException ex) {
+            remove(userId, emitter);
+        }
+        return emitter;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        UserEventMessage event;
+        try {
+            event = objectMapper.readValue(message.getBody(), UserEventMessage.class);
+        } catch (Exception ex) {
+            log.warn("unreadable user event, size={}", message.getBody() == null ? 0 : message.getBody().length);
+            return;
+        }
+        List<SseEmitter> userEmitters = emitters.get(event.getUserId());
+        if (userEmitters == null || userEmitters.isEmpty()) {
+            return;
+        }
+        for (SseEmitter emitter : userEmitters) {
+            try {
+                emitter.send(SseEmitter.event().name(event.getType()).data(event));
+            } catch (Exception ex) {
+                remove(event.getUserId(), emitter);
+            }
+        }
+    }
+
+    private void heartbeat() {
+        emitters.forEach((userId, list) -> {
+            for (SseEmitter emitter : list) {
+                try {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                } catch (Exception ex) {
+                    remove(userId, emitter);
+                }
+            }
+        });
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (key, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+}
@@ -0,0 +1,49 @@
+package com.review.service.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.review.common.CacheConstants;
+import com.review.dto.UserEventMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 用户事件发布：通过 Redis pub/sub 广播，由持有该用户 SSE 连接的节点负责下发。
+ * 处于事务中时在提交后再发布，避免前端收到事件后读到未提交的数据。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserEventPublisher {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    public void publish(UserEventMessage event) {
+        if (event == null || event.getUserId() == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doPublish(event);
+                }
+            });
+            return;
+        }
+        doPublish(event);
+    }
+
+    private void doPublish(UserEventMessage event) {
+        // 推送只是加速手段，失败时前端仍可通过查询接口获取最新状态，不影响主流程
+        try {
+            stringRedisTemplate.convertAndSend(CacheConstants.USER_EVENT_CHANNEL, objectMapper.writeValueAsString(event));
+        } catch (Exception ex) {
+            log.warn("publish user event failed, type={}, user={}", event.getType(), event.getUserId(), ex);
+        }
+    }
+}
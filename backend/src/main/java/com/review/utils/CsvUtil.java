@@ -0,0 +1,46 @@
+package com.review.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * CSV 写出工具：按 RFC 4180 转义字段，并防止表格软件把单元格当作公式执行
+ */
+public final class CsvUtil {
+
+    /**
+     * UTF-8 BOM，保证 Excel 直接打开时中文不乱码
+     */
+    public static final char BOM = '\uFEFF';
+
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private CsvUtil() {
+    }
+
+    /**
+     * 写出一行，字段为 null 时输出空单元格
+     *
+     * @param writer 输出目标
+     * @param fields 字段值
+     */
+    public static void writeRow(Writer writer, Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escape(fields[i] == null ? "" : String.valueOf(fields[i])));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String escape(String value) {
+        if (value.isEmpty()) {
+            return value;
+        }
+        String text = FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+        boolean quote = text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+        return quote ? '"' + text.replace("\"", "\"\"") + '"' : text;
+    }
+}
@@ -0,0 +1,129 @@
+package com.review.utils;
+
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 关键字检索工具：拆分检索词、生成 ngram 全文检索表达式以及高亮片段
+ */
+public final class KeywordUtil {
+
+    /**
+     * 与 MySQL ngram_token_size 保持一致，短于该长度的检索词无法命中全文索引
+     */
+    public static final int NGRAM_TOKEN_SIZE = 2;
+
+    private static final int MAX_TERMS = 5;
+
+    private static final String BOOLEAN_OPERATORS = "+-<>()~*\"@";
+
+    private static final String HIGHLIGHT_OPEN = "<em>";
+
+    private static final String HIGHLIGHT_CLOSE = "</em>";
+
+    private KeywordUtil() {
+    }
+
+    /**
+     * 按空白拆分检索词，并去除全文检索布尔运算符
+     *
+     * @param keyword 用户输入的关键字
+     * @return 去重后的检索词，最多 5 个
+     */
+    public static List<String> splitTerms(String keyword) {
+        if (!StringUtils.hasText(keyword)) {
+            return Collections.emptyList();
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        for (String part : keyword.trim().split("\\s+")) {
+            StringBuilder cleaned = new StringBuilder(part.length());
+            for (char ch : part.toCharArray()) {
+                if (BOOLEAN_OPERATORS.indexOf(ch) < 0) {
+                    cleaned.append(ch);
+                }
+            }
+            if (cleaned.length() > 0) {
+                terms.add(cleaned.toString());
+            }
+            if (terms.size() >= MAX_TERMS) {
+                break;
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * 生成 BOOLEAN MODE 检索表达式，每个检索词按短语必须命中
+     *
+     * @param terms 检索词
+     * @return 检索表达式；没有可走全文索引的检索词时返回 null
+     */
+    public static String toBooleanQuery(List<String> terms) {
+        StringBuilder query = new StringBuilder();
+        for (String term : terms) {
+            if (term.length() < NGRAM_TOKEN_SIZE) {
+                continue;
+            }
+            if (query.length() > 0) {
+                query.append(' ');
+            }
+            query.append("+\"").append(term).append('"');
+        }
+        return query.length() == 0 ? null : query.toString();
+    }
+
+    /**
+     * 将文本中命中的检索词包裹为 &lt;em&gt; 片段，其余内容做 HTML 转义
+     *
+     * @param text  原始文本
+     * @param terms 检索词
+     * @return 可直接渲染的高亮文本
+     */
+    public static String highlight(String text, List<String> terms) {
+        if (!StringUtils.hasText(text) || terms == null || terms.isEmpty()) {
+            return text == null ? null : HtmlUtils.htmlEscape(text);
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        boolean caseFolded = lower.length() == text.length();
+        if (!caseFolded) {
+            lower = text;
+        }
+        boolean[] marked = new boolean[text.length()];
+        for (String term : terms) {
+            String needle = caseFolded ? term.toLowerCase(Locale.ROOT) : term;
+            if (needle.isEmpty()) {
+                continue;
+            }
+            int from = 0;
+            int index;
+            while ((index = lower.indexOf(needle, from)) >= 0) {
+                Arrays.fill(marked, index, index + needle.length(), true);
+                from = index + needle.length();
+            }
+        }
+        StringBuilder result = new StringBuilder(text.length() + 16);
+        int start = 0;
+        while (start < text.length()) {
+            int end = start;
+            while (end < text.length() && marked[end] == marked[start]) {
+                end++;
+            }
+            String segment = HtmlUtils.htmlEscape(text.substring(start, end));
+            if (marked[start]) {
+                result.append(HIGHLIGHT_OPEN).append(segment).append(HIGHLIGHT_CLOSE);
+            } else {
+                result.append(segment);
+            }
+            start = end;
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,246 @@
+package com.review.config;
+
+import com.review.common.UserContext;
+import com.review.dto.CursorPageResponse;
+import com.review.dto.QueryPlanReportResponse;
+import com.review.dto.TaskListItemResponse;
+import com.review.dto.TaskListQueryRequest;
+import com.review.dto.TenantQueryRequest;
+import com.review.service.FileService;
+import com.review.service.ReviewService;
+import com.review.service.TaskService;
+import com.review.service.TenantService;
+import io.minio.MinioClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.MountableFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * 查询计划回归测试：在 MySQL 8 容器中装载 sql/schema.sql 与 sql/plan-check-seed.sql，
+ * 以巡检租户的提交者、审查员身份调用各服务的读路径以及文件删除的引用计数路径，再检查 QueryPlanInspector 记录的
+ * EXPLAIN 结果，出现全表扫描、全索引扫描、文件排序或偏离 plan-check.expected-indexes 的索引时失败。
+ * <p>
+ * 默认需要本机可用的 Docker；没有 Docker 时可先在已有的 MySQL 中执行上述两个脚本，再以
+ * -Dplan-check.external=true 并通过 spring.datasource.*、spring.redis.* 系统属性指向该库与 Redis 运行。
+ * 两者都不具备时整个类跳过。删除路径会修改仿真数据，重复运行前需重新执行 plan-check-seed.sql。
+ */
+@SpringBootTest
+@ActiveProfiles("embedded-mq")
+@EnabledIf("planCheckAvailable")
+class QueryPlanRegressionTest {
+
+    private static final long TENANT_ID = 9001L;
+    private static final Path SQL_DIR = Paths.get("..", "sql");
+    private static final boolean EXTERNAL = Boolean.getBoolean("plan-check.external");
+
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("file_review_system")
+            .withCommand("--character-set-server=utf8mb4", "--collation-server=utf8mb4_unicode_ci")
+            .withCopyFileToContainer(MountableFile.forHostPath(SQL_DIR.resolve("schema.sql")),
+                    "/docker-entrypoint-initdb.d/01-schema.sql")
+            .withCopyFileToContainer(MountableFile.forHostPath(SQL_DIR.resolve("plan-check-seed.sql")),
+                    "/docker-entrypoint-initdb.d/02-plan-check-seed.sql")
+            .withStartupTimeout(Duration.ofMinutes(10));
+
+    static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine")
+            .withCommand("redis-server", "--requirepass", "redis123456")
+            .withExposedPorts(6379);
+
+    static boolean planCheckAvailable() {
+        return EXTERNAL || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) throws Exception {
+        Path queueDir = Files.createTempDirectory("plan-check-mq");
+        registry.add("embedded-mq.data-dir", queueDir::toString);
+        registry.add("plan-check.enabled", () -> "true");
+        if (EXTERNAL) {
+            return;
+        }
+        MYSQL.start();
+        REDIS.start();
+        registry.add("spring.datasource.url", () -> MYSQL.getJdbcUrl()
+                + "?useUnicode=true&characterEncoding=utf8&serverTimezone=Asia/Shanghai&useSSL=false");
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("spring.redis.host", REDIS::getHost);
+        registry.add("spring.redis.port", () -> REDIS.getMappedPort(6379));
+        registry.add("spring.redis.password", () -> "redis123456");
+    }
+
+    @MockBean
+    private MinioClient minioClient;
+
+    @Autowired
+    private QueryPlanInspector inspector;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private FileService fileService;
+
+    @Autowired
+    private TenantService tenantService;
+
+    @AfterEach
+    void clearContext() {
+        UserContext.clear();
+    }
+
+    @Test
+    void serviceQueriesKeepIndexedPlans() {
+        // 仿真数据中同一提交者的任务版本数相同，取有第二个版本的提交者以覆盖历史版本查询
+        Long creatorId = jdbcTemplate.queryForObject(
+                "SELECT MIN(t.creator_id) FROM review_task t JOIN user u ON u.id = t.creator_id"
+                        + " WHERE t.tenant_id = ? AND t.current_version = 2 AND u.roles = 'USER'",
+                Long.class, TENANT_ID);
+        Long reviewerId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM user WHERE tenant_id = ? AND roles = 'REVIEWER'", Long.class, TENANT_ID);
+
+        UserContext.setContext(new UserContext(creatorId, "plan_creator", TENANT_ID, "USER"));
+        browseAsCreator(creatorId);
+
+        UserContext.setContext(new UserContext(reviewerId, "plan_reviewer", TENANT_ID, "REVIEWER"));
+        browseAsReviewer(reviewerId);
+
+        deleteAsCreator();
+
+        UserContext.setContext(new UserContext(creatorId, "plan_admin", null, "PLATFORM_ADMIN"));
+        TenantQueryRequest tenantQuery = new TenantQueryRequest();
+        tenantQuery.setKeyword("巡检");
+        tenantService.queryTenantPage(tenantQuery);
+
+        QueryPlanReportResponse report = inspector.report();
+        assertTrue(report.getCheckedStatements() > 0, "no statement was explained");
+        List<QueryPlanReportResponse.StatementPlan> regressions = report.getStatements().stream()
+                .filter(plan -> !plan.getViolations().isEmpty())
+                .collect(Collectors.toList());
+        if (!regressions.isEmpty()) {
+            fail(regressions.stream()
+                    .map(plan -> plan.getStatementId() + " " + plan.getViolations() + "\n  " + plan.getSql())
+                    .collect(Collectors.joining("\n", regressions.size() + " statement(s) regressed:\n", "")));
+        }
+    }
+
+    private void browseAsCreator(Long creatorId) {
+        for (TaskListQueryRequest request : listRequests(false)) {
+            taskService.queryMyTasks(request);
+        }
+        CursorPageResponse<TaskListItemResponse> scroll = taskService.scrollMyTasks(new TaskListQueryRequest());
+        TaskListQueryRequest next = new TaskListQueryRequest();
+        next.setCursor(scroll.getNextCursor());
+        taskService.scrollMyTasks(next);
+        taskService.loadMyStatistics();
+        taskService.listReviewers();
+
+        Map<String, Object> task = jdbcTemplate.queryForMap(
+                "SELECT t.id AS task_id, v.id AS version_id FROM review_task t"
+                        + " JOIN review_version v ON v.task_id = t.id AND v.version_number = t.current_version"
+                        + " WHERE t.tenant_id = ? AND t.creator_id = ? AND t.current_version = 2 ORDER BY t.id LIMIT 1",
+                TENANT_ID, creatorId);
+        Long taskId = ((Number) task.get("task_id")).longValue();
+        Long versionId = ((Number) task.get("version_id")).longValue();
+        taskService.getTaskDetail(taskId);
+        taskService.listTaskVersions(taskId);
+        taskService.getVersionStatus(versionId);
+        fileService.listFiles(versionId);
+        String md5 = jdbcTemplate.queryForObject(
+                "SELECT file_md5 FROM review_file WHERE version_id = ? LIMIT 1", String.class, versionId);
+        fileService.checkFileExists(md5);
+        // 热表未命中时回查归档文件
+        fileService.checkFileExists("00000000000000000000000000000000");
+    }
+
+    /**
+     * 删除只有一个版本的任务的文件，该对象不再被热表引用，会继续按 MD5 与对象名统计归档引用。
+     */
+    private void deleteAsCreator() {
+        Map<String, Object> file = jdbcTemplate.queryForMap(
+                "SELECT t.creator_id, f.id AS file_id FROM review_task t"
+                        + " JOIN review_version v ON v.task_id = t.id AND v.version_number = t.current_version"
+                        + " JOIN review_file f ON f.version_id = v.id"
+                        + " JOIN user u ON u.id = t.creator_id"
+                        + " WHERE t.tenant_id = ? AND t.current_version = 1 AND u.roles = 'USER'"
+                        + " ORDER BY f.id LIMIT 1",
+                TENANT_ID);
+        Long creatorId = ((Number) file.get("creator_id")).longValue();
+        UserContext.setContext(new UserContext(creatorId, "plan_creator", TENANT_ID, "USER"));
+        fileService.deleteFile(((Number) file.get("file_id")).longValue());
+    }
+
+    private void browseAsReviewer(Long reviewerId) {
+        for (TaskListQueryRequest request : listRequests(true)) {
+            taskService.queryReviewerTasks(request);
+        }
+        CursorPageResponse<TaskListItemResponse> scroll = taskService.scrollReviewerTasks(new TaskListQueryRequest());
+        TaskListQueryRequest next = new TaskListQueryRequest();
+        next.setCursor(scroll.getNextCursor());
+        taskService.scrollReviewerTasks(next);
+        taskService.loadReviewerStatistics();
+
+        Long versionId = jdbcTemplate.queryForObject(
+                "SELECT v.id FROM review_task t"
+                        + " JOIN review_version v ON v.task_id = t.id AND v.version_number = t.current_version"
+                        + " WHERE t.tenant_id = ? AND t.reviewer_id = ? AND t.current_status = 'REVIEWING'"
+                        + " ORDER BY t.id LIMIT 1",
+                Long.class, TENANT_ID, reviewerId);
+        reviewService.getReviewDetail(versionId);
+    }
+
+    /**
+     * 覆盖列表页的主要筛选组合：默认、状态、关键字、日期区间、深翻页，审查员额外覆盖仅看待审。
+     */
+    private List<TaskListQueryRequest> listRequests(boolean reviewer) {
+        TaskListQueryRequest plain = new TaskListQueryRequest();
+
+        TaskListQueryRequest byStatus = new TaskListQueryRequest();
+        byStatus.setStatus("APPROVED");
+
+        TaskListQueryRequest byKeyword = new TaskListQueryRequest();
+        byKeyword.setKeyword("采购合同");
+
+        TaskListQueryRequest byDate = new TaskListQueryRequest();
+        byDate.setStartDate(LocalDate.now().minusDays(7));
+        byDate.setEndDate(LocalDate.now());
+
+        TaskListQueryRequest deepPage = new TaskListQueryRequest();
+        deepPage.setPageNo(20);
+
+        TaskListQueryRequest pending = new TaskListQueryRequest();
+        pending.setPendingOnly(reviewer);
+
+        return Arrays.asList(plain, byStatus, byKeyword, byDate, deepPage, pending);
+    }
+}
@@ -0,0 +1,115 @@
+package com.review.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.review.dto.ReviewerOptionResponse;
+import com.review.dto.TaskStatisticResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存值编码基准：旧的 GenericJackson2JsonRedisSerializer 与 VersionedCacheSerializer（Smile、Smile+LZ4）
+ * 在任务统计与审查员下拉列表两类缓存值上的编码、解码耗时；各组合的字节数在初始化时输出。
+ * <p>
+ * 运行：在 backend 目录执行 {@code mvn -Pjmh test-compile exec:exec}，
+ * 需要调整 JMH 参数时追加 {@code -Djmh.args="CacheSerializerBenchmark -f 1 -wi 3 -i 5"}。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheSerializerBenchmark {
+
+    /** 与 cache-codec.compress-threshold 默认值一致 */
+    private static final int COMPRESS_THRESHOLD = 1024;
+
+    @Param({"json", "smile", "smile-lz4"})
+    private String format;
+
+    @Param({"statistic", "reviewers"})
+    private String payload;
+
+    /** 审查员下拉列表条数 */
+    @Param({"100"})
+    private int reviewerCount;
+
+    private RedisSerializer<Object> serializer;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        serializer = createSerializer(format);
+        value = "statistic".equals(payload) ? statistic() : reviewers(reviewerCount);
+        encoded = serializer.serialize(value);
+        if (serializer.deserialize(encoded) == null) {
+            throw new IllegalStateException("round trip failed: " + format + "/" + payload);
+        }
+        System.out.println("encoded size: format=" + format + ", payload=" + payload + ", bytes=" + encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+
+    /**
+     * 与 RedisCacheConfig 相同的组装方式，json 即升级前写入 Redis 的格式。
+     */
+    private static RedisSerializer<Object> createSerializer(String format) {
+        GenericJackson2JsonRedisSerializer jsonSerializer =
+                new GenericJackson2JsonRedisSerializer(RedisCacheConfig.cacheObjectMapper(new JsonFactory()));
+        if ("json".equals(format)) {
+            return jsonSerializer;
+        }
+        CacheValueCodec smileCodec = RedisCacheConfig.smileCodec();
+        return new VersionedCacheSerializer(jsonSerializer, Collections.singletonList(smileCodec), smileCodec,
+                "smile-lz4".equals(format), COMPRESS_THRESHOLD);
+    }
+
+    private static TaskStatisticResponse statistic() {
+        TaskStatisticResponse statistic = new TaskStatisticResponse();
+        statistic.setTotal(1250L);
+        statistic.setReviewing(87L);
+        statistic.setApproved(903L);
+        statistic.setRejected(260L);
+        statistic.setMonthTotal(142L);
+        statistic.setMonthApproved(98L);
+        statistic.setPassRate(0.7224);
+        return statistic;
+    }
+
+    private static List<ReviewerOptionResponse> reviewers(int count) {
+        LocalDateTime base = LocalDateTime.of(2026, 10, 1, 9, 0);
+        List<ReviewerOptionResponse> reviewers = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            reviewers.add(new ReviewerOptionResponse((long) (10000 + i), "reviewer_" + i, "审查员" + i,
+                    String.format("139%08d", i), base.minusHours(i), i % 4 == 0));
+        }
+        return reviewers;
+    }
+}
@@ -13,3 +13,33 @@ export const fetchCacheMetrics = () => {
     method: 'get'
   })
 }
+
+export const fetchDeadLetters = (limit = 50) => {
+  return request({
+    url: '/monitor/dlq/messages',
+    method: 'get',
+    params: { limit }
+  })
+}
+
+export const startDeadLetterReplay = (data) => {
+  return request({
+    url: '/monitor/dlq/replay',
+    method: 'post',
+    data
+  })
+}
+
+export const fetchDeadLetterReplayProgress = () => {
+  return request({
+    url: '/monitor/dlq/replay',
+    method: 'get'
+  })
+}
+
+export const cancelDeadLetterReplay = () => {
+  return request({
+    url: '/monitor/dlq/replay/cancel',
+    method: 'post'
+  })
+}
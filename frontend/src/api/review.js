@@ -22,3 +22,11 @@ export function rejectReview(versionId, data) {
     data
   })
 }
+
+export function batchReview(data) {
+  return request({
+    url: '/review/batch',
+    method: 'post',
+    data
+  })
+}
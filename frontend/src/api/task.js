@@ -39,6 +39,14 @@ export function fetchMyTasks(params) {
   })
 }
 
+export function fetchMyTasksByCursor(params) {
+  return request({
+    url: '/tasks/mine/cursor',
+    method: 'get',
+    params
+  })
+}
+
 export function fetchReviewerTasks(params) {
   return request({
     url: '/tasks/reviewer',
@@ -47,6 +55,14 @@ export function fetchReviewerTasks(params) {
   })
 }
 
+export function fetchReviewerTasksByCursor(params) {
+  return request({
+    url: '/tasks/reviewer/cursor',
+    method: 'get',
+    params
+  })
+}
+
 export function fetchMyTaskStatistics() {
   return request({
     url: '/tasks/mine/statistics',
@@ -81,3 +97,24 @@ export function fetchVersionStatus(versionId) {
     method: 'get'
   })
 }
+
+// 导出按筛选条件流式生成 CSV，数据量大时耗时较长，不设超时
+export function exportMyTasks(params) {
+  return request({
+    url: '/tasks/mine/export',
+    method: 'get',
+    params,
+    responseType: 'blob',
+    timeout: 0
+  })
+}
+
+export function exportReviewerTasks(params) {
+  return request({
+    url: '/tasks/reviewer/export',
+    method: 'get',
+    params,
+    responseType: 'blob',
+    timeout: 0
+  })
+}
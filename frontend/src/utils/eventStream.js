@@ -0,0 +1,61 @@
+// 用户事件流（SSE）：整个页面共享一个 EventSource，按事件类型分发给订阅者
+const listeners = new Map()
+let source = null
+
+const dispatch = (type, payload) => {
+  ;(listeners.get(type) || []).forEach(handler => handler(payload))
+}
+
+const bindType = (type) => {
+  if (type === 'error') {
+    source.addEventListener('error', () => dispatch('error'))
+    return
+  }
+  source.addEventListener(type, (event) => {
+    let payload = event.data
+    try {
+      payload = JSON.parse(event.data)
+    } catch (e) {
+      // 非 JSON 数据原样透传
+    }
+    dispatch(type, payload)
+  })
+}
+
+const ensureSource = () => {
+  if (source) return source
+  const token = localStorage.getItem('token')
+  if (!token || typeof EventSource === 'undefined') return null
+  source = new EventSource(`/api/events/stream?token=${encodeURIComponent(token)}`)
+  listeners.forEach((handlers, type) => bindType(type))
+  return source
+}
+
+/**
+ * 订阅事件，返回取消订阅函数。
+ * type 为 'error' 时在连接异常（或浏览器不支持 SSE）时回调，调用方可据此降级为轮询。
+ */
+export const subscribeEvent = (type, handler) => {
+  const isNewType = !listeners.has(type)
+  if (isNewType) {
+    listeners.set(type, [])
+  }
+  listeners.get(type).push(handler)
+  if (!ensureSource()) {
+    if (type === 'error') handler()
+  } else if (isNewType) {
+    bindType(type)
+  }
+  return () => {
+    const handlers = listeners.get(type) || []
+    listeners.set(type, handlers.filter(fn => fn !== handler))
+  }
+}
+
+export const closeEventStream = () => {
+  if (source) {
+    source.close()
+    source = null
+  }
+  listeners.clear()
+}
@@ -27,6 +27,18 @@ request.interceptors.response.use(
   response => {
     const res = response.data
 
+    // 文件下载与导出直接返回二进制内容；业务异常时后端仍返回 JSON，需要解析出错误信息
+    if (response.config.responseType === 'blob') {
+      if (res.type && res.type.includes('application/json')) {
+        return res.text().then(text => {
+          const body = JSON.parse(text)
+          ElMessage.error(body.message || '请求失败')
+          return Promise.reject(new Error(body.message || '请求失败'))
+        })
+      }
+      return res
+    }
+
     // 如果响应码不是 SUCCESS，则显示错误
     if (res.code !== 'SUCCESS') {
       ElMessage.error(res.message || '请求失败')
@@ -0,0 +1,87 @@
+-- ============================================
+-- 查询计划巡检仿真数据
+-- 用途：开发 / 预发环境在 schema.sql 建表后执行，生成一个数据量足以让优化器做出真实选择的租户，
+--       再开启 plan-check.enabled，遍历页面后在 /monitor/query-plans 查看计划报告。
+-- 注意：请勿在生产库执行；重复执行会先清理该租户的数据。需要 MySQL 8.0+。
+-- ============================================
+
+SET NAMES utf8mb4;
+SET SESSION cte_max_recursion_depth = 100000;
+SET @tenant_id = 9001;
+
+DELETE FROM `review_file` WHERE `tenant_id` = @tenant_id;
+DELETE FROM `review_version` WHERE `tenant_id` = @tenant_id;
+DELETE FROM `task_list_view` WHERE `tenant_id` = @tenant_id;
+DELETE FROM `review_task` WHERE `tenant_id` = @tenant_id;
+DELETE FROM `user` WHERE `tenant_id` = @tenant_id;
+DELETE FROM `tenant` WHERE `id` = @tenant_id;
+
+INSERT INTO `tenant` (`id`, `tenant_name`, `contact_name`, `contact_phone`, `user_quota`, `user_count`)
+VALUES (@tenant_id, '查询计划巡检租户', '巡检', '13800000000', 1000, 200);
+
+-- 200 个用户，每 5 个中 1 个审查员；密码为无效值，不可登录
+INSERT INTO `user` (`tenant_id`, `username`, `password`, `real_name`, `phone`, `roles`, `status`, `last_login_time`)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 200)
+SELECT @tenant_id, CONCAT('plan_user_', n), 'plan-check-disabled', CONCAT('巡检用户', n),
+       CONCAT('139', LPAD(n, 8, '0')), IF(n % 5 = 0, 'REVIEWER', 'USER'), 1, NOW() - INTERVAL n HOUR
+FROM seq;
+
+SELECT MIN(`id`) INTO @user_base FROM `user` WHERE `tenant_id` = @tenant_id;
+
+-- 50000 个任务，状态均匀分布，约一半有第二个版本
+INSERT INTO `review_task` (`tenant_id`, `task_name`, `creator_id`, `reviewer_id`, `current_version`,
+                           `next_version`, `current_status`, `create_time`, `update_time`)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 50000)
+SELECT @tenant_id,
+       CONCAT(ELT(1 + n % 6, '财务报表', '采购合同', '年度审计', '项目预算', '人事制度', '安全评估'), '-', n),
+       @user_base + n % 200,
+       @user_base + (n % 40) * 5 + 4,
+       1 + n % 2,
+       2 + n % 2,
+       ELT(1 + n % 3, 'REVIEWING', 'APPROVED', 'REJECTED'),
+       NOW() - INTERVAL n MINUTE,
+       NOW() - INTERVAL n MINUTE + INTERVAL (n % 90) MINUTE
+FROM seq;
+
+-- 历史版本均为打回，当前版本与任务状态一致
+INSERT INTO `review_version` (`tenant_id`, `task_id`, `version_number`, `submit_desc`, `status`, `review_result`,
+                              `reviewer_id`, `review_time`, `files_ready`, `file_count`, `create_time`, `update_time`)
+SELECT t.`tenant_id`, t.`id`, v.`version_number`, CONCAT('仿真版本 v', v.`version_number`),
+       IF(v.`version_number` = t.`current_version`, t.`current_status`, 'REJECTED'),
+       CASE
+           WHEN v.`version_number` < t.`current_version` THEN 'REJECTED'
+           WHEN t.`current_status` = 'REVIEWING' THEN NULL
+           ELSE t.`current_status`
+       END,
+       t.`reviewer_id`,
+       IF(v.`version_number` = t.`current_version` AND t.`current_status` = 'REVIEWING', NULL, t.`update_time`),
+       1, 3, t.`create_time`, t.`update_time`
+FROM `review_task` t
+JOIN (SELECT 1 AS `version_number` UNION ALL SELECT 2) v ON v.`version_number` <= t.`current_version`
+WHERE t.`tenant_id` = @tenant_id;
+
+-- 每个版本 3 个文件，同一任务的各版本共用对象（与重新提交时复制文件一致）
+INSERT INTO `review_file` (`tenant_id`, `version_id`, `file_name`, `minio_object_name`, `file_md5`, `file_size`, `create_time`)
+SELECT v.`tenant_id`, v.`id`, CONCAT('附件', f.`n`, '.pdf'),
+       CONCAT(v.`tenant_id`, '/', MD5(CONCAT(v.`task_id`, '-', f.`n`))),
+       MD5(CONCAT(v.`task_id`, '-', f.`n`)),
+       1048576 * f.`n`, v.`create_time`
+FROM `review_version` v
+JOIN (SELECT 1 AS `n` UNION ALL SELECT 2 UNION ALL SELECT 3) f
+WHERE v.`tenant_id` = @tenant_id;
+
+-- 与 TaskListViewMapper.upsertFromSource 相同的投影
+INSERT INTO `task_list_view` (`task_id`, `tenant_id`, `task_name`, `creator_id`, `reviewer_id`, `current_version`,
+                              `current_status`, `current_version_id`, `file_count`, `version_submit_time`,
+                              `last_update_time`, `creator_name`, `creator_phone`, `reviewer_name`, `reviewer_phone`,
+                              `create_time`, `update_time`)
+SELECT t.`id`, t.`tenant_id`, t.`task_name`, t.`creator_id`, t.`reviewer_id`, t.`current_version`,
+       t.`current_status`, v.`id`, COALESCE(v.`file_count`, 0), v.`create_time`, COALESCE(v.`update_time`, t.`update_time`),
+       c.`real_name`, c.`phone`, r.`real_name`, r.`phone`, t.`create_time`, t.`update_time`
+FROM `review_task` t
+LEFT JOIN `review_version` v ON v.`task_id` = t.`id` AND v.`version_number` = t.`current_version`
+LEFT JOIN `user` c ON c.`id` = t.`creator_id`
+LEFT JOIN `user` r ON r.`id` = t.`reviewer_id`
+WHERE t.`tenant_id` = @tenant_id;
+
+ANALYZE TABLE `user`, `review_task`, `review_version`, `review_file`, `task_list_view`;
@@ -22,6 +22,8 @@ CREATE TABLE `tenant` (
   `user_quota` INT NOT NULL DEFAULT 50 COMMENT '用户数量配额',
   `user_count` INT NOT NULL DEFAULT 0 COMMENT '已创建用户数量',
   `status` TINYINT NOT NULL DEFAULT 1 COMMENT '状态：1-正常，0-停用',
+  `shard_id` INT NOT NULL DEFAULT 0 COMMENT '所在分片（分片0保存全部租户的目录行）',
+  `shard_migrating` TINYINT NOT NULL DEFAULT 0 COMMENT '分片迁移中：1-是，0-否（以分片0的目录行为准）',
   `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
@@ -62,14 +64,18 @@ CREATE TABLE `review_task` (
   `creator_id` BIGINT NOT NULL COMMENT '创建者ID',
   `reviewer_id` BIGINT NOT NULL COMMENT '审查员ID',
   `current_version` INT NOT NULL DEFAULT 1 COMMENT '当前版本号',
+  `next_version` INT NOT NULL DEFAULT 2 COMMENT '下一个待分配的版本号（创建任务时已占用 v1）',
   `current_status` VARCHAR(20) NOT NULL DEFAULT 'REVIEWING' COMMENT '当前状态：REVIEWING-审查中，APPROVED-已通过，REJECTED-已打回',
+  `lock_version` INT NOT NULL DEFAULT 0 COMMENT '乐观锁版本号',
   `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   PRIMARY KEY (`id`),
   UNIQUE KEY `uk_tenant_task_name` (`tenant_id`, `task_name`),
   KEY `idx_creator_id` (`creator_id`),
   KEY `idx_reviewer_id` (`reviewer_id`),
-  KEY `idx_current_status` (`current_status`)
+  KEY `idx_status_update` (`current_status`, `update_time`),
+  KEY `idx_stat_creator` (`tenant_id`, `creator_id`, `current_status`, `create_time`),
+  KEY `idx_stat_reviewer` (`tenant_id`, `reviewer_id`, `current_status`, `create_time`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='审查任务表';
 
 -- ============================================
@@ -89,10 +95,13 @@ CREATE TABLE `review_version` (
   `review_time` DATETIME DEFAULT NULL COMMENT '审查时间',
   `files_ready` TINYINT NOT NULL DEFAULT 1 COMMENT '文件是否就绪：0-复制中，1-已就绪（用于异步复制）',
   `file_count` INT NOT NULL DEFAULT 0 COMMENT '文件数量',
+  `lock_version` INT NOT NULL DEFAULT 0 COMMENT '乐观锁版本号',
   `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  `preparing_task_id` BIGINT GENERATED ALWAYS AS (IF(`status` = 'PREPARING', `task_id`, NULL)) VIRTUAL COMMENT '准备中版本的任务ID，其余状态为 NULL',
   PRIMARY KEY (`id`),
   UNIQUE KEY `uk_task_version` (`task_id`, `version_number`),
+  UNIQUE KEY `uk_preparing_task` (`preparing_task_id`),
   KEY `idx_tenant_id` (`tenant_id`),
   KEY `idx_status` (`status`),
   KEY `idx_reviewer_id` (`reviewer_id`)
@@ -118,6 +127,99 @@ CREATE TABLE `review_file` (
   KEY `idx_file_md5` (`tenant_id`, `file_md5`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='审查文件表';
 
+-- ============================================
+-- 6. 任务列表读模型 (task_list_view)
+-- ============================================
+DROP TABLE IF EXISTS `task_list_view`;
+CREATE TABLE `task_list_view` (
+  `task_id` BIGINT NOT NULL COMMENT '任务ID',
+  `tenant_id` BIGINT NOT NULL COMMENT '租户ID',
+  `task_name` VARCHAR(100) NOT NULL COMMENT '任务名称',
+  `creator_id` BIGINT NOT NULL COMMENT '创建者ID',
+  `reviewer_id` BIGINT NOT NULL COMMENT '审查员ID',
+  `current_version` INT NOT NULL DEFAULT 1 COMMENT '当前版本号',
+  `current_status` VARCHAR(20) NOT NULL COMMENT '当前状态',
+  `current_version_id` BIGINT DEFAULT NULL COMMENT '当前版本ID',
+  `file_count` INT NOT NULL DEFAULT 0 COMMENT '当前版本文件数',
+  `version_submit_time` DATETIME DEFAULT NULL COMMENT '当前版本提交时间',
+  `last_update_time` DATETIME DEFAULT NULL COMMENT '当前版本最后更新时间',
+  `creator_name` VARCHAR(50) DEFAULT NULL COMMENT '创建者姓名',
+  `creator_phone` VARCHAR(20) DEFAULT NULL COMMENT '创建者手机号',
+  `reviewer_name` VARCHAR(50) DEFAULT NULL COMMENT '审查员姓名',
+  `reviewer_phone` VARCHAR(20) DEFAULT NULL COMMENT '审查员手机号',
+  `create_time` DATETIME NOT NULL COMMENT '任务创建时间',
+  `update_time` DATETIME NOT NULL COMMENT '任务更新时间（与 review_task 同步）',
+  PRIMARY KEY (`task_id`),
+  KEY `idx_creator_update` (`tenant_id`, `creator_id`, `update_time`, `task_id`),
+  KEY `idx_reviewer_update` (`tenant_id`, `reviewer_id`, `update_time`, `task_id`),
+  KEY `idx_current_version_id` (`current_version_id`),
+  FULLTEXT KEY `ft_task_name` (`task_name`) WITH PARSER ngram
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='任务列表读模型';
+
+-- ============================================
+-- 7. 归档表 (review_task_archive / review_version_archive / review_file_archive / task_list_view_archive)
+-- 审查通过且超过保留期的任务连同版本、文件、读模型行整体迁入，列与热表一致，仅保留只读查询需要的索引
+-- ============================================
+DROP TABLE IF EXISTS `review_task_archive`;
+CREATE TABLE `review_task_archive` (
+  `id` BIGINT NOT NULL COMMENT '任务ID',
+  `tenant_id` BIGINT NOT NULL COMMENT '租户ID',
+  `task_name` VARCHAR(100) NOT NULL COMMENT '任务名称',
+  `creator_id` BIGINT NOT NULL COMMENT '创建者ID',
+  `reviewer_id` BIGINT NOT NULL COMMENT '审查员ID',
+  `current_version` INT NOT NULL DEFAULT 1 COMMENT '当前版本号',
+  `next_version` INT NOT NULL DEFAULT 2 COMMENT '下一个待分配的版本号',
+  `current_status` VARCHAR(20) NOT NULL COMMENT '当前状态（归档时均为 APPROVED）',
+  `lock_version` INT NOT NULL DEFAULT 0 COMMENT '乐观锁版本号',
+  `create_time` DATETIME NOT NULL COMMENT '创建时间',
+  `update_time` DATETIME NOT NULL COMMENT '更新时间',
+  `archive_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '归档时间',
+  PRIMARY KEY (`id`),
+  KEY `idx_stat_creator` (`tenant_id`, `creator_id`, `current_status`, `create_time`),
+  KEY `idx_stat_reviewer` (`tenant_id`, `reviewer_id`, `current_status`, `create_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='审查任务归档表';
+
+DROP TABLE IF EXISTS `review_version_archive`;
+CREATE TABLE `review_version_archive` (
+  `id` BIGINT NOT NULL COMMENT '版本ID',
+  `tenant_id` BIGINT NOT NULL COMMENT '租户ID',
+  `task_id` BIGINT NOT NULL COMMENT '任务ID',
+  `version_number` INT NOT NULL COMMENT '版本号',
+  `submit_desc` TEXT COMMENT '提交说明',
+  `status` VARCHAR(20) NOT NULL COMMENT '版本状态',
+  `review_result` VARCHAR(20) DEFAULT NULL COMMENT '审查结果',
+  `review_comment` TEXT COMMENT '审查意见',
+  `reviewer_id` BIGINT DEFAULT NULL COMMENT '审查人ID',
+  `review_time` DATETIME DEFAULT NULL COMMENT '审查时间',
+  `files_ready` TINYINT NOT NULL DEFAULT 1 COMMENT '文件是否就绪',
+  `file_count` INT NOT NULL DEFAULT 0 COMMENT '文件数量',
+  `lock_version` INT NOT NULL DEFAULT 0 COMMENT '乐观锁版本号',
+  `create_time` DATETIME NOT NULL COMMENT '创建时间',
+  `update_time` DATETIME NOT NULL COMMENT '更新时间',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_task_version` (`task_id`, `version_number`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='审查版本归档表';
+
+DROP TABLE IF EXISTS `review_file_archive`;
+CREATE TABLE `review_file_archive` (
+  `id` BIGINT NOT NULL COMMENT '文件ID',
+  `tenant_id` BIGINT NOT NULL COMMENT '租户ID',
+  `version_id` BIGINT NOT NULL COMMENT '版本ID',
+  `file_name` VARCHAR(255) NOT NULL COMMENT '原始文件名',
+  `minio_object_name` VARCHAR(500) NOT NULL COMMENT 'MinIO对象名',
+  `file_md5` VARCHAR(32) NOT NULL COMMENT '文件MD5值',
+  `file_size` BIGINT NOT NULL COMMENT '文件大小（字节）',
+  `file_type` VARCHAR(100) NOT NULL DEFAULT 'application/pdf' COMMENT '文件类型',
+  `create_time` DATETIME NOT NULL COMMENT '创建时间',
+  PRIMARY KEY (`id`),
+  KEY `idx_version_id` (`version_id`),
+  KEY `idx_file_md5` (`tenant_id`, `file_md5`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='审查文件归档表';
+
+DROP TABLE IF EXISTS `task_list_view_archive`;
+CREATE TABLE `task_list_view_archive` LIKE `task_list_view`;
+ALTER TABLE `task_list_view_archive` DROP INDEX `idx_current_version_id`, COMMENT = '任务列表读模型归档表';
+
 -- ============================================
 -- 索引说明
 -- ============================================
@@ -134,7 +236,8 @@ CREATE TABLE `review_file` (
 --   - uk_tenant_task_name: 同一租户下任务名唯一
 --   - idx_creator_id: 查询我的任务
 --   - idx_reviewer_id: 查询待审查任务
---   - idx_current_status: 按状态筛选任务
+--   - idx_status_update: 按状态筛选任务；归档任务按 (APPROVED, update_time) 范围挑选到期任务
+--   - idx_stat_creator / idx_stat_reviewer: 任务统计条件聚合的覆盖索引（计数重建与每日校准），idx_stat_reviewer 同时用于重建审查员负载排行
 --
 -- review_version表：
 --   - uk_task_version: 同一任务下版本号唯一
@@ -146,5 +249,39 @@ CREATE TABLE `review_file` (
 --   - uk_version_filename: 同一版本下文件名唯一
 --   - idx_tenant_id: 租户数据隔离
 --   - idx_file_md5: MD5去重查询（秒传功能）
+--
+-- task_list_view表：
+--   - idx_creator_update / idx_reviewer_update: 我的任务 / 审查员任务列表按 (update_time, task_id) 排序与游标分页
+--   - idx_current_version_id: 版本文件数变化时定位读模型行
+--   - ft_task_name: 任务名称关键字检索（ngram 分词，依赖 ngram_token_size=2 的默认配置）
+--
+-- 归档表：
+--   - review_task_archive.idx_stat_creator / idx_stat_reviewer: 统计计数重建与校准时与热表 UNION ALL 聚合
+--   - review_version_archive.uk_task_version: 归档任务详情按任务加载版本
+--   - review_file_archive.idx_version_id: 归档版本的文件列表；idx_file_md5: 秒传与删除时的对象引用判断需同时检查归档文件
+--   - task_list_view_archive: 与读模型结构一致，列表勾选“包含已归档”时与热表按相同条件 UNION ALL；归档后人员展示字段不再同步
+--
+-- 乐观锁：
+--   - review_task / review_version 的 lock_version 在每次更新时递增；审查、再次提交按 (id, 读取时的状态, lock_version) 条件更新，
+--     影响行数为 0 时在新事务中重读重试，按条件批量更新的语句同样递增 lock_version
+--
+-- 版本号分配：
+--   - review_task.next_version 通过 UPDATE ... SET next_version = LAST_INSERT_ID(next_version) + 1 原子分配，
+--     同一任务的并发再次提交不会在 uk_task_version 上冲突；分配时与该任务的 MAX(version_number) + 1 取较大值，
+--     从旧结构升级时新增列取默认值即可，已有多个版本的任务在首次分配时自动追上，无需回填
+--   - 分配不加锁，版本号允许出现空洞；每个任务最多一个准备中版本由 review_version.uk_preparing_task 保证，
+--     并发再次提交时插入冲突的一方作废自己的版本号并返回已有的准备中版本，上一版本按 version_number 小于当前值的最近一条查找
+--   - 从旧结构升级：ALTER TABLE review_version ADD COLUMN preparing_task_id BIGINT GENERATED ALWAYS AS
+--     (IF(status = 'PREPARING', task_id, NULL)) VIRTUAL, ADD UNIQUE KEY uk_preparing_task (preparing_task_id)；
+--     执行前确认不存在同一任务的多个 PREPARING 版本
+--
+-- 租户分片（tenant-shard.enabled=true）：
+--   - 每个分片执行完整的本脚本；租户数据只存在于 tenant.shard_id 指向的分片，分片 0 另为每个租户保留一行作为分片目录，
+--     目录行仅 id、tenant_name、shard_id 保持准确，其余字段以租户所在分片为准；平台租户分页按 shard_id = 当前分片汇总
+--   - 各分片需配置互不重叠的自增序列（auto_increment_increment = 分片数上限，auto_increment_offset = 分片号 + 1），
+--     保证主键全局唯一：缓存按主键组织，迁移工具也依赖主键不冲突，发现冲突时中止迁移
+--   - 迁移期间目录行 shard_migrating = 1，路由随目录缓存读取；标记存在时写请求检查 Redis 冻结标记，Redis 不可用时拒绝写入，
+--     冻结在标记对全部节点可见（directory-cache-seconds）之后才开始最后一轮同步。
+--     从旧结构升级：ALTER TABLE tenant ADD COLUMN shard_migrating TINYINT NOT NULL DEFAULT 0（每个分片执行）
 
 SET FOREIGN_KEY_CHECKS = 1;